@@ -0,0 +1,111 @@
+package com.thomaskavi.lucrabet.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thomaskavi.lucrabet.dto.FiltroRegistroDTO;
+import com.thomaskavi.lucrabet.dto.PaginaDTO;
+import com.thomaskavi.lucrabet.dto.PontoSerieDTO;
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.dto.ResultadoAnaliticoDTO;
+import com.thomaskavi.lucrabet.dto.SumarioDTO;
+import com.thomaskavi.lucrabet.dto.TotalPorDataDTO;
+import com.thomaskavi.lucrabet.services.AgregadoDiarioService;
+import com.thomaskavi.lucrabet.services.AnaliticoService;
+import com.thomaskavi.lucrabet.services.RegistroOperacaoService;
+
+/**
+ * Totais e consultas do RegistroOperacaoService e das fontes que ele usa
+ * (cache de resultados, cópia colunar, agregado diário, páginas por keyset),
+ * sobre o H2 do LivroH2.
+ *
+ * mvn -Pbenchmark test -Djmh.args="AgregacoesBenchmark -p registros=100000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgregacoesBenchmark {
+
+  private static final LocalDate INICIO = LivroH2.PRIMEIRO_DIA.plusDays(90);
+  private static final LocalDate FIM = LivroH2.PRIMEIRO_DIA.plusDays(180);
+
+  private RegistroOperacaoService registroOperacaoService;
+  private AgregadoDiarioService agregadoDiarioService;
+  private AnaliticoService analiticoService;
+
+  @Setup
+  public void obterServicos(LivroH2 livro) {
+    registroOperacaoService = livro.bean(RegistroOperacaoService.class);
+    agregadoDiarioService = livro.bean(AgregadoDiarioService.class);
+    analiticoService = livro.bean(AnaliticoService.class);
+  }
+
+  // Caminho da API: depois da primeira chamada, responde pelo cache
+  @Benchmark
+  public BigDecimal lucroTotalGeral() {
+    return registroOperacaoService.calcularLucroTotalGeral();
+  }
+
+  @Benchmark
+  public SumarioDTO sumarioPeriodoCopiaColunar() {
+    return analiticoService.resumir(INICIO, FIM, null, null);
+  }
+
+  @Benchmark
+  public SumarioDTO sumarioPeriodoAgregadoDiario() {
+    return agregadoDiarioService.resumir(INICIO, FIM, null, null);
+  }
+
+  @Benchmark
+  public SumarioDTO sumarioGeralAgregadoDiario() {
+    return agregadoDiarioService.resumir(null, null, null, null);
+  }
+
+  @Benchmark
+  public List<TotalPorDataDTO> lucroPorDiaAgregadoDiario() {
+    return agregadoDiarioService.somarLucroAgrupadoPorData();
+  }
+
+  @Benchmark
+  public List<PontoSerieDTO> serieSemanal() {
+    return agregadoDiarioService.serie(INICIO, FIM, AgregadoDiarioService.Granularidade.SEMANA, null, null);
+  }
+
+  @Benchmark
+  public ResultadoAnaliticoDTO analiticoPlataformaMes() {
+    return analiticoService.consultar(List.of(AnaliticoService.Dimensao.PLATAFORMA, AnaliticoService.Dimensao.MES),
+        new FiltroRegistroDTO());
+  }
+
+  @Benchmark
+  public Map<LocalDate, BigDecimal> lucroTotalPorDia() {
+    return registroOperacaoService.getLucroTotalPorDia();
+  }
+
+  @Benchmark
+  public PaginaDTO<RegistroOperacaoDTO> paginaPorPeriodo() {
+    return registroOperacaoService.findByPeriodo(INICIO, FIM, null, 50);
+  }
+
+  @Benchmark
+  public PaginaDTO<RegistroOperacaoDTO> paginaPorPlataforma() {
+    return registroOperacaoService.findByPlataformaLink("plat3.bet", null, 50);
+  }
+}
@@ -0,0 +1,224 @@
+package com.thomaskavi.lucrabet.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.thomaskavi.lucrabet.LucrabetApplication;
+
+/**
+ * Teste de carga HTTP com leituras e escritas misturadas, comparando o modo
+ * padrão (threads de plataforma do Tomcat) com o perfil "virtual" (virtual
+ * threads + LimiteConcorrenciaFilter).
+ *
+ * Para cada modo a aplicação sobe neste mesmo processo, em uma porta livre e
+ * com um banco H2 próprio. O livro é populado pela importação CSV e depois os
+ * clientes (em laço fechado, cada um na sua virtual thread) repetem
+ * requisições pelo tempo pedido. No final são impressos a vazão e as
+ * latências p50/p99/máxima de cada modo. A semente do gerador é fixa, então a
+ * sequência de requisições se repete entre execuções.
+ *
+ * mvn -Pbenchmark test -Dbenchmark.main=com.thomaskavi.lucrabet.benchmark.CargaMistaBenchmark \
+ *   -Dbenchmark.args="clientes=400 segundos=30 registros=50000 escritas=0.2"
+ */
+public class CargaMistaBenchmark {
+
+  private static final LocalDate PRIMEIRO_DIA = LocalDate.of(2024, 1, 1);
+  private static final int DIAS = 730;
+  private static final int PLATAFORMAS = 20;
+  private static final int CONTAS = 50;
+
+  // Resultado de um modo
+  private static class Medicao {
+    private final String modo;
+    private final long requisicoes;
+    private final long erros;
+    private final double segundos;
+    private final long[] latenciasNanos;
+
+    Medicao(String modo, long requisicoes, long erros, double segundos, long[] latenciasNanos) {
+      this.modo = modo;
+      this.requisicoes = requisicoes;
+      this.erros = erros;
+      this.segundos = segundos;
+      this.latenciasNanos = latenciasNanos;
+    }
+
+    double percentilMs(double p) {
+      if (latenciasNanos.length == 0) {
+        return 0;
+      }
+      int indice = (int) Math.min(latenciasNanos.length - 1, Math.ceil(p * latenciasNanos.length) - 1);
+      return latenciasNanos[Math.max(0, indice)] / 1_000_000.0;
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> parametros = new HashMap<>();
+    for (String arg : args) {
+      String[] partes = arg.split("=", 2);
+      parametros.put(partes[0], partes.length > 1 ? partes[1] : "");
+    }
+    List<String> modos = Arrays.asList(parametros.getOrDefault("modos", "plataforma,virtual").split(","));
+    int clientes = Integer.parseInt(parametros.getOrDefault("clientes", "400"));
+    int segundos = Integer.parseInt(parametros.getOrDefault("segundos", "20"));
+    int aquecimento = Integer.parseInt(parametros.getOrDefault("aquecimento", "5"));
+    int registros = Integer.parseInt(parametros.getOrDefault("registros", "50000"));
+    double escritas = Double.parseDouble(parametros.getOrDefault("escritas", "0.2"));
+
+    List<Medicao> medicoes = new ArrayList<>();
+    for (String modo : modos) {
+      medicoes.add(executarModo(modo.trim(), clientes, aquecimento, segundos, registros, escritas));
+    }
+
+    System.out.printf(Locale.ROOT, "%n%d clientes, %ds, %d registros, %.0f%% escritas%n", clientes, segundos,
+        registros, escritas * 100);
+    System.out.printf(Locale.ROOT, "%-12s %12s %10s %10s %10s %10s %8s%n", "modo", "req/s", "p50 ms", "p99 ms",
+        "max ms", "total", "erros");
+    for (Medicao m : medicoes) {
+      System.out.printf(Locale.ROOT, "%-12s %12.1f %10.2f %10.2f %10.2f %10d %8d%n", m.modo,
+          m.requisicoes / m.segundos, m.percentilMs(0.50), m.percentilMs(0.99), m.percentilMs(1.0), m.requisicoes,
+          m.erros);
+    }
+  }
+
+  private static Medicao executarModo(String modo, int clientes, int aquecimento, int segundos, int registros,
+      double escritas) throws Exception {
+    SpringApplicationBuilder builder = new SpringApplicationBuilder(LucrabetApplication.class);
+    if (modo.equals("virtual")) {
+      builder.profiles("virtual");
+    } else if (!modo.equals("plataforma")) {
+      throw new IllegalArgumentException("Modo desconhecido: " + modo);
+    }
+
+    // Como argumentos de linha de comando, para valerem sobre o perfil "test"
+    try (ConfigurableApplicationContext contexto = builder.run("--server.port=0",
+        "--spring.datasource.url=jdbc:h2:mem:carga-" + modo, "--logging.level.root=WARN")) {
+      String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port")
+          + "/api/registros-operacoes";
+      HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+          .connectTimeout(Duration.ofSeconds(10)).build();
+      popular(http, base, registros);
+
+      System.out.printf("[%s] aquecendo por %ds...%n", modo, aquecimento);
+      carga(modo, http, base, clientes, aquecimento, escritas, 1);
+      System.out.printf("[%s] medindo por %ds...%n", modo, segundos);
+      return carga(modo, http, base, clientes, segundos, escritas, 2);
+    }
+  }
+
+  // Importa "registros" linhas geradas, em um único CSV
+  private static void popular(HttpClient http, String base, int registros) throws Exception {
+    SplittableRandom random = new SplittableRandom(7);
+    StringBuilder csv = new StringBuilder(registros * 80);
+    csv.append("Plataforma;Conta;Data;Valor Depós.;Slot/Giros;Situação;Lucro;Saque Completo\n");
+    for (int i = 0; i < registros; i++) {
+      csv.append("plat").append(random.nextInt(PLATAFORMAS)).append(".bet;")
+          .append("conta").append(random.nextInt(CONTAS)).append(';')
+          .append(PRIMEIRO_DIA.plusDays(random.nextInt(DIAS))).append(';')
+          .append(random.nextInt(10, 500)).append(".00;Slot ").append(random.nextInt(30)).append(';')
+          .append(random.nextInt(10) == 0 ? "Aguardando" : "Finalizado").append(';')
+          .append(random.nextInt(-500, 800)).append('.').append(random.nextInt(10, 100)).append(';')
+          .append(random.nextBoolean() ? "Sim" : "Não").append('\n');
+    }
+    HttpResponse<String> resposta = http.send(HttpRequest.newBuilder(URI.create(base + "/importacao"))
+        .header("Content-Type", "text/csv").POST(HttpRequest.BodyPublishers.ofString(csv.toString())).build(),
+        HttpResponse.BodyHandlers.ofString());
+    if (resposta.statusCode() != 200) {
+      throw new IllegalStateException("Importação falhou: " + resposta.statusCode() + " " + resposta.body());
+    }
+  }
+
+  private static Medicao carga(String modo, HttpClient http, String base, int clientes, int segundos,
+      double escritas, long semente) throws InterruptedException {
+    long fim = System.nanoTime() + segundos * 1_000_000_000L;
+    AtomicLong erros = new AtomicLong();
+    List<long[]> porCliente = new ArrayList<>();
+    int[] quantidades = new int[clientes];
+    long inicio = System.nanoTime();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int c = 0; c < clientes; c++) {
+        int cliente = c;
+        long[] latencias = new long[1 << 16];
+        porCliente.add(latencias);
+        executor.submit(() -> {
+          SplittableRandom random = new SplittableRandom(semente * 1_000_003 + cliente);
+          long[] minhas = latencias;
+          int n = 0;
+          while (System.nanoTime() < fim) {
+            HttpRequest requisicao = random.nextDouble() < escritas ? escrita(base, random) : leitura(base, random);
+            long t0 = System.nanoTime();
+            try {
+              HttpResponse<Void> resposta = http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+              if (resposta.statusCode() >= 300) {
+                erros.incrementAndGet();
+              }
+            } catch (Exception e) {
+              erros.incrementAndGet();
+            }
+            if (n == minhas.length) {
+              minhas = Arrays.copyOf(minhas, n * 2);
+              porCliente.set(cliente, minhas);
+            }
+            minhas[n++] = System.nanoTime() - t0;
+          }
+          quantidades[cliente] = n;
+          return null;
+        });
+      }
+    }
+    double duracao = (System.nanoTime() - inicio) / 1e9;
+
+    int total = Arrays.stream(quantidades).sum();
+    long[] todas = new long[total];
+    int posicao = 0;
+    for (int c = 0; c < clientes; c++) {
+      System.arraycopy(porCliente.get(c), 0, todas, posicao, quantidades[c]);
+      posicao += quantidades[c];
+    }
+    Arrays.sort(todas);
+    return new Medicao(modo, total, erros.get(), duracao, todas);
+  }
+
+  private static HttpRequest escrita(String base, SplittableRandom random) {
+    String corpo = String.format(Locale.ROOT,
+        "{\"plataforma\":{\"linkPlataforma\":\"plat%d.bet\"},\"conta\":{\"nomeConta\":\"conta%d\"},"
+            + "\"dataOperacao\":\"%s\",\"valorDeposito\":%d.00,\"nomeSlotGiros\":\"Slot %d\","
+            + "\"situacao\":\"Finalizado\",\"valorLucro\":%d.50,\"saqueCompletoFeito\":%b}",
+        random.nextInt(PLATAFORMAS), random.nextInt(CONTAS), PRIMEIRO_DIA.plusDays(random.nextInt(DIAS)),
+        random.nextInt(10, 500), random.nextInt(30), random.nextInt(-500, 800), random.nextBoolean());
+    return HttpRequest.newBuilder(URI.create(base)).header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(corpo)).build();
+  }
+
+  // Sem If-None-Match: toda leitura executa a consulta (ou o cache de totais)
+  private static HttpRequest leitura(String base, SplittableRandom random) {
+    LocalDate inicio = PRIMEIRO_DIA.plusDays(random.nextInt(DIAS));
+    LocalDate fim = inicio.plusDays(random.nextInt(1, 90));
+    String caminho = switch (random.nextInt(5)) {
+      case 0 -> "?tamanho=50";
+      case 1 -> "/periodo?startDate=" + inicio + "&endDate=" + fim + "&tamanho=50";
+      case 2 -> "/plataforma/plat" + random.nextInt(PLATAFORMAS) + ".bet?tamanho=50";
+      case 3 -> "/sumario?startDate=" + inicio + "&endDate=" + fim;
+      default -> "/serie?startDate=" + inicio + "&endDate=" + fim + "&granularidade=semana";
+    };
+    return HttpRequest.newBuilder(URI.create(base + caminho)).GET().build();
+  }
+}
@@ -0,0 +1,349 @@
+package com.thomaskavi.lucrabet.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Driver de carga em malha aberta para uma instância já rodando (por exemplo
+ * com o perfil "gerador"): dispara requisições nos endpoints de
+ * RegistroOperacaoController a uma taxa fixa, na proporção do "mix", e
+ * imprime a vazão e o histograma de latências de cada endpoint.
+ *
+ * Como a taxa não depende das respostas, a latência é medida a partir do
+ * instante em que a requisição deveria ter saído: se o servidor engasgar, as
+ * requisições atrasadas entram no histograma com o atraso (sem "coordinated
+ * omission"). Não usa nada além da aplicação local.
+ *
+ * mvn -Pbenchmark test -Dbenchmark.main=com.thomaskavi.lucrabet.benchmark.DriverCarga \
+ *   -Dbenchmark.args="url=http://localhost:8080 taxa=200 segundos=60 \
+ *     mix=listar:20,periodo:15,plataforma:10,conta:5,sumario:15,serie:10,lucroPorDia:5,buscar:5,criar:10,atualizar:3,excluir:2"
+ *
+ * Parâmetros: url, taxa (req/s), segundos, aquecimento (s), mix, semente,
+ * emVoo (máximo de requisições pendentes; acima disso a chegada é contada
+ * como descartada) e histograma (arquivo .hgrm com a distribuição de todas
+ * as requisições, para o HdrHistogram plotter).
+ */
+public class DriverCarga {
+
+  private static final String MIX_PADRAO = "listar:20,periodo:15,plataforma:10,conta:5,sumario:15,serie:10,"
+      + "lucroPorDia:5,buscar:5,criar:10,atualizar:3,excluir:2";
+
+  // Maior latência registrada nos histogramas (1 minuto, em microssegundos)
+  private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(1);
+
+  private final String base;
+  private final HttpClient http;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  // Amostras do livro lidas antes da carga
+  private final List<String> plataformas = new ArrayList<>();
+  private final List<String> contas = new ArrayList<>();
+  private final List<Long> ids = new ArrayList<>();
+  private LocalDate primeiroDia;
+  private int dias;
+
+  // Registros criados pelo driver, que podem ser atualizados e excluídos
+  private final ConcurrentLinkedDeque<Long> criados = new ConcurrentLinkedDeque<>();
+
+  // Um tipo de requisição do mix
+  private static class Operacao {
+    private final String nome;
+    private final Function<SplittableRandom, HttpRequest> requisicao;
+    private final Recorder latencias = new Recorder(LATENCIA_MAXIMA_US, 3);
+    private final AtomicLong erros = new AtomicLong();
+    private Histogram acumulado;
+
+    Operacao(String nome, Function<SplittableRandom, HttpRequest> requisicao) {
+      this.nome = nome;
+      this.requisicao = requisicao;
+    }
+  }
+
+  DriverCarga(String url) {
+    this.base = url + "/api/registros-operacoes";
+    this.http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10)).executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> parametros = new LinkedHashMap<>();
+    for (String arg : args) {
+      String[] partes = arg.split("=", 2);
+      parametros.put(partes[0], partes.length > 1 ? partes[1] : "");
+    }
+    DriverCarga driver = new DriverCarga(parametros.getOrDefault("url", "http://localhost:8080"));
+    driver.amostrar();
+
+    double taxa = Double.parseDouble(parametros.getOrDefault("taxa", "100"));
+    int segundos = Integer.parseInt(parametros.getOrDefault("segundos", "30"));
+    int aquecimento = Integer.parseInt(parametros.getOrDefault("aquecimento", "5"));
+    int emVoo = Integer.parseInt(parametros.getOrDefault("emVoo", "10000"));
+    long semente = Long.parseLong(parametros.getOrDefault("semente", "42"));
+    List<Operacao> mix = new ArrayList<>();
+    double[] pesos = driver.montarMix(parametros.getOrDefault("mix", MIX_PADRAO), mix);
+
+    System.out.printf(Locale.ROOT, "Aquecendo por %ds a %.0f req/s...%n", aquecimento, taxa);
+    driver.executar(mix, pesos, taxa, aquecimento, emVoo, semente);
+    for (Operacao operacao : mix) {
+      operacao.latencias.getIntervalHistogram();
+      operacao.erros.set(0);
+    }
+
+    System.out.printf(Locale.ROOT, "Medindo por %ds a %.0f req/s...%n", segundos, taxa);
+    long[] resultado = driver.executar(mix, pesos, taxa, segundos, emVoo, semente + 1);
+    driver.relatar(mix, resultado[0], resultado[1], (double) resultado[2] / 1e9, System.out);
+
+    String arquivo = parametros.get("histograma");
+    if (arquivo != null) {
+      Histogram todos = new Histogram(LATENCIA_MAXIMA_US, 3);
+      mix.forEach(o -> todos.add(o.acumulado));
+      try (PrintStream saida = new PrintStream(arquivo, StandardCharsets.UTF_8)) {
+        todos.outputPercentileDistribution(saida, 1000.0);
+      }
+      System.out.println("Distribuição completa (ms) gravada em " + arquivo);
+    }
+  }
+
+  // Lê plataformas, contas, ids e o período do livro para montar requisições
+  // que encontram dados
+  private void amostrar() throws IOException, InterruptedException {
+    String raiz = base.substring(0, base.indexOf("/api/"));
+    obterJson(raiz + "/api/plataformas").forEach(p -> plataformas.add(p.get("linkPlataforma").asText()));
+    obterJson(raiz + "/api/contas").forEach(c -> contas.add(c.get("nomeConta").asText()));
+    JsonNode pagina = obterJson(base + "?tamanho=500");
+    pagina.get("conteudo").forEach(r -> ids.add(r.get("id").asLong()));
+    if (plataformas.isEmpty() || contas.isEmpty() || ids.isEmpty()) {
+      throw new IllegalStateException("O livro está vazio: suba a aplicação com o perfil \"gerador\"");
+    }
+
+    JsonNode porDia = obterJson(base + "/lucro-total-por-dia");
+    List<LocalDate> datas = new ArrayList<>();
+    porDia.fieldNames().forEachRemaining(d -> datas.add(LocalDate.parse(d)));
+    primeiroDia = Collections.min(datas);
+    dias = (int) (Collections.max(datas).toEpochDay() - primeiroDia.toEpochDay()) + 1;
+    System.out.printf(Locale.ROOT, "Livro: %d plataformas, %d contas, %d dias a partir de %s%n", plataformas.size(),
+        contas.size(), dias, primeiroDia);
+  }
+
+  private JsonNode obterJson(String url) throws IOException, InterruptedException {
+    HttpResponse<String> resposta = http.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+        HttpResponse.BodyHandlers.ofString());
+    if (resposta.statusCode() != 200) {
+      throw new IllegalStateException(url + " respondeu " + resposta.statusCode());
+    }
+    return objectMapper.readTree(resposta.body());
+  }
+
+  // --- Mix de requisições ---
+
+  private double[] montarMix(String especificacao, List<Operacao> mix) {
+    List<Double> pesos = new ArrayList<>();
+    for (String item : especificacao.split(",")) {
+      String[] partes = item.trim().split(":");
+      mix.add(new Operacao(partes[0], requisicao(partes[0])));
+      pesos.add(Double.parseDouble(partes[1]));
+    }
+    double total = pesos.stream().mapToDouble(Double::doubleValue).sum();
+    double[] acumulada = new double[pesos.size()];
+    double soma = 0;
+    for (int i = 0; i < acumulada.length; i++) {
+      soma += pesos.get(i) / total;
+      acumulada[i] = soma;
+    }
+    return acumulada;
+  }
+
+  private Function<SplittableRandom, HttpRequest> requisicao(String nome) {
+    return switch (nome) {
+      case "listar" -> r -> get("?tamanho=50");
+      case "buscar" -> r -> get("/" + ids.get(r.nextInt(ids.size())));
+      case "data" -> r -> get("/data/" + dia(r) + "?tamanho=50");
+      case "periodo" -> r -> {
+        LocalDate inicio = dia(r);
+        return get("/periodo?startDate=" + inicio + "&endDate=" + inicio.plusDays(r.nextInt(1, 60)) + "&tamanho=50");
+      };
+      case "plataforma" -> r -> get("/plataforma/" + codificar(plataforma(r)) + "?tamanho=50");
+      case "conta" -> r -> get("/conta/" + codificar(conta(r)) + "?tamanho=50");
+      case "situacao" -> r -> get("/situacao/Aguardando?tamanho=50");
+      case "sumario" -> r -> {
+        LocalDate inicio = dia(r);
+        return get("/sumario?startDate=" + inicio + "&endDate=" + inicio.plusDays(r.nextInt(1, 90)));
+      };
+      case "sumarioPlataforma" -> r -> get("/sumario?linkPlataforma=" + codificar(plataforma(r)));
+      case "serie" -> r -> {
+        LocalDate inicio = dia(r);
+        return get("/serie?startDate=" + inicio + "&endDate=" + inicio.plusDays(r.nextInt(7, 365))
+            + "&granularidade=" + (r.nextBoolean() ? "semana" : "mes"));
+      };
+      case "lucroGeral" -> r -> get("/lucro-total-geral");
+      case "lucroPorDia" -> r -> get("/lucro-total-por-dia");
+      case "criar" -> r -> HttpRequest.newBuilder(URI.create(base)).header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(corpo(r))).build();
+      case "atualizar" -> r -> {
+        Long id = criados.peekLast();
+        return id == null ? get("?tamanho=50")
+            : HttpRequest.newBuilder(URI.create(base + "/" + id)).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(corpo(r))).build();
+      };
+      case "excluir" -> r -> {
+        Long id = criados.pollFirst();
+        return id == null ? get("?tamanho=50") : HttpRequest.newBuilder(URI.create(base + "/" + id)).DELETE().build();
+      };
+      default -> throw new IllegalArgumentException("Operação desconhecida no mix: " + nome);
+    };
+  }
+
+  private HttpRequest get(String caminho) {
+    return HttpRequest.newBuilder(URI.create(base + caminho)).GET().build();
+  }
+
+  private LocalDate dia(SplittableRandom random) {
+    return primeiroDia.plusDays(random.nextInt(dias));
+  }
+
+  private String plataforma(SplittableRandom random) {
+    return plataformas.get(random.nextInt(plataformas.size()));
+  }
+
+  private String conta(SplittableRandom random) {
+    return contas.get(random.nextInt(contas.size()));
+  }
+
+  private static String codificar(String valor) {
+    return URLEncoder.encode(valor, StandardCharsets.UTF_8).replace("+", "%20");
+  }
+
+  private String corpo(SplittableRandom random) {
+    return String.format(Locale.ROOT,
+        "{\"plataforma\":{\"linkPlataforma\":\"%s\"},\"conta\":{\"nomeConta\":\"%s\"},\"dataOperacao\":\"%s\","
+            + "\"valorDeposito\":%d.00,\"nomeSlotGiros\":\"Fortune Tiger 10x\",\"situacao\":\"Finalizado\","
+            + "\"valorLucro\":%d.%02d,\"saqueCompletoFeito\":%b}",
+        plataforma(random), conta(random), dia(random), random.nextInt(10, 500), random.nextInt(-300, 600),
+        random.nextInt(100), random.nextBoolean());
+  }
+
+  // --- Execução ---
+
+  /**
+   * Dispara as requisições a "taxa" por segundo durante "segundos" e espera as
+   * pendentes. Devolve {enviadas, descartadas, duração em ns}.
+   */
+  private long[] executar(List<Operacao> mix, double[] pesos, double taxa, int segundos, int emVoo, long semente)
+      throws InterruptedException {
+    SplittableRandom random = new SplittableRandom(semente);
+    Semaphore vagas = new Semaphore(emVoo);
+    long intervalo = (long) (1e9 / taxa);
+    long total = (long) (taxa * segundos);
+    long descartadas = 0;
+    long inicio = System.nanoTime();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (long i = 0; i < total; i++) {
+        long previsto = inicio + i * intervalo;
+        long espera;
+        while ((espera = previsto - System.nanoTime()) > 0) {
+          LockSupport.parkNanos(espera);
+        }
+        Operacao operacao = mix.get(sortear(pesos, random));
+        HttpRequest requisicao = operacao.requisicao.apply(random);
+        if (!vagas.tryAcquire()) {
+          descartadas++;
+          continue;
+        }
+        executor.submit(() -> {
+          try {
+            HttpResponse<String> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofString());
+            if (resposta.statusCode() >= 400) {
+              operacao.erros.incrementAndGet();
+            } else if (operacao.nome.equals("criar")) {
+              criados.add(objectMapper.readTree(resposta.body()).get("id").asLong());
+            }
+          } catch (Exception e) {
+            operacao.erros.incrementAndGet();
+          } finally {
+            long latencia = (System.nanoTime() - previsto) / 1_000;
+            operacao.latencias.recordValue(Math.min(latencia, LATENCIA_MAXIMA_US));
+            vagas.release();
+          }
+        });
+      }
+    }
+    long duracao = System.nanoTime() - inicio;
+    for (Operacao operacao : mix) {
+      operacao.acumulado = operacao.latencias.getIntervalHistogram();
+    }
+    return new long[] { total - descartadas, descartadas, duracao };
+  }
+
+  private static int sortear(double[] acumulada, SplittableRandom random) {
+    double x = random.nextDouble();
+    for (int i = 0; i < acumulada.length; i++) {
+      if (x < acumulada[i]) {
+        return i;
+      }
+    }
+    return acumulada.length - 1;
+  }
+
+  private void relatar(List<Operacao> mix, long enviadas, long descartadas, double segundos, PrintStream saida) {
+    Histogram todos = new Histogram(LATENCIA_MAXIMA_US, 3);
+    long erros = 0;
+    saida.printf(Locale.ROOT, "%n%-18s %8s %7s %9s %9s %9s %9s %9s%n", "operação", "total", "erros", "p50 ms",
+        "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    for (Operacao operacao : mix) {
+      Histogram h = operacao.acumulado;
+      todos.add(h);
+      erros += operacao.erros.get();
+      imprimirLinha(saida, operacao.nome, h, operacao.erros.get());
+    }
+    imprimirLinha(saida, "TOTAL", todos, erros);
+
+    saida.printf(Locale.ROOT, "%nEnviadas: %d (%.1f req/s), descartadas por excesso em voo: %d, erros: %d%n",
+        enviadas, todos.getTotalCount() / segundos, descartadas, erros);
+    saida.printf("%nHistograma (todas as operações):%n");
+    long[] limitesMs = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 60000 };
+    long anterior = 0;
+    for (long limite : limitesMs) {
+      long quantidade = todos.getCountBetweenValues(anterior * 1000, limite * 1000 - 1);
+      double fracao = todos.getTotalCount() == 0 ? 0 : (double) quantidade / todos.getTotalCount();
+      saida.printf(Locale.ROOT, "  %6d - %6d ms %8d %6.2f%% %s%n", anterior, limite, quantidade, fracao * 100,
+          "#".repeat((int) Math.round(fracao * 60)));
+      anterior = limite;
+    }
+  }
+
+  private static void imprimirLinha(PrintStream saida, String nome, Histogram h, long erros) {
+    saida.printf(Locale.ROOT, "%-18s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", nome, h.getTotalCount(), erros,
+        h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+        h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0);
+  }
+}
@@ -0,0 +1,93 @@
+package com.thomaskavi.lucrabet.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thomaskavi.lucrabet.entities.Conta;
+import com.thomaskavi.lucrabet.entities.Plataforma;
+import com.thomaskavi.lucrabet.services.ContaService;
+import com.thomaskavi.lucrabet.services.PlataformaService;
+
+/**
+ * getOrCreatePlataforma / getOrCreateConta: nome já conhecido (cache),
+ * nome novo (INSERT em transação própria) e a versão em lote usada pela
+ * importação. Os benchmarks "existente" também rodam com 4 threads, o caso
+ * em que o cache evita a disputa por conexões.
+ *
+ * mvn -Pbenchmark test -Djmh.args="GetOrCreateBenchmark -p registros=10000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GetOrCreateBenchmark {
+
+  @Param({ "100" })
+  public int tamanhoLote;
+
+  private PlataformaService plataformaService;
+  private ContaService contaService;
+  private List<String> contasExistentes;
+
+  // Sufixo dos nomes novos (único por chamada, entre todas as threads)
+  private final AtomicLong novos = new AtomicLong();
+
+  @Setup
+  public void obterServicos(LivroH2 livro) {
+    plataformaService = livro.bean(PlataformaService.class);
+    contaService = livro.bean(ContaService.class);
+    contasExistentes = new ArrayList<>();
+    for (int i = 0; i < tamanhoLote; i++) {
+      contasExistentes.add("conta" + (i % LivroH2.CONTAS + 1));
+    }
+  }
+
+  @Benchmark
+  public Plataforma plataformaExistente() {
+    return plataformaService.getOrCreatePlataforma("plat7.bet");
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Conta contaExistente4Threads() {
+    return contaService.getOrCreateConta("conta7");
+  }
+
+  @Benchmark
+  public Conta contaExistente() {
+    return contaService.getOrCreateConta("conta7");
+  }
+
+  @Benchmark
+  public Conta contaNova() {
+    return contaService.getOrCreateConta("jmh-" + novos.incrementAndGet());
+  }
+
+  @Benchmark
+  public Plataforma plataformaNova() {
+    return plataformaService.getOrCreatePlataforma("jmh-" + novos.incrementAndGet() + ".bet");
+  }
+
+  @Benchmark
+  public Map<String, Conta> contasEmLote() {
+    return contaService.getOrCreateContas(contasExistentes);
+  }
+}
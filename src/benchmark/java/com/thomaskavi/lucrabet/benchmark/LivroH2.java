@@ -0,0 +1,77 @@
+package com.thomaskavi.lucrabet.benchmark;
+
+import java.time.LocalDate;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.thomaskavi.lucrabet.LucrabetApplication;
+import com.thomaskavi.lucrabet.services.AgregadoDiarioService;
+import com.thomaskavi.lucrabet.services.AnaliticoService;
+
+/**
+ * Estado compartilhado dos benchmarks que usam o banco: a aplicação (sem
+ * servidor web) sobre um H2 em memória com "registros" operações geradas
+ * direto por SQL, espalhadas por PLATAFORMAS plataformas, CONTAS contas e
+ * DIAS dias a partir de PRIMEIRO_DIA.
+ *
+ * -p registros=1000,1000000 muda os tamanhos na linha de comando do JMH.
+ */
+@State(Scope.Benchmark)
+public class LivroH2 {
+
+  static final LocalDate PRIMEIRO_DIA = LocalDate.of(2024, 1, 1);
+  static final int DIAS = 730;
+  static final int PLATAFORMAS = 20;
+  static final int CONTAS = 50;
+
+  @Param({ "10000", "100000" })
+  public int registros;
+
+  private ConfigurableApplicationContext contexto;
+
+  @Setup(Level.Trial)
+  public void iniciar() {
+    contexto = new SpringApplicationBuilder(LucrabetApplication.class).run("--spring.main.web-application-type=none",
+        "--spring.datasource.url=jdbc:h2:mem:jmh-" + registros, "--logging.level.root=WARN");
+    popular();
+  }
+
+  @TearDown(Level.Trial)
+  public void encerrar() {
+    contexto.close();
+  }
+
+  public <T> T bean(Class<T> tipo) {
+    return contexto.getBean(tipo);
+  }
+
+  // Ids a partir de 1.000.000 para não colidir com as sequences usadas pela
+  // aplicação (benchmarks que criam plataformas e contas)
+  private void popular() {
+    JdbcTemplate jdbcTemplate = bean(JdbcTemplate.class);
+    jdbcTemplate.update("INSERT INTO tb_plataformas (id, link_plataforma) "
+        + "SELECT 1000000 + X, 'plat' || X || '.bet' FROM SYSTEM_RANGE(1, CAST(? AS INT))", PLATAFORMAS);
+    jdbcTemplate.update("INSERT INTO tb_contas (id, nome_conta) "
+        + "SELECT 1000000 + X, 'conta' || X FROM SYSTEM_RANGE(1, CAST(? AS INT))", CONTAS);
+    jdbcTemplate.update("INSERT INTO tb_registros_operacoes (id, plataforma_id, conta_id, data_operacao, "
+        + "valor_deposito, nome_slot_giros, situacao, valor_lucro, saque_completo_feito) "
+        + "SELECT 1000000 + X, 1000001 + MOD(X * 7, ?), 1000001 + MOD(X * 13, ?), "
+        + "DATEADD(DAY, MOD(X * 31, ?), CAST(? AS DATE)), MOD(X, 490) + 10, 'Slot ' || MOD(X, 30), "
+        + "CASE MOD(X, 10) WHEN 0 THEN 2 ELSE 1 END, "
+        + "(MOD(X * 17, 130000) - 50000) / 100.0, MOD(X, 4) <> 0 FROM SYSTEM_RANGE(1, CAST(? AS INT))",
+        PLATAFORMAS, CONTAS, DIAS, PRIMEIRO_DIA, registros);
+    jdbcTemplate.execute("ANALYZE");
+    // Os dados entraram por fora dos serviços: refaz o agregado e a cópia
+    // em memória
+    bean(AgregadoDiarioService.class).reconstruir();
+    bean(AnaliticoService.class).carregar();
+  }
+}
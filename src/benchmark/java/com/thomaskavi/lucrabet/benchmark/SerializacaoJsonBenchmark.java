@@ -0,0 +1,93 @@
+package com.thomaskavi.lucrabet.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.thomaskavi.lucrabet.dto.PaginaDTO;
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.entities.Conta;
+import com.thomaskavi.lucrabet.entities.Plataforma;
+import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+import com.thomaskavi.lucrabet.entities.Situacao;
+
+/**
+ * Serialização Jackson de uma lista de registros: como entidades
+ * (RegistroOperacao com plataforma e conta aninhadas, como a API respondia) e
+ * como a página de RegistroOperacaoDTO devolvida hoje. Não usa banco.
+ *
+ * mvn -Pbenchmark test -Djmh.args="SerializacaoJson"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoJsonBenchmark {
+
+  @Param({ "50", "500", "5000" })
+  public int tamanho;
+
+  private List<RegistroOperacao> entidades;
+  private PaginaDTO<RegistroOperacaoDTO> pagina;
+
+  // Mesma configuração de datas do ObjectMapper do Spring Boot (ISO, não
+  // timestamps)
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+  private ObjectWriter escritorEntidades;
+  private ObjectWriter escritorPagina;
+
+  @Setup
+  public void gerar() {
+    SplittableRandom random = new SplittableRandom(42);
+    entidades = new ArrayList<>(tamanho);
+    List<RegistroOperacaoDTO> dtos = new ArrayList<>(tamanho);
+    for (long id = 1; id <= tamanho; id++) {
+      RegistroOperacao registro = new RegistroOperacao();
+      registro.setId(id);
+      registro.setPlataforma(new Plataforma((long) random.nextInt(1, 21), "plat" + random.nextInt(20) + ".bet"));
+      registro.setConta(new Conta((long) random.nextInt(1, 51), "conta" + random.nextInt(50)));
+      registro.setDataOperacao(LivroH2.PRIMEIRO_DIA.plusDays(random.nextInt(LivroH2.DIAS)));
+      registro.setValorDeposito(BigDecimal.valueOf(random.nextLong(1_000, 50_000), 2));
+      registro.setNomeSlotGiros("Slot " + random.nextInt(30));
+      registro.setSituacao(Situacao.FINALIZADO);
+      registro.setValorLucro(BigDecimal.valueOf(random.nextLong(-50_000, 80_000), 2));
+      registro.setSaqueCompletoFeito(random.nextBoolean());
+      entidades.add(registro);
+      dtos.add(new RegistroOperacaoDTO(registro));
+    }
+    pagina = new PaginaDTO<>(dtos, "cursor");
+    escritorEntidades = objectMapper.writerFor(objectMapper.getTypeFactory()
+        .constructCollectionType(List.class, RegistroOperacao.class));
+    escritorPagina = objectMapper.writer();
+  }
+
+  @Benchmark
+  public byte[] entidades() throws JsonProcessingException {
+    return escritorEntidades.writeValueAsBytes(entidades);
+  }
+
+  @Benchmark
+  public byte[] paginaDTO() throws JsonProcessingException {
+    return escritorPagina.writeValueAsBytes(pagina);
+  }
+}
@@ -0,0 +1,99 @@
+package com.thomaskavi.lucrabet.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+import com.thomaskavi.lucrabet.util.Centavos;
+import com.thomaskavi.lucrabet.util.TotaisCentavos;
+
+/**
+ * Compara a soma de lucro/depósito feita com Stream + BigDecimal::add (como
+ * os cálculos do RegistroOperacaoService eram feitos) com a soma em centavos
+ * (long) de Centavos e TotaisCentavos.
+ *
+ * mvn -Pbenchmark test -Djmh.args="SomaCentavos"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SomaCentavosBenchmark {
+
+  @Param({ "10000", "1000000" })
+  private int registros;
+
+  private List<RegistroOperacao> livro;
+
+  private long[] lucros;
+  private long[] depositos;
+  private boolean[] saques;
+
+  @Setup
+  public void gerar() {
+    SplittableRandom random = new SplittableRandom(42);
+    livro = new ArrayList<>(registros);
+    lucros = new long[registros];
+    depositos = new long[registros];
+    saques = new boolean[registros];
+    for (int i = 0; i < registros; i++) {
+      RegistroOperacao registro = new RegistroOperacao();
+      registro.setValorLucro(BigDecimal.valueOf(random.nextLong(-50_000, 150_000), 2));
+      registro.setValorDeposito(BigDecimal.valueOf(random.nextLong(1_000, 500_000), 2));
+      registro.setSaqueCompletoFeito(random.nextBoolean());
+      livro.add(registro);
+
+      lucros[i] = Centavos.de(registro.getValorLucro());
+      depositos[i] = Centavos.de(registro.getValorDeposito());
+      saques[i] = registro.getSaqueCompletoFeito();
+    }
+  }
+
+  // Como era: um BigDecimal novo por adição
+  @Benchmark
+  public BigDecimal lucroBigDecimalStream() {
+    return livro.stream().map(RegistroOperacao::getValorLucro).reduce(BigDecimal.ZERO, BigDecimal::add);
+  }
+
+  @Benchmark
+  public BigDecimal lucroCentavos() {
+    return Centavos.paraDecimal(Centavos.somar(lucros, registros));
+  }
+
+  // Os quatro totais do sumário em uma passada
+  @Benchmark
+  public TotaisCentavos sumarioCentavos() {
+    TotaisCentavos totais = new TotaisCentavos();
+    for (int i = 0; i < registros; i++) {
+      totais.adicionar(lucros[i], depositos[i], saques[i], 1);
+    }
+    return totais;
+  }
+
+  // O mesmo sumário no estilo antigo: uma redução por total
+  @Benchmark
+  public BigDecimal[] sumarioBigDecimalStream() {
+    BigDecimal lucro = livro.stream().map(RegistroOperacao::getValorLucro).reduce(BigDecimal.ZERO, BigDecimal::add);
+    BigDecimal deposito = livro.stream().map(RegistroOperacao::getValorDeposito)
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    long pendentes = livro.stream().filter(r -> !r.getSaqueCompletoFeito()).count();
+    return new BigDecimal[] { lucro, deposito, BigDecimal.valueOf(pendentes) };
+  }
+}
@@ -0,0 +1,27 @@
+package com.thomaskavi.lucrabet.controllers;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.thomaskavi.lucrabet.services.AgregadoDiarioService;
+
+@RestController
+@RequestMapping("/api/agregados-diarios") // Define o caminho base
+public class AgregadoDiarioController {
+
+  @Autowired
+  private AgregadoDiarioService agregadoDiarioService;
+
+  // POST /api/agregados-diarios/reconstruir
+  // Recalcula a tabela de agregados diários a partir dos registros de operações
+  @PostMapping("/reconstruir")
+  public ResponseEntity<Map<String, Integer>> reconstruir() {
+    int linhas = agregadoDiarioService.reconstruir();
+    return ResponseEntity.ok(Map.of("linhasAgregadas", linhas));
+  }
+}
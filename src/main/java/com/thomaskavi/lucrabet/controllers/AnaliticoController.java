@@ -0,0 +1,63 @@
+package com.thomaskavi.lucrabet.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.thomaskavi.lucrabet.dto.DesempenhoSlotDTO;
+import com.thomaskavi.lucrabet.dto.FiltroRegistroDTO;
+import com.thomaskavi.lucrabet.dto.ResultadoAnaliticoDTO;
+import com.thomaskavi.lucrabet.services.AnaliticoService;
+
+@RestController
+@RequestMapping("/api/analitico") // Define o caminho base
+public class AnaliticoController {
+
+  @Autowired
+  private AnaliticoService analiticoService;
+
+  // GET
+  // /api/analitico?agruparPor=plataforma,mes&startDate=...&endDate=...&situacao=...
+  // Totais (lucro, depósito, lucro líquido, quantidade, saques pendentes)
+  // agrupados por até 3 dimensões: plataforma, conta, situacao, slot,
+  // saqueCompletoFeito, dia, semana, mes. Os filtros são os mesmos da exportação.
+  @GetMapping
+  public ResponseEntity<ResultadoAnaliticoDTO> consultar(
+      @RequestParam(required = false) List<String> agruparPor, FiltroRegistroDTO filtro) {
+    List<AnaliticoService.Dimensao> dimensoes = new ArrayList<>();
+    if (agruparPor != null) {
+      for (String dimensao : agruparPor) {
+        dimensoes.add(AnaliticoService.Dimensao.de(dimensao.trim()));
+      }
+    }
+    return ResponseEntity.ok(analiticoService.consultar(dimensoes, filtro));
+  }
+
+  // GET /api/analitico/slots?ordenarPor=roi&minimoOperacoes=10&busca=tiger
+  // Ranking dos slots (nomeSlotGiros): totais, ROI e percentis do lucro por
+  // operação. ordenarPor: roi, lucroLiquido, lucro, deposito, quantidade ou
+  // mediana (sempre do maior para o menor)
+  @GetMapping("/slots")
+  public ResponseEntity<List<DesempenhoSlotDTO>> desempenhoSlots(
+      @RequestParam(defaultValue = "roi") String ordenarPor,
+      @RequestParam(defaultValue = "1") long minimoOperacoes,
+      @RequestParam(required = false) String busca,
+      @RequestParam(defaultValue = "50") int limite) {
+    return ResponseEntity.ok(analiticoService.desempenhoSlots(busca, AnaliticoService.OrdemSlot.de(ordenarPor),
+        minimoOperacoes, limite));
+  }
+
+  // GET /api/analitico/slots/sugestoes?q=tig
+  // Nomes de slot para autocompletar, os mais usados primeiro
+  @GetMapping("/slots/sugestoes")
+  public ResponseEntity<List<String>> sugerirSlots(@RequestParam String q,
+      @RequestParam(defaultValue = "10") int limite) {
+    return ResponseEntity.ok(analiticoService.sugerirSlots(q, limite));
+  }
+}
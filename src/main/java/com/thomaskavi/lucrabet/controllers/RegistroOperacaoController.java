@@ -1,5 +1,7 @@
 package com.thomaskavi.lucrabet.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -8,10 +10,13 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -20,8 +25,21 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.thomaskavi.lucrabet.dto.AtualizacaoRegistroDTO;
+import com.thomaskavi.lucrabet.dto.BuscaRegistroDTO;
+import com.thomaskavi.lucrabet.dto.FiltroRegistroDTO;
+import com.thomaskavi.lucrabet.dto.PaginaDTO;
+import com.thomaskavi.lucrabet.dto.PontoSerieDTO;
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.dto.ResultadoImportacaoDTO;
+import com.thomaskavi.lucrabet.dto.SumarioDTO;
+import com.thomaskavi.lucrabet.dto.TransicaoLoteDTO;
 import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+import com.thomaskavi.lucrabet.services.AgregadoDiarioService;
+import com.thomaskavi.lucrabet.services.ExportacaoRegistroService;
+import com.thomaskavi.lucrabet.services.ImportacaoRegistroService;
 import com.thomaskavi.lucrabet.services.RegistroOperacaoService;
 
 @RestController
@@ -31,18 +49,39 @@ public class RegistroOperacaoController {
   @Autowired
   private RegistroOperacaoService registroOperacaoService;
 
-  // GET /api/registros-operacoes
-  // Retorna todos os registros de operações
+  @Autowired
+  private ExportacaoRegistroService exportacaoRegistroService;
+
+  @Autowired
+  private ImportacaoRegistroService importacaoRegistroService;
+
+  // GET /api/registros-operacoes?cursor=...&tamanho=...
+  // Retorna todos os registros de operações, paginados por cursor.
+  // Todas as listagens abaixo aceitam os mesmos parâmetros opcionais: "tamanho"
+  // (padrão 50, máximo 500) e "cursor" (o proximoCursor da página anterior).
   @GetMapping
-  public List<RegistroOperacao> getAllRegistros() {
-    return registroOperacaoService.findAll();
+  public PaginaDTO<RegistroOperacaoDTO> getAllRegistros(@RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer tamanho) {
+    return registroOperacaoService.findAll(cursor, tamanho);
+  }
+
+  // GET /api/registros-operacoes/busca?linkPlataforma=...&nomeConta=...&startDate=...&situacao=...
+  // Busca combinando qualquer subconjunto dos filtros (linkPlataforma,
+  // nomeConta, startDate, endDate, situacao, saqueCompletoFeito, nomeSlotGiros,
+  // lucroMinimo, lucroMaximo) em uma consulta. Ordena por ordenarPor
+  // (dataOperacao, valorLucro ou valorDeposito) e direcao (asc ou desc), com
+  // os mesmos cursor e tamanho das listagens.
+  @GetMapping("/busca")
+  public PaginaDTO<RegistroOperacaoDTO> buscarRegistros(BuscaRegistroDTO busca,
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer tamanho) {
+    return registroOperacaoService.buscar(busca, cursor, tamanho);
   }
 
   // GET /api/registros-operacoes/{id}
   // Retorna um registro de operação específico pelo ID
   @GetMapping("/{id}")
-  public ResponseEntity<RegistroOperacao> getRegistroById(@PathVariable Long id) {
-    Optional<RegistroOperacao> registro = registroOperacaoService.findById(id);
+  public ResponseEntity<RegistroOperacaoDTO> getRegistroById(@PathVariable Long id) {
+    Optional<RegistroOperacaoDTO> registro = registroOperacaoService.buscarPorId(id);
     return registro.map(ResponseEntity::ok)
         .orElseGet(() -> ResponseEntity.notFound().build());
   }
@@ -51,14 +90,14 @@ public class RegistroOperacaoController {
   // Cria um novo registro de operação
   @PostMapping
   @ResponseStatus(HttpStatus.CREATED)
-  public RegistroOperacao createRegistro(@RequestBody RegistroOperacao registroOperacao) {
+  public RegistroOperacaoDTO createRegistro(@RequestBody RegistroOperacao registroOperacao) {
     return registroOperacaoService.save(registroOperacao);
   }
 
   // PUT /api/registros-operacoes/{id}
   // Atualiza um registro de operação existente
   @PutMapping("/{id}")
-  public ResponseEntity<RegistroOperacao> updateRegistro(@PathVariable Long id,
+  public ResponseEntity<RegistroOperacaoDTO> updateRegistro(@PathVariable Long id,
       @RequestBody RegistroOperacao registroDetails) {
     Optional<RegistroOperacao> existingRegistroOptional = registroOperacaoService.findById(id);
     if (existingRegistroOptional.isPresent()) {
@@ -81,24 +120,66 @@ public class RegistroOperacaoController {
       existingRegistro.setPlataforma(registroDetails.getPlataforma());
       existingRegistro.setConta(registroDetails.getConta());
 
-      RegistroOperacao updatedRegistro = registroOperacaoService.save(existingRegistro);
+      RegistroOperacaoDTO updatedRegistro = registroOperacaoService.save(existingRegistro);
       return ResponseEntity.ok(updatedRegistro);
     } else {
       return ResponseEntity.notFound().build();
     }
   }
 
+  // PATCH /api/registros-operacoes/{id}
+  // Atualiza só os campos enviados, em um único UPDATE. O corpo deve trazer a
+  // "versao" lida do registro; se ele foi alterado desde então, responde 409.
+  @PatchMapping("/{id}")
+  public ResponseEntity<RegistroOperacaoDTO> patchRegistro(@PathVariable Long id,
+      @RequestBody AtualizacaoRegistroDTO alteracao) {
+    return registroOperacaoService.atualizarParcial(id, alteracao).map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
   // DELETE /api/registros-operacoes/{id}
-  // Deleta um registro de operação
+  // Deleta um registro de operação (o próprio DELETE diz se o id existia)
   @DeleteMapping("/{id}")
-  @ResponseStatus(HttpStatus.NO_CONTENT)
   public ResponseEntity<Void> deleteRegistro(@PathVariable Long id) {
-    if (registroOperacaoService.findById(id).isPresent()) {
-      registroOperacaoService.deleteById(id);
+    if (registroOperacaoService.excluir(id)) {
       return ResponseEntity.noContent().build();
-    } else {
-      return ResponseEntity.notFound().build();
     }
+    return ResponseEntity.notFound().build();
+  }
+
+  // POST /api/registros-operacoes/transicao
+  // Muda a situação e/ou o saque completo de vários registros de uma vez, em
+  // um único UPDATE. Ex.: {"ids": [1, 2, 3], "saqueCompletoFeito": true} ou
+  // {"nomeConta": "...", "situacaoAtual": "Aguardando", "situacao": "Finalizado"}.
+  // Responde com a quantidade de registros alterados.
+  @PostMapping("/transicao")
+  public ResponseEntity<Map<String, Integer>> transicionarRegistros(@RequestBody TransicaoLoteDTO transicao) {
+    return ResponseEntity.ok(Map.of("alterados", registroOperacaoService.transicionar(transicao)));
+  }
+
+  // POST /api/registros-operacoes/importacao
+  // Importa em lote um CSV exportado da planilha, enviado como corpo da
+  // requisição (ex.: curl --data-binary @planilha.csv -H "Content-Type: text/csv").
+  // As linhas com erro são listadas na resposta sem interromper a importação.
+  @PostMapping("/importacao")
+  public ResponseEntity<ResultadoImportacaoDTO> importarRegistros(InputStream csv) throws IOException {
+    return ResponseEntity.ok(importacaoRegistroService.importar(csv));
+  }
+
+  // GET /api/registros-operacoes/exportacao?formato=csv&startDate=...&linkPlataforma=...
+  // Exporta os registros em NDJSON (padrão) ou CSV, escrevendo as linhas na
+  // resposta à medida que são lidas do banco. Aceita os filtros opcionais
+  // startDate, endDate, linkPlataforma, nomeConta, situacao e saqueCompletoFeito.
+  @GetMapping("/exportacao")
+  public ResponseEntity<StreamingResponseBody> exportarRegistros(FiltroRegistroDTO filtro,
+      @RequestParam(defaultValue = "ndjson") String formato) {
+    ExportacaoRegistroService.Formato formatoExportacao = ExportacaoRegistroService.Formato.de(formato);
+    StreamingResponseBody corpo = saida -> exportacaoRegistroService.exportar(filtro, formatoExportacao, saida);
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(formatoExportacao.getContentType()))
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"registros-operacoes." + formatoExportacao.getExtensao() + "\"")
+        .body(corpo);
   }
 
   // --- Endpoints de Consulta e Cálculo ---
@@ -106,46 +187,52 @@ public class RegistroOperacaoController {
   // GET /api/registros-operacoes/data/{data}
   // Busca registros por uma data específica
   @GetMapping("/data/{data}")
-  public List<RegistroOperacao> getRegistrosByData(
-      @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
-    return registroOperacaoService.findByDataOperacao(data);
+  public PaginaDTO<RegistroOperacaoDTO> getRegistrosByData(
+      @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer tamanho) {
+    return registroOperacaoService.findByDataOperacao(data, cursor, tamanho);
   }
 
   // GET /api/registros-operacoes/periodo?startDate=...&endDate=...
   // Busca registros por um período de datas
   @GetMapping("/periodo")
-  public List<RegistroOperacao> getRegistrosByPeriodo(
+  public PaginaDTO<RegistroOperacaoDTO> getRegistrosByPeriodo(
       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-    return registroOperacaoService.findByPeriodo(startDate, endDate);
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer tamanho) {
+    return registroOperacaoService.findByPeriodo(startDate, endDate, cursor, tamanho);
   }
 
   // GET /api/registros-operacoes/plataforma/{linkPlataforma}
   // Busca registros por link da plataforma
   @GetMapping("/plataforma/{linkPlataforma}")
-  public List<RegistroOperacao> getRegistrosByPlataforma(@PathVariable String linkPlataforma) {
-    return registroOperacaoService.findByPlataformaLink(linkPlataforma);
+  public PaginaDTO<RegistroOperacaoDTO> getRegistrosByPlataforma(@PathVariable String linkPlataforma,
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer tamanho) {
+    return registroOperacaoService.findByPlataformaLink(linkPlataforma, cursor, tamanho);
   }
 
   // GET /api/registros-operacoes/conta/{nomeConta}
   // Busca registros por nome da conta
   @GetMapping("/conta/{nomeConta}")
-  public List<RegistroOperacao> getRegistrosByConta(@PathVariable String nomeConta) {
-    return registroOperacaoService.findByContaNome(nomeConta);
+  public PaginaDTO<RegistroOperacaoDTO> getRegistrosByConta(@PathVariable String nomeConta,
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer tamanho) {
+    return registroOperacaoService.findByContaNome(nomeConta, cursor, tamanho);
   }
 
   // GET /api/registros-operacoes/situacao/{situacao}
   // Busca registros por situação
   @GetMapping("/situacao/{situacao}")
-  public List<RegistroOperacao> getRegistrosBySituacao(@PathVariable String situacao) {
-    return registroOperacaoService.findBySituacao(situacao);
+  public PaginaDTO<RegistroOperacaoDTO> getRegistrosBySituacao(@PathVariable String situacao,
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer tamanho) {
+    return registroOperacaoService.findBySituacao(situacao, cursor, tamanho);
   }
 
   // GET /api/registros-operacoes/saque-completo/{saqueFeito}
   // Busca registros por status de saque completo
   @GetMapping("/saque-completo/{saqueFeito}")
-  public List<RegistroOperacao> getRegistrosBySaqueCompleto(@PathVariable Boolean saqueFeito) {
-    return registroOperacaoService.findBySaqueCompletoFeito(saqueFeito);
+  public PaginaDTO<RegistroOperacaoDTO> getRegistrosBySaqueCompleto(@PathVariable Boolean saqueFeito,
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer tamanho) {
+    return registroOperacaoService.findBySaqueCompletoFeito(saqueFeito, cursor, tamanho);
   }
 
   // GET /api/registros-operacoes/lucro-diario/{data}
@@ -218,17 +305,37 @@ public class RegistroOperacaoController {
   // GET /api/registros-operacoes/sumario-diario/{data}
   // Retorna um resumo de lucro e depósito para um dia específico
   @GetMapping("/sumario-diario/{data}")
-  public ResponseEntity<Map<String, BigDecimal>> getSumarioDiario(
+  public ResponseEntity<SumarioDTO> getSumarioDiario(
       @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
-    BigDecimal totalLucro = registroOperacaoService.calcularLucroTotalDiario(data);
-    BigDecimal totalDeposito = registroOperacaoService.calcularDepositoTotalDiario(data);
-    BigDecimal lucroLiquido = registroOperacaoService.calcularLucroLiquidoDiario(data);
+    return ResponseEntity.ok(registroOperacaoService.resumir(data, data, null, null));
+  }
 
-    Map<String, BigDecimal> sumario = Map.of(
-        "lucroTotal", totalLucro,
-        "depositoTotal", totalDeposito,
-        "lucroLiquido", lucroLiquido);
-    return ResponseEntity.ok(sumario);
+  // GET
+  // /api/registros-operacoes/sumario?startDate=...&endDate=...&linkPlataforma=...&nomeConta=...
+  // Retorna lucro, depósito, lucro líquido, quantidade de operações e saques
+  // pendentes em uma única consulta. Todos os filtros são opcionais.
+  @GetMapping("/sumario")
+  public ResponseEntity<SumarioDTO> getSumario(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+      @RequestParam(required = false) String linkPlataforma,
+      @RequestParam(required = false) String nomeConta) {
+    return ResponseEntity.ok(registroOperacaoService.resumir(startDate, endDate, linkPlataforma, nomeConta));
+  }
+
+  // GET
+  // /api/registros-operacoes/serie?startDate=...&endDate=...&granularidade=semana&linkPlataforma=...&nomeConta=...
+  // Retorna lucro, depósito e lucro líquido por dia, semana ou mês (padrão: dia)
+  // entre as datas, em ordem cronológica e com os períodos vazios zerados
+  @GetMapping("/serie")
+  public ResponseEntity<List<PontoSerieDTO>> getSerie(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+      @RequestParam(defaultValue = "dia") String granularidade,
+      @RequestParam(required = false) String linkPlataforma,
+      @RequestParam(required = false) String nomeConta) {
+    return ResponseEntity.ok(registroOperacaoService.serie(startDate, endDate,
+        AgregadoDiarioService.Granularidade.de(granularidade), linkPlataforma, nomeConta));
   }
 
   // GET /api/registros-operacoes/lucro-total-por-dia
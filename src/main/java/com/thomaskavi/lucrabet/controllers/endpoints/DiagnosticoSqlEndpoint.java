@@ -0,0 +1,142 @@
+package com.thomaskavi.lucrabet.controllers.endpoints;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.thomaskavi.lucrabet.dto.ConsultaHqlDTO;
+import com.thomaskavi.lucrabet.dto.DiagnosticoSqlDTO;
+import com.thomaskavi.lucrabet.services.MonitorSqlService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * GET /actuator/sql: diagnóstico do acesso ao banco (comandos por requisição,
+ * estatísticas do Hibernate, consultas mais lentas e comandos lentos
+ * recentes). DELETE /actuator/sql zera tudo, para medir um cenário isolado.
+ *
+ * As estatísticas do Hibernate dependem de
+ * spring.jpa.properties.hibernate.generate_statistics=true.
+ */
+@Component
+@Endpoint(id = "sql")
+public class DiagnosticoSqlEndpoint {
+
+  private static final int CONSULTAS_MAIS_LENTAS = 10;
+
+  @Autowired
+  private MonitorSqlService monitorSqlService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @ReadOperation
+  public DiagnosticoSqlDTO diagnostico() {
+    Statistics estatisticas = estatisticas();
+    long requisicoes = monitorSqlService.getRequisicoes();
+    double media = requisicoes == 0 ? 0 : (double) monitorSqlService.getComandosEmRequisicoes() / requisicoes;
+    return new DiagnosticoSqlDTO(monitorSqlService.getLimiarLentoMs(), monitorSqlService.getComandos(),
+        monitorSqlService.getTempoComandosMs(), requisicoes, media, monitorSqlService.getMaiorRequisicao(),
+        geral(estatisticas), porEntidade(estatisticas), porRegiao(estatisticas),
+        consultasMaisLentas(estatisticas), monitorSqlService.getLentos());
+  }
+
+  @DeleteOperation
+  public void limpar() {
+    estatisticas().clear();
+    monitorSqlService.limpar();
+  }
+
+  private Statistics estatisticas() {
+    return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  private static Map<String, Object> geral(Statistics e) {
+    Map<String, Object> geral = new LinkedHashMap<>();
+    geral.put("habilitadas", e.isStatisticsEnabled());
+    geral.put("inicio", e.getStart());
+    geral.put("sessoesAbertas", e.getSessionOpenCount());
+    geral.put("transacoes", e.getTransactionCount());
+    geral.put("conexoesObtidas", e.getConnectCount());
+    geral.put("statementsPreparados", e.getPrepareStatementCount());
+    geral.put("flushes", e.getFlushCount());
+    geral.put("entidadesCarregadas", e.getEntityLoadCount());
+    geral.put("entidadesBuscadas", e.getEntityFetchCount());
+    geral.put("entidadesInseridas", e.getEntityInsertCount());
+    geral.put("entidadesAtualizadas", e.getEntityUpdateCount());
+    geral.put("entidadesRemovidas", e.getEntityDeleteCount());
+    geral.put("colecoesCarregadas", e.getCollectionLoadCount());
+    geral.put("colecoesBuscadas", e.getCollectionFetchCount());
+    geral.put("consultasExecutadas", e.getQueryExecutionCount());
+    geral.put("consultaTempoMaximoMs", e.getQueryExecutionMaxTime());
+    geral.put("consultaMaisLenta", e.getQueryExecutionMaxTimeQueryString());
+    geral.put("cacheSegundoNivelAcertos", e.getSecondLevelCacheHitCount());
+    geral.put("cacheSegundoNivelFalhas", e.getSecondLevelCacheMissCount());
+    geral.put("cacheConsultasAcertos", e.getQueryCacheHitCount());
+    geral.put("cacheConsultasFalhas", e.getQueryCacheMissCount());
+    geral.put("falhasOtimistas", e.getOptimisticFailureCount());
+    return geral;
+  }
+
+  // "Buscadas" são as cargas feitas uma a uma (associações, find): é onde um
+  // N+1 aparece
+  private static Map<String, Map<String, Long>> porEntidade(Statistics e) {
+    Map<String, Map<String, Long>> entidades = new TreeMap<>();
+    for (String nome : e.getEntityNames()) {
+      EntityStatistics entidade = e.getEntityStatistics(nome);
+      Map<String, Long> valores = new LinkedHashMap<>();
+      valores.put("carregadas", entidade.getLoadCount());
+      valores.put("buscadas", entidade.getFetchCount());
+      valores.put("inseridas", entidade.getInsertCount());
+      valores.put("atualizadas", entidade.getUpdateCount());
+      valores.put("removidas", entidade.getDeleteCount());
+      entidades.put(nome.substring(nome.lastIndexOf('.') + 1), valores);
+    }
+    return entidades;
+  }
+
+  // Regiões do cache de segundo nível e de consultas (application.conf)
+  private static Map<String, Map<String, Long>> porRegiao(Statistics e) {
+    Map<String, Map<String, Long>> regioes = new TreeMap<>();
+    for (String nome : e.getSecondLevelCacheRegionNames()) {
+      CacheRegionStatistics regiao = e.getCacheRegionStatistics(nome);
+      if (regiao == null) {
+        continue;
+      }
+      Map<String, Long> valores = new LinkedHashMap<>();
+      valores.put("acertos", regiao.getHitCount());
+      valores.put("falhas", regiao.getMissCount());
+      valores.put("gravacoes", regiao.getPutCount());
+      // O JCache não informa o tamanho (o Hibernate devolve Long.MIN_VALUE)
+      if (regiao.getElementCountInMemory() >= 0) {
+        valores.put("elementos", regiao.getElementCountInMemory());
+      }
+      regioes.put(nome, valores);
+    }
+    return regioes;
+  }
+
+  private static List<ConsultaHqlDTO> consultasMaisLentas(Statistics e) {
+    return Stream.of(e.getQueries()).map(consulta -> {
+      QueryStatistics q = e.getQueryStatistics(consulta);
+      return new ConsultaHqlDTO(consulta, q.getExecutionCount(), q.getExecutionRowCount(), q.getExecutionAvgTime(),
+          q.getExecutionMaxTime());
+    }).filter(c -> c.getExecucoes() > 0)
+        .sorted(Comparator.comparingLong(ConsultaHqlDTO::getTempoMaximoMs).reversed())
+        .limit(CONSULTAS_MAIS_LENTAS).toList();
+  }
+}
@@ -0,0 +1,63 @@
+package com.thomaskavi.lucrabet.controllers.filters;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.thomaskavi.lucrabet.services.MonitorSqlService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Conta os comandos SQL de cada requisição da API (MonitorSqlService) e
+ * publica a distribuição em lucrabet.sql.comandos-por-requisicao. Um N+1 das
+ * associações EAGER aparece aqui como uma cauda longa.
+ *
+ * Só enxerga o que roda na thread da requisição: a exportação em streaming,
+ * que escreve em outra thread, fica de fora.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 20)
+public class ComandosSqlFilter extends OncePerRequestFilter {
+
+  @Autowired
+  private MonitorSqlService monitorSqlService;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private DistributionSummary comandosPorRequisicao;
+
+  @PostConstruct
+  void iniciar() {
+    comandosPorRequisicao = DistributionSummary.builder("lucrabet.sql.comandos-por-requisicao")
+        .description("Comandos SQL executados por requisição da API").baseUnit("comandos")
+        .register(meterRegistry);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !request.getRequestURI().substring(request.getContextPath().length()).startsWith("/api/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    monitorSqlService.iniciarRequisicao(request.getMethod() + " " + request.getRequestURI());
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      comandosPorRequisicao.record(monitorSqlService.encerrarRequisicao());
+    }
+  }
+}
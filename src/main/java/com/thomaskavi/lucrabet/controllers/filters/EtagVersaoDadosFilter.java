@@ -0,0 +1,130 @@
+package com.thomaskavi.lucrabet.controllers.filters;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.thomaskavi.lucrabet.services.VersaoDadosService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * GET condicional para as leituras de registros e analíticas: o ETag é a
+ * versão dos dados (VersaoDadosService), e uma requisição com If-None-Match
+ * igual à versão atual recebe 304 sem chegar ao controller nem ao banco.
+ *
+ * A versão é lida antes de executar a consulta. Se uma escrita terminar no
+ * meio, a resposta sai com a versão antiga e o próximo GET a baixa de novo;
+ * o contrário (dados antigos com a versão nova) não acontece.
+ *
+ * Só respostas 2xx levam o ETag: um erro (cursor, limite ou granularidade
+ * inválidos) não é guardado pelo cliente. O 304 é decidido antes do
+ * controller e não valida os parâmetros; como a validade de uma requisição só
+ * depende da própria URL, um cliente que tem o ETag de uma URL recebeu um 2xx
+ * para ela. Um If-None-Match copiado de outra URL pode receber 304 mesmo que
+ * a requisição seja inválida.
+ */
+// Antes do LimiteConcorrenciaFilter: um 304 não precisa esperar vaga
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class EtagVersaoDadosFilter extends OncePerRequestFilter {
+
+  @Autowired
+  private VersaoDadosService versaoDadosService;
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String metodo = request.getMethod();
+    if (!"GET".equals(metodo) && !"HEAD".equals(metodo)) {
+      return true;
+    }
+    String caminho = request.getRequestURI().substring(request.getContextPath().length());
+    return !caminho.startsWith("/api/registros-operacoes") && !caminho.startsWith("/api/analitico");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    String etag = versaoDadosService.getEtag();
+    // O cliente pode guardar a resposta, mas precisa revalidar a cada uso
+    response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+    if (corresponde(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+      response.setHeader(HttpHeaders.ETAG, etag);
+      response.setStatus(HttpStatus.NOT_MODIFIED.value());
+      return;
+    }
+    chain.doFilter(request, new RespostaComEtag(response, etag));
+  }
+
+  /**
+   * Adiciona o ETag quando o status fica definido como 2xx, ou na primeira
+   * escrita do corpo com o status padrão (200). Erros (setStatus 4xx/5xx ou
+   * sendError) saem sem ETag.
+   */
+  private static class RespostaComEtag extends HttpServletResponseWrapper {
+
+    private final String etag;
+
+    RespostaComEtag(HttpServletResponse response, String etag) {
+      super(response);
+      this.etag = etag;
+    }
+
+    @Override
+    public void setStatus(int status) {
+      super.setStatus(status);
+      adicionarSeSucesso();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      adicionarSeSucesso();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      adicionarSeSucesso();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      adicionarSeSucesso();
+      super.flushBuffer();
+    }
+
+    private void adicionarSeSucesso() {
+      if (!isCommitted() && getStatus() / 100 == 2) {
+        setHeader(HttpHeaders.ETAG, etag);
+      }
+    }
+  }
+
+  // If-None-Match pode trazer "*" ou uma lista de ETags separados por vírgula
+  private boolean corresponde(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String valor : ifNoneMatch.split(",")) {
+      String candidato = valor.trim();
+      if (candidato.equals("*") || candidato.equals(etag) || ("W/" + candidato).equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,119 @@
+package com.thomaskavi.lucrabet.controllers.filters;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limita quantas requisições da API executam ao mesmo tempo. Só é ativado
+ * quando lucrabet.concorrencia.maximo-requisicoes está definido (perfil
+ * "virtual").
+ *
+ * Com threads de plataforma o pool do Tomcat já faz esse papel. Com virtual
+ * threads cada requisição ganha a sua thread, e milhares delas ficariam
+ * paradas na fila de conexões do Hikari até estourar o connection-timeout. Aqui
+ * as excedentes esperam pela vaga por um tempo limitado e depois recebem 503
+ * com Retry-After, antes de abrir transação ou tocar no banco.
+ *
+ * Uma requisição assíncrona (a exportação em StreamingResponseBody) segura a
+ * vaga até o fim do processamento assíncrono, não só até o controller
+ * devolver: é nele que a consulta roda e a conexão fica ocupada.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty("lucrabet.concorrencia.maximo-requisicoes")
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+  private final Semaphore vagas;
+  private final long esperaMaximaMs;
+
+  public LimiteConcorrenciaFilter(@Value("${lucrabet.concorrencia.maximo-requisicoes}") int maximoRequisicoes,
+      @Value("${lucrabet.concorrencia.espera-maxima-ms:2000}") long esperaMaximaMs) {
+    this.vagas = new Semaphore(maximoRequisicoes, true);
+    this.esperaMaximaMs = esperaMaximaMs;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !request.getRequestURI().substring(request.getContextPath().length()).startsWith("/api/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    boolean obteve;
+    try {
+      obteve = vagas.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      obteve = false;
+    }
+    if (!obteve) {
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor ocupado, tente novamente");
+      return;
+    }
+    boolean assincrona = false;
+    try {
+      chain.doFilter(request, response);
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(new LiberacaoVaga());
+        assincrona = true;
+      }
+    } finally {
+      if (!assincrona) {
+        vagas.release();
+      }
+    }
+  }
+
+  // Devolve a vaga uma vez só, no fim da requisição assíncrona (onError e
+  // onTimeout costumam vir seguidos de onComplete)
+  private class LiberacaoVaga implements AsyncListener {
+    private final AtomicBoolean liberada = new AtomicBoolean();
+
+    @Override
+    public void onComplete(AsyncEvent evento) {
+      liberar();
+    }
+
+    @Override
+    public void onError(AsyncEvent evento) {
+      liberar();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent evento) {
+      liberar();
+    }
+
+    // Um novo startAsync descarta os ouvintes: continua ouvindo o novo ciclo
+    @Override
+    public void onStartAsync(AsyncEvent evento) {
+      evento.getAsyncContext().addListener(this);
+    }
+
+    private void liberar() {
+      if (liberada.compareAndSet(false, true)) {
+        vagas.release();
+      }
+    }
+  }
+}
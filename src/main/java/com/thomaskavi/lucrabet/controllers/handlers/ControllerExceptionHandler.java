@@ -0,0 +1,35 @@
+package com.thomaskavi.lucrabet.controllers.handlers;
+
+import java.time.Instant;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.thomaskavi.lucrabet.dto.CustomErrorDTO;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@ControllerAdvice
+public class ControllerExceptionHandler {
+
+  // Parâmetros inválidos enviados pelo cliente (ex.: cursor de paginação
+  // adulterado) viram 400 Bad Request em vez de 500
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<CustomErrorDTO> illegalArgument(IllegalArgumentException e, HttpServletRequest request) {
+    HttpStatus status = HttpStatus.BAD_REQUEST;
+    CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(), e.getMessage(), request.getRequestURI());
+    return ResponseEntity.status(status).body(err);
+  }
+
+  // O registro foi alterado por outra requisição desde que o cliente o leu
+  // (versão divergente no PATCH ou no PUT): 409 Conflict
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<CustomErrorDTO> conflito(OptimisticLockingFailureException e, HttpServletRequest request) {
+    HttpStatus status = HttpStatus.CONFLICT;
+    CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(), e.getMessage(), request.getRequestURI());
+    return ResponseEntity.status(status).body(err);
+  }
+}
@@ -0,0 +1,99 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.thomaskavi.lucrabet.entities.Situacao;
+
+/**
+ * Corpo do PATCH de um registro de operação: só os campos enviados são
+ * alterados (null = manter o valor atual). A versão é obrigatória e deve ser a
+ * que o cliente leu; se o registro mudou desde então, o PATCH é recusado.
+ */
+public class AtualizacaoRegistroDTO {
+
+  private String linkPlataforma;
+  private String nomeConta;
+  private LocalDate dataOperacao;
+  private BigDecimal valorDeposito;
+  private String nomeSlotGiros;
+  private Situacao situacao;
+  private BigDecimal valorLucro;
+  private Boolean saqueCompletoFeito;
+  private Long versao;
+
+  public AtualizacaoRegistroDTO() {
+  }
+
+  public String getLinkPlataforma() {
+    return linkPlataforma;
+  }
+
+  public void setLinkPlataforma(String linkPlataforma) {
+    this.linkPlataforma = linkPlataforma;
+  }
+
+  public String getNomeConta() {
+    return nomeConta;
+  }
+
+  public void setNomeConta(String nomeConta) {
+    this.nomeConta = nomeConta;
+  }
+
+  public LocalDate getDataOperacao() {
+    return dataOperacao;
+  }
+
+  public void setDataOperacao(LocalDate dataOperacao) {
+    this.dataOperacao = dataOperacao;
+  }
+
+  public BigDecimal getValorDeposito() {
+    return valorDeposito;
+  }
+
+  public void setValorDeposito(BigDecimal valorDeposito) {
+    this.valorDeposito = valorDeposito;
+  }
+
+  public String getNomeSlotGiros() {
+    return nomeSlotGiros;
+  }
+
+  public void setNomeSlotGiros(String nomeSlotGiros) {
+    this.nomeSlotGiros = nomeSlotGiros;
+  }
+
+  public Situacao getSituacao() {
+    return situacao;
+  }
+
+  public void setSituacao(Situacao situacao) {
+    this.situacao = situacao;
+  }
+
+  public BigDecimal getValorLucro() {
+    return valorLucro;
+  }
+
+  public void setValorLucro(BigDecimal valorLucro) {
+    this.valorLucro = valorLucro;
+  }
+
+  public Boolean getSaqueCompletoFeito() {
+    return saqueCompletoFeito;
+  }
+
+  public void setSaqueCompletoFeito(Boolean saqueCompletoFeito) {
+    this.saqueCompletoFeito = saqueCompletoFeito;
+  }
+
+  public Long getVersao() {
+    return versao;
+  }
+
+  public void setVersao(Long versao) {
+    this.versao = versao;
+  }
+}
@@ -0,0 +1,63 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Parâmetros da busca com vários critérios: os filtros de FiltroRegistroDTO
+ * mais o slot (trecho do nome), a faixa de lucro e a ordenação. Todos são
+ * opcionais e se combinam com AND.
+ */
+public class BuscaRegistroDTO extends FiltroRegistroDTO {
+
+  private String nomeSlotGiros;
+  private BigDecimal lucroMinimo;
+  private BigDecimal lucroMaximo;
+
+  // dataOperacao (padrão), valorLucro ou valorDeposito; o id desempata
+  private String ordenarPor;
+  // asc (padrão) ou desc
+  private String direcao;
+
+  public BuscaRegistroDTO() {
+  }
+
+  public String getNomeSlotGiros() {
+    return nomeSlotGiros;
+  }
+
+  public void setNomeSlotGiros(String nomeSlotGiros) {
+    this.nomeSlotGiros = nomeSlotGiros;
+  }
+
+  public BigDecimal getLucroMinimo() {
+    return lucroMinimo;
+  }
+
+  public void setLucroMinimo(BigDecimal lucroMinimo) {
+    this.lucroMinimo = lucroMinimo;
+  }
+
+  public BigDecimal getLucroMaximo() {
+    return lucroMaximo;
+  }
+
+  public void setLucroMaximo(BigDecimal lucroMaximo) {
+    this.lucroMaximo = lucroMaximo;
+  }
+
+  public String getOrdenarPor() {
+    return ordenarPor;
+  }
+
+  public void setOrdenarPor(String ordenarPor) {
+    this.ordenarPor = ordenarPor;
+  }
+
+  public String getDirecao() {
+    return direcao;
+  }
+
+  public void setDirecao(String direcao) {
+    this.direcao = direcao;
+  }
+}
@@ -0,0 +1,54 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Um comando SQL lento capturado pelo MonitorSqlService: o texto com os "?",
+ * o tipo de cada parâmetro na ordem (ex.: ["Long", "Date", "null"]), quantas
+ * linhas foram enviadas no lote (1 fora de lotes), a duração e a requisição
+ * da API que o executou (null fora de requisições).
+ */
+public class ComandoSqlDTO {
+
+  private String sql;
+  private List<String> parametros;
+  private int lote;
+  private double duracaoMs;
+  private Instant instante;
+  private String requisicao;
+
+  public ComandoSqlDTO(String sql, List<String> parametros, int lote, double duracaoMs, Instant instante,
+      String requisicao) {
+    this.sql = sql;
+    this.parametros = parametros;
+    this.lote = lote;
+    this.duracaoMs = duracaoMs;
+    this.instante = instante;
+    this.requisicao = requisicao;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  public List<String> getParametros() {
+    return parametros;
+  }
+
+  public int getLote() {
+    return lote;
+  }
+
+  public double getDuracaoMs() {
+    return duracaoMs;
+  }
+
+  public Instant getInstante() {
+    return instante;
+  }
+
+  public String getRequisicao() {
+    return requisicao;
+  }
+}
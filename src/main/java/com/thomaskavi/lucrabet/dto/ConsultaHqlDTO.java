@@ -0,0 +1,42 @@
+package com.thomaskavi.lucrabet.dto;
+
+/**
+ * Estatísticas do Hibernate de uma consulta (HQL/JPQL ou SQL nativo):
+ * execuções, linhas devolvidas e tempos médio e máximo.
+ */
+public class ConsultaHqlDTO {
+
+  private String consulta;
+  private long execucoes;
+  private long linhas;
+  private long tempoMedioMs;
+  private long tempoMaximoMs;
+
+  public ConsultaHqlDTO(String consulta, long execucoes, long linhas, long tempoMedioMs, long tempoMaximoMs) {
+    this.consulta = consulta;
+    this.execucoes = execucoes;
+    this.linhas = linhas;
+    this.tempoMedioMs = tempoMedioMs;
+    this.tempoMaximoMs = tempoMaximoMs;
+  }
+
+  public String getConsulta() {
+    return consulta;
+  }
+
+  public long getExecucoes() {
+    return execucoes;
+  }
+
+  public long getLinhas() {
+    return linhas;
+  }
+
+  public long getTempoMedioMs() {
+    return tempoMedioMs;
+  }
+
+  public long getTempoMaximoMs() {
+    return tempoMaximoMs;
+  }
+}
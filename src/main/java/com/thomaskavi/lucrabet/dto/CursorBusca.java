@@ -0,0 +1,59 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição da paginação por keyset da busca, sobre (campo de ordenação, id).
+ * Como a ordem é escolhida pelo cliente, o token guarda também a ordem em que
+ * foi gerado ("valorLucro,desc"): um cursor só vale para a mesma ordem. O
+ * valor do campo fica em texto e é convertido por quem o usa.
+ */
+public class CursorBusca {
+
+  private final String ordem;
+  private final String valor;
+  private final Long id;
+
+  public CursorBusca(String ordem, String valor, Long id) {
+    this.ordem = ordem;
+    this.valor = valor;
+    this.id = id;
+  }
+
+  public String getValor() {
+    return valor;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String codificar() {
+    String texto = ordem + "|" + valor + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Lê um cursor recebido do cliente; null se o token é nulo ou vazio
+   * (primeira página).
+   *
+   * @throws IllegalArgumentException se o token não for um cursor válido ou
+   *                                  tiver sido gerado para outra ordem.
+   */
+  public static CursorBusca decodificar(String token, String ordemEsperada) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+    try {
+      String texto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] partes = texto.split("\\|");
+      if (partes.length != 3 || !partes[0].equals(ordemEsperada)) {
+        throw new IllegalArgumentException("Cursor inválido para a ordem " + ordemEsperada + ": " + token);
+      }
+      return new CursorBusca(partes[0], partes[1], Long.valueOf(partes[2]));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Cursor inválido: " + token, e);
+    }
+  }
+}
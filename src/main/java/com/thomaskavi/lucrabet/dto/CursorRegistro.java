@@ -0,0 +1,59 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição da paginação por keyset sobre (dataOperacao, id). Para o cliente o
+ * cursor é um token opaco (Base64 URL-safe de "data|id").
+ */
+public class CursorRegistro {
+
+  // Posição anterior a qualquer registro: usada na primeira página
+  public static final CursorRegistro INICIO = new CursorRegistro(LocalDate.of(1, 1, 1), 0L);
+
+  private LocalDate dataOperacao;
+  private Long id;
+
+  public CursorRegistro(LocalDate dataOperacao, Long id) {
+    this.dataOperacao = dataOperacao;
+    this.id = id;
+  }
+
+  public LocalDate getDataOperacao() {
+    return dataOperacao;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String codificar() {
+    String valor = dataOperacao + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Lê um cursor recebido do cliente. Um cursor nulo ou vazio representa a
+   * primeira página.
+   *
+   * @throws IllegalArgumentException se o token não for um cursor válido.
+   */
+  public static CursorRegistro decodificar(String token) {
+    if (token == null || token.isBlank()) {
+      return INICIO;
+    }
+    try {
+      String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] partes = valor.split("\\|");
+      if (partes.length != 2) {
+        throw new IllegalArgumentException("Cursor inválido: " + token);
+      }
+      return new CursorRegistro(LocalDate.parse(partes[0]), Long.valueOf(partes[1]));
+    } catch (DateTimeParseException | IllegalArgumentException e) {
+      throw new IllegalArgumentException("Cursor inválido: " + token, e);
+    }
+  }
+}
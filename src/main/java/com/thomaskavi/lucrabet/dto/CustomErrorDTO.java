@@ -0,0 +1,37 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.time.Instant;
+
+/**
+ * Corpo padrão das respostas de erro da API.
+ */
+public class CustomErrorDTO {
+
+  private Instant timestamp;
+  private Integer status;
+  private String error;
+  private String path;
+
+  public CustomErrorDTO(Instant timestamp, Integer status, String error, String path) {
+    this.timestamp = timestamp;
+    this.status = status;
+    this.error = error;
+    this.path = path;
+  }
+
+  public Instant getTimestamp() {
+    return timestamp;
+  }
+
+  public Integer getStatus() {
+    return status;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public String getPath() {
+    return path;
+  }
+}
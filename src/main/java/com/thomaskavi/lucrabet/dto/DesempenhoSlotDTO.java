@@ -0,0 +1,49 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Desempenho de um slot (nomeSlotGiros): os totais das suas operações, no
+ * mesmo formato do sumário, o ROI (lucro líquido / depósito total; null sem
+ * depósito) e percentis do lucro por operação ({"p10": ..., "p50": ...}),
+ * estimados com erro relativo de até 1%.
+ */
+@JsonPropertyOrder({ "nomeSlotGiros", "roi" })
+public class DesempenhoSlotDTO {
+
+  private String nomeSlotGiros;
+
+  @JsonUnwrapped
+  private SumarioDTO totais;
+
+  private BigDecimal roi;
+  private Map<String, BigDecimal> percentisLucro;
+
+  public DesempenhoSlotDTO(String nomeSlotGiros, SumarioDTO totais, BigDecimal roi,
+      Map<String, BigDecimal> percentisLucro) {
+    this.nomeSlotGiros = nomeSlotGiros;
+    this.totais = totais;
+    this.roi = roi;
+    this.percentisLucro = percentisLucro;
+  }
+
+  public String getNomeSlotGiros() {
+    return nomeSlotGiros;
+  }
+
+  public SumarioDTO getTotais() {
+    return totais;
+  }
+
+  public BigDecimal getRoi() {
+    return roi;
+  }
+
+  public Map<String, BigDecimal> getPercentisLucro() {
+    return percentisLucro;
+  }
+}
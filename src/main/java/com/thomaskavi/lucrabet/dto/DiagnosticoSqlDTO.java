@@ -0,0 +1,88 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resposta do endpoint /actuator/sql: contadores do MonitorSqlService
+ * (comandos, requisições e a requisição com mais comandos), estatísticas da
+ * SessionFactory do Hibernate (gerais, por entidade e por região do cache de
+ * segundo nível), as consultas com maior tempo máximo e os comandos lentos
+ * recentes.
+ */
+public class DiagnosticoSqlDTO {
+
+  private long limiarLentoMs;
+  private long comandos;
+  private double tempoComandosMs;
+  private long requisicoes;
+  private double mediaComandosPorRequisicao;
+  private RequisicaoSqlDTO maiorRequisicao;
+  private Map<String, Object> hibernate;
+  private Map<String, Map<String, Long>> entidades;
+  private Map<String, Map<String, Long>> regioesCache;
+  private List<ConsultaHqlDTO> consultasMaisLentas;
+  private List<ComandoSqlDTO> comandosLentos;
+
+  public DiagnosticoSqlDTO(long limiarLentoMs, long comandos, double tempoComandosMs, long requisicoes,
+      double mediaComandosPorRequisicao, RequisicaoSqlDTO maiorRequisicao, Map<String, Object> hibernate,
+      Map<String, Map<String, Long>> entidades, Map<String, Map<String, Long>> regioesCache,
+      List<ConsultaHqlDTO> consultasMaisLentas,
+      List<ComandoSqlDTO> comandosLentos) {
+    this.limiarLentoMs = limiarLentoMs;
+    this.comandos = comandos;
+    this.tempoComandosMs = tempoComandosMs;
+    this.requisicoes = requisicoes;
+    this.mediaComandosPorRequisicao = mediaComandosPorRequisicao;
+    this.maiorRequisicao = maiorRequisicao;
+    this.hibernate = hibernate;
+    this.entidades = entidades;
+    this.regioesCache = regioesCache;
+    this.consultasMaisLentas = consultasMaisLentas;
+    this.comandosLentos = comandosLentos;
+  }
+
+  public long getLimiarLentoMs() {
+    return limiarLentoMs;
+  }
+
+  public long getComandos() {
+    return comandos;
+  }
+
+  public double getTempoComandosMs() {
+    return tempoComandosMs;
+  }
+
+  public long getRequisicoes() {
+    return requisicoes;
+  }
+
+  public double getMediaComandosPorRequisicao() {
+    return mediaComandosPorRequisicao;
+  }
+
+  public RequisicaoSqlDTO getMaiorRequisicao() {
+    return maiorRequisicao;
+  }
+
+  public Map<String, Object> getHibernate() {
+    return hibernate;
+  }
+
+  public Map<String, Map<String, Long>> getEntidades() {
+    return entidades;
+  }
+
+  public Map<String, Map<String, Long>> getRegioesCache() {
+    return regioesCache;
+  }
+
+  public List<ConsultaHqlDTO> getConsultasMaisLentas() {
+    return consultasMaisLentas;
+  }
+
+  public List<ComandoSqlDTO> getComandosLentos() {
+    return comandosLentos;
+  }
+}
@@ -0,0 +1,23 @@
+package com.thomaskavi.lucrabet.dto;
+
+/**
+ * Uma linha da planilha que não pôde ser importada e o motivo.
+ */
+public class ErroImportacaoDTO {
+
+  private long linha;
+  private String mensagem;
+
+  public ErroImportacaoDTO(long linha, String mensagem) {
+    this.linha = linha;
+    this.mensagem = mensagem;
+  }
+
+  public long getLinha() {
+    return linha;
+  }
+
+  public String getMensagem() {
+    return mensagem;
+  }
+}
@@ -0,0 +1,75 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Filtros opcionais sobre os registros de operações, recebidos como parâmetros
+ * de query (?startDate=...&endDate=...&linkPlataforma=...). Campos null não
+ * filtram.
+ */
+public class FiltroRegistroDTO {
+
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+  private LocalDate startDate;
+
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+  private LocalDate endDate;
+
+  private String linkPlataforma;
+  private String nomeConta;
+  private String situacao;
+  private Boolean saqueCompletoFeito;
+
+  public FiltroRegistroDTO() {
+  }
+
+  public LocalDate getStartDate() {
+    return startDate;
+  }
+
+  public void setStartDate(LocalDate startDate) {
+    this.startDate = startDate;
+  }
+
+  public LocalDate getEndDate() {
+    return endDate;
+  }
+
+  public void setEndDate(LocalDate endDate) {
+    this.endDate = endDate;
+  }
+
+  public String getLinkPlataforma() {
+    return linkPlataforma;
+  }
+
+  public void setLinkPlataforma(String linkPlataforma) {
+    this.linkPlataforma = linkPlataforma;
+  }
+
+  public String getNomeConta() {
+    return nomeConta;
+  }
+
+  public void setNomeConta(String nomeConta) {
+    this.nomeConta = nomeConta;
+  }
+
+  public String getSituacao() {
+    return situacao;
+  }
+
+  public void setSituacao(String situacao) {
+    this.situacao = situacao;
+  }
+
+  public Boolean getSaqueCompletoFeito() {
+    return saqueCompletoFeito;
+  }
+
+  public void setSaqueCompletoFeito(Boolean saqueCompletoFeito) {
+    this.saqueCompletoFeito = saqueCompletoFeito;
+  }
+}
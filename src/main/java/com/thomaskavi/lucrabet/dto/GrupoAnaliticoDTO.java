@@ -0,0 +1,31 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Um grupo do resultado de uma consulta analítica: os valores das dimensões
+ * agrupadas (ex.: {"plataforma": "mmabet.bet.br", "semana": "2025-07-07"}) e
+ * os totais do grupo, no mesmo formato do sumário.
+ */
+public class GrupoAnaliticoDTO {
+
+  private Map<String, String> chave;
+
+  @JsonUnwrapped
+  private SumarioDTO totais;
+
+  public GrupoAnaliticoDTO(Map<String, String> chave, SumarioDTO totais) {
+    this.chave = chave;
+    this.totais = totais;
+  }
+
+  public Map<String, String> getChave() {
+    return chave;
+  }
+
+  public SumarioDTO getTotais() {
+    return totais;
+  }
+}
@@ -0,0 +1,30 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados paginados por cursor (keyset).
+ * O proximoCursor é null quando não há mais páginas.
+ */
+public class PaginaDTO<T> {
+
+  private List<T> conteudo;
+  private String proximoCursor;
+
+  public PaginaDTO(List<T> conteudo, String proximoCursor) {
+    this.conteudo = conteudo;
+    this.proximoCursor = proximoCursor;
+  }
+
+  public List<T> getConteudo() {
+    return conteudo;
+  }
+
+  public String getProximoCursor() {
+    return proximoCursor;
+  }
+
+  public int getTamanho() {
+    return conteudo.size();
+  }
+}
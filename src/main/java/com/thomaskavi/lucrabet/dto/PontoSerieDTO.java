@@ -0,0 +1,36 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Um ponto de uma série temporal: o primeiro dia do período (dia, semana ou
+ * mês) e os totais das operações do período, no mesmo formato do sumário.
+ */
+public class PontoSerieDTO {
+
+  private LocalDate inicio;
+
+  @JsonUnwrapped
+  private SumarioDTO totais;
+
+  public PontoSerieDTO(LocalDate inicio, SumarioDTO totais) {
+    this.inicio = inicio;
+    this.totais = totais;
+  }
+
+  // Usado pela consulta do agregado (SUMs de um dia)
+  public PontoSerieDTO(LocalDate inicio, Long lucroCentavos, Long depositoCentavos, Long quantidadeOperacoes,
+      Long saquesPendentes) {
+    this(inicio, new SumarioDTO(lucroCentavos, depositoCentavos, quantidadeOperacoes, saquesPendentes));
+  }
+
+  public LocalDate getInicio() {
+    return inicio;
+  }
+
+  public SumarioDTO getTotais() {
+    return totais;
+  }
+}
@@ -0,0 +1,113 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+import com.thomaskavi.lucrabet.entities.Situacao;
+
+/**
+ * Visão de leitura de um RegistroOperacao, com a plataforma e a conta já
+ * achatadas. As consultas de listagem montam este objeto direto no SELECT
+ * (expressão "new" do JPQL com JOIN), então cada página custa uma única
+ * consulta e nenhuma entidade é carregada no contexto de persistência.
+ */
+public class RegistroOperacaoDTO {
+
+  private Long id;
+  private Long plataformaId;
+  private String linkPlataforma;
+  private Long contaId;
+  private String nomeConta;
+  private LocalDate dataOperacao;
+  private BigDecimal valorDeposito;
+  private String nomeSlotGiros;
+  // Serializada pelo texto ("Finalizado"...)
+  private Situacao situacao;
+  private BigDecimal valorLucro;
+  private Boolean saqueCompletoFeito;
+  // Versão otimista do registro, a enviar no PATCH (null quando a origem não a
+  // conhece, como a cópia colunar do AnaliticoService)
+  private Long versao;
+
+  public RegistroOperacaoDTO(Long id, Long plataformaId, String linkPlataforma, Long contaId, String nomeConta,
+      LocalDate dataOperacao, BigDecimal valorDeposito, String nomeSlotGiros, Situacao situacao,
+      BigDecimal valorLucro, Boolean saqueCompletoFeito) {
+    this(id, plataformaId, linkPlataforma, contaId, nomeConta, dataOperacao, valorDeposito, nomeSlotGiros, situacao,
+        valorLucro, saqueCompletoFeito, null);
+  }
+
+  public RegistroOperacaoDTO(Long id, Long plataformaId, String linkPlataforma, Long contaId, String nomeConta,
+      LocalDate dataOperacao, BigDecimal valorDeposito, String nomeSlotGiros, Situacao situacao,
+      BigDecimal valorLucro, Boolean saqueCompletoFeito, Long versao) {
+    this.id = id;
+    this.plataformaId = plataformaId;
+    this.linkPlataforma = linkPlataforma;
+    this.contaId = contaId;
+    this.nomeConta = nomeConta;
+    this.dataOperacao = dataOperacao;
+    this.valorDeposito = valorDeposito;
+    this.nomeSlotGiros = nomeSlotGiros;
+    this.situacao = situacao;
+    this.valorLucro = valorLucro;
+    this.saqueCompletoFeito = saqueCompletoFeito;
+    this.versao = versao;
+  }
+
+  // A plataforma e a conta do registro precisam estar carregadas (não podem
+  // ser proxies de uma sessão já fechada)
+  public RegistroOperacaoDTO(RegistroOperacao registro) {
+    this(registro.getId(), registro.getPlataforma().getId(), registro.getPlataforma().getLinkPlataforma(),
+        registro.getConta().getId(), registro.getConta().getNomeConta(), registro.getDataOperacao(),
+        registro.getValorDeposito(), registro.getNomeSlotGiros(), registro.getSituacao(),
+        registro.getValorLucro(), registro.getSaqueCompletoFeito(), registro.getVersao());
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getPlataformaId() {
+    return plataformaId;
+  }
+
+  public String getLinkPlataforma() {
+    return linkPlataforma;
+  }
+
+  public Long getContaId() {
+    return contaId;
+  }
+
+  public String getNomeConta() {
+    return nomeConta;
+  }
+
+  public LocalDate getDataOperacao() {
+    return dataOperacao;
+  }
+
+  public BigDecimal getValorDeposito() {
+    return valorDeposito;
+  }
+
+  public String getNomeSlotGiros() {
+    return nomeSlotGiros;
+  }
+
+  public Situacao getSituacao() {
+    return situacao;
+  }
+
+  public BigDecimal getValorLucro() {
+    return valorLucro;
+  }
+
+  public Boolean getSaqueCompletoFeito() {
+    return saqueCompletoFeito;
+  }
+
+  public Long getVersao() {
+    return versao;
+  }
+}
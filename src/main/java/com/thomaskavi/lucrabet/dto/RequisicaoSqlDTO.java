@@ -0,0 +1,30 @@
+package com.thomaskavi.lucrabet.dto;
+
+/**
+ * Uma requisição da API e quantos comandos SQL ela executou (e em quanto
+ * tempo somado).
+ */
+public class RequisicaoSqlDTO {
+
+  private String uri;
+  private long comandos;
+  private double tempoSqlMs;
+
+  public RequisicaoSqlDTO(String uri, long comandos, double tempoSqlMs) {
+    this.uri = uri;
+    this.comandos = comandos;
+    this.tempoSqlMs = tempoSqlMs;
+  }
+
+  public String getUri() {
+    return uri;
+  }
+
+  public long getComandos() {
+    return comandos;
+  }
+
+  public double getTempoSqlMs() {
+    return tempoSqlMs;
+  }
+}
@@ -0,0 +1,26 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.util.List;
+
+/**
+ * Resposta de uma consulta analítica: os grupos em ordem crescente das
+ * chaves e o tempo gasto na consulta em memória.
+ */
+public class ResultadoAnaliticoDTO {
+
+  private List<GrupoAnaliticoDTO> grupos;
+  private long duracaoMicros;
+
+  public ResultadoAnaliticoDTO(List<GrupoAnaliticoDTO> grupos, long duracaoMicros) {
+    this.grupos = grupos;
+    this.duracaoMicros = duracaoMicros;
+  }
+
+  public List<GrupoAnaliticoDTO> getGrupos() {
+    return grupos;
+  }
+
+  public long getDuracaoMicros() {
+    return duracaoMicros;
+  }
+}
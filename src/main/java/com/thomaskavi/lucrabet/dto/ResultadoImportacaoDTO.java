@@ -0,0 +1,50 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de uma importação em lote: quantas linhas foram lidas e gravadas,
+ * a vazão obtida e os erros por linha (limitados aos primeiros encontrados).
+ */
+public class ResultadoImportacaoDTO {
+
+  private long linhasLidas;
+  private long linhasImportadas;
+  private long linhasComErro;
+  private long duracaoMs;
+  private List<ErroImportacaoDTO> erros;
+
+  public ResultadoImportacaoDTO(long linhasLidas, long linhasImportadas, long linhasComErro, long duracaoMs,
+      List<ErroImportacaoDTO> erros) {
+    this.linhasLidas = linhasLidas;
+    this.linhasImportadas = linhasImportadas;
+    this.linhasComErro = linhasComErro;
+    this.duracaoMs = duracaoMs;
+    this.erros = erros;
+  }
+
+  public long getLinhasLidas() {
+    return linhasLidas;
+  }
+
+  public long getLinhasImportadas() {
+    return linhasImportadas;
+  }
+
+  public long getLinhasComErro() {
+    return linhasComErro;
+  }
+
+  public long getDuracaoMs() {
+    return duracaoMs;
+  }
+
+  // Linhas gravadas por segundo
+  public double getLinhasPorSegundo() {
+    return duracaoMs == 0 ? linhasImportadas : linhasImportadas * 1000.0 / duracaoMs;
+  }
+
+  public List<ErroImportacaoDTO> getErros() {
+    return erros;
+  }
+}
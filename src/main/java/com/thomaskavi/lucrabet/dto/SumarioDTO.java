@@ -0,0 +1,69 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.thomaskavi.lucrabet.util.Centavos;
+
+/**
+ * Resumo das operações de um período, calculado pelo banco em uma única
+ * consulta: lucro, depósito, lucro líquido, quantidade de operações e
+ * quantidade de saques ainda não realizados.
+ *
+ * Os valores ficam em centavos (long) e só são convertidos para BigDecimal
+ * nos getters, na serialização da resposta.
+ */
+@JsonPropertyOrder({ "lucroTotal", "depositoTotal", "lucroLiquido", "quantidadeOperacoes", "saquesPendentes" })
+public class SumarioDTO {
+
+  private long lucroCentavos;
+  private long depositoCentavos;
+  private Long quantidadeOperacoes;
+  private Long saquesPendentes;
+
+  public SumarioDTO(Long lucroCentavos, Long depositoCentavos, Long quantidadeOperacoes,
+      Long saquesPendentes) {
+    this.lucroCentavos = lucroCentavos;
+    this.depositoCentavos = depositoCentavos;
+    this.quantidadeOperacoes = quantidadeOperacoes;
+    this.saquesPendentes = saquesPendentes;
+  }
+
+  // Resumo de um filtro que não encontrou nenhuma operação
+  public static SumarioDTO vazio() {
+    return new SumarioDTO(0L, 0L, 0L, 0L);
+  }
+
+  // Valores brutos, para quem precisa somar sumários (fora do JSON)
+  @JsonIgnore
+  public long getLucroCentavos() {
+    return lucroCentavos;
+  }
+
+  @JsonIgnore
+  public long getDepositoCentavos() {
+    return depositoCentavos;
+  }
+
+  public BigDecimal getLucroTotal() {
+    return Centavos.paraDecimal(lucroCentavos);
+  }
+
+  public BigDecimal getDepositoTotal() {
+    return Centavos.paraDecimal(depositoCentavos);
+  }
+
+  // Lucro líquido = lucro total - depósito total
+  public BigDecimal getLucroLiquido() {
+    return Centavos.paraDecimal(Math.subtractExact(lucroCentavos, depositoCentavos));
+  }
+
+  public Long getQuantidadeOperacoes() {
+    return quantidadeOperacoes;
+  }
+
+  public Long getSaquesPendentes() {
+    return saquesPendentes;
+  }
+}
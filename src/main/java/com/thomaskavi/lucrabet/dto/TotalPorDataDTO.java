@@ -0,0 +1,29 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.thomaskavi.lucrabet.util.Centavos;
+
+/**
+ * Projeção de um total agrupado por data (resultado de um GROUP BY no banco),
+ * em centavos.
+ */
+public class TotalPorDataDTO {
+
+  private LocalDate data;
+  private long totalCentavos;
+
+  public TotalPorDataDTO(LocalDate data, Long totalCentavos) {
+    this.data = data;
+    this.totalCentavos = totalCentavos;
+  }
+
+  public LocalDate getData() {
+    return data;
+  }
+
+  public BigDecimal getTotal() {
+    return Centavos.paraDecimal(totalCentavos);
+  }
+}
@@ -0,0 +1,97 @@
+package com.thomaskavi.lucrabet.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.thomaskavi.lucrabet.entities.Situacao;
+
+/**
+ * Corpo da transição em massa: quais registros alterar (a lista de ids ou os
+ * filtros, combinados com AND; campos null não filtram) e os novos valores de
+ * situacao e/ou saqueCompletoFeito (null = manter).
+ */
+public class TransicaoLoteDTO {
+
+  private List<Long> ids;
+  private LocalDate startDate;
+  private LocalDate endDate;
+  private String linkPlataforma;
+  private String nomeConta;
+  private Situacao situacaoAtual;
+
+  private Situacao situacao;
+  private Boolean saqueCompletoFeito;
+
+  public TransicaoLoteDTO() {
+  }
+
+  // Sem nenhum critério a transição alcançaria todos os registros
+  public boolean temCriterio() {
+    return (ids != null && !ids.isEmpty()) || startDate != null || endDate != null || linkPlataforma != null
+        || nomeConta != null || situacaoAtual != null;
+  }
+
+  public List<Long> getIds() {
+    return ids;
+  }
+
+  public void setIds(List<Long> ids) {
+    this.ids = ids;
+  }
+
+  public LocalDate getStartDate() {
+    return startDate;
+  }
+
+  public void setStartDate(LocalDate startDate) {
+    this.startDate = startDate;
+  }
+
+  public LocalDate getEndDate() {
+    return endDate;
+  }
+
+  public void setEndDate(LocalDate endDate) {
+    this.endDate = endDate;
+  }
+
+  public String getLinkPlataforma() {
+    return linkPlataforma;
+  }
+
+  public void setLinkPlataforma(String linkPlataforma) {
+    this.linkPlataforma = linkPlataforma;
+  }
+
+  public String getNomeConta() {
+    return nomeConta;
+  }
+
+  public void setNomeConta(String nomeConta) {
+    this.nomeConta = nomeConta;
+  }
+
+  public Situacao getSituacaoAtual() {
+    return situacaoAtual;
+  }
+
+  public void setSituacaoAtual(Situacao situacaoAtual) {
+    this.situacaoAtual = situacaoAtual;
+  }
+
+  public Situacao getSituacao() {
+    return situacao;
+  }
+
+  public void setSituacao(Situacao situacao) {
+    this.situacao = situacao;
+  }
+
+  public Boolean getSaqueCompletoFeito() {
+    return saqueCompletoFeito;
+  }
+
+  public void setSaqueCompletoFeito(Boolean saqueCompletoFeito) {
+    this.saqueCompletoFeito = saqueCompletoFeito;
+  }
+}
@@ -0,0 +1,112 @@
+package com.thomaskavi.lucrabet.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+/**
+ * Totais materializados de tb_registros_operacoes por (dia, plataforma, conta).
+ * É mantido pelo RegistroOperacaoService na mesma transação de cada escrita e
+ * pode ser reconstruído a partir dos registros pelo AgregadoDiarioService.
+ *
+ * Lucro e depósito são guardados em centavos (BIGINT): as somas no banco e em
+ * memória são de inteiros, e a conversão para decimal só acontece na API.
+ */
+@Entity
+@Table(name = "tb_agregados_diarios")
+public class AgregadoDiario {
+
+  @EmbeddedId
+  private AgregadoDiarioPK id;
+
+  @Column(nullable = false)
+  private Long lucroCentavos;
+
+  @Column(nullable = false)
+  private Long depositoCentavos;
+
+  @Column(nullable = false)
+  private Long quantidadeOperacoes;
+
+  @Column(nullable = false)
+  private Long saquesPendentes;
+
+  public AgregadoDiario() {
+  }
+
+  public AgregadoDiario(AgregadoDiarioPK id, Long lucroCentavos, Long depositoCentavos,
+      Long quantidadeOperacoes, Long saquesPendentes) {
+    this.id = id;
+    this.lucroCentavos = lucroCentavos;
+    this.depositoCentavos = depositoCentavos;
+    this.quantidadeOperacoes = quantidadeOperacoes;
+    this.saquesPendentes = saquesPendentes;
+  }
+
+  public AgregadoDiarioPK getId() {
+    return id;
+  }
+
+  public void setId(AgregadoDiarioPK id) {
+    this.id = id;
+  }
+
+  public Long getLucroCentavos() {
+    return lucroCentavos;
+  }
+
+  public void setLucroCentavos(Long lucroCentavos) {
+    this.lucroCentavos = lucroCentavos;
+  }
+
+  public Long getDepositoCentavos() {
+    return depositoCentavos;
+  }
+
+  public void setDepositoCentavos(Long depositoCentavos) {
+    this.depositoCentavos = depositoCentavos;
+  }
+
+  public Long getQuantidadeOperacoes() {
+    return quantidadeOperacoes;
+  }
+
+  public void setQuantidadeOperacoes(Long quantidadeOperacoes) {
+    this.quantidadeOperacoes = quantidadeOperacoes;
+  }
+
+  public Long getSaquesPendentes() {
+    return saquesPendentes;
+  }
+
+  public void setSaquesPendentes(Long saquesPendentes) {
+    this.saquesPendentes = saquesPendentes;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + ((id == null) ? 0 : id.hashCode());
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    AgregadoDiario other = (AgregadoDiario) obj;
+    if (id == null) {
+      if (other.id != null)
+        return false;
+    } else if (!id.equals(other.id))
+      return false;
+    return true;
+  }
+
+}
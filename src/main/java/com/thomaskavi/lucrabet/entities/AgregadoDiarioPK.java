@@ -0,0 +1,96 @@
+package com.thomaskavi.lucrabet.entities;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Chave do agregado diário: (data da operação, plataforma, conta).
+ */
+@Embeddable
+public class AgregadoDiarioPK implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  @Column(nullable = false)
+  private LocalDate dataOperacao;
+
+  @Column(name = "plataforma_id", nullable = false)
+  private Long plataformaId;
+
+  @Column(name = "conta_id", nullable = false)
+  private Long contaId;
+
+  public AgregadoDiarioPK() {
+  }
+
+  public AgregadoDiarioPK(LocalDate dataOperacao, Long plataformaId, Long contaId) {
+    this.dataOperacao = dataOperacao;
+    this.plataformaId = plataformaId;
+    this.contaId = contaId;
+  }
+
+  public LocalDate getDataOperacao() {
+    return dataOperacao;
+  }
+
+  public void setDataOperacao(LocalDate dataOperacao) {
+    this.dataOperacao = dataOperacao;
+  }
+
+  public Long getPlataformaId() {
+    return plataformaId;
+  }
+
+  public void setPlataformaId(Long plataformaId) {
+    this.plataformaId = plataformaId;
+  }
+
+  public Long getContaId() {
+    return contaId;
+  }
+
+  public void setContaId(Long contaId) {
+    this.contaId = contaId;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + ((dataOperacao == null) ? 0 : dataOperacao.hashCode());
+    result = prime * result + ((plataformaId == null) ? 0 : plataformaId.hashCode());
+    result = prime * result + ((contaId == null) ? 0 : contaId.hashCode());
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null)
+      return false;
+    if (getClass() != obj.getClass())
+      return false;
+    AgregadoDiarioPK other = (AgregadoDiarioPK) obj;
+    if (dataOperacao == null) {
+      if (other.dataOperacao != null)
+        return false;
+    } else if (!dataOperacao.equals(other.dataOperacao))
+      return false;
+    if (plataformaId == null) {
+      if (other.plataformaId != null)
+        return false;
+    } else if (!plataformaId.equals(other.plataformaId))
+      return false;
+    if (contaId == null) {
+      if (other.contaId != null)
+        return false;
+    } else if (!contaId.equals(other.contaId))
+      return false;
+    return true;
+  }
+
+}
@@ -1,18 +1,27 @@
 package com.thomaskavi.lucrabet.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
+// Em cache de segundo nível, como Plataforma
 @Entity
 @Table(name = "tb_contas")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contas")
 public class Conta {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seqContas")
+  @SequenceGenerator(name = "seqContas", sequenceName = "seq_contas", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false, unique = true)
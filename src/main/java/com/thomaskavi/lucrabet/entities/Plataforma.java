@@ -1,18 +1,29 @@
 package com.thomaskavi.lucrabet.entities;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
+// Cache de segundo nível (região "plataformas" em application.conf).
+// READ_WRITE: as alterações feitas pelo Hibernate atualizam ou removem a
+// entrada no commit, sem servir dado velho a outras transações
 @Entity
 @Table(name = "tb_plataformas")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "plataformas")
 public class Plataforma {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seqPlataformas")
+  @SequenceGenerator(name = "seqPlataformas", sequenceName = "seq_plataformas", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false, unique = true)
@@ -3,31 +3,63 @@ package com.thomaskavi.lucrabet.entities;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "tb_registros_operacoes")
+// Índices alinhados às listagens do RegistroOperacaoRepository: todas filtram
+// por uma coluna e percorrem o resultado em ordem de data (keyset), por isso a
+// data vem depois da coluna filtrada. O H2 acrescenta o id ao final de cada
+// índice, completando a chave (dataOperacao, id) do cursor.
+@Table(name = "tb_registros_operacoes", indexes = {
+    @Index(name = "idx_registros_data", columnList = "dataOperacao"),
+    @Index(name = "idx_registros_plataforma_data", columnList = "plataforma_id, dataOperacao"),
+    @Index(name = "idx_registros_conta_data", columnList = "conta_id, dataOperacao"),
+    @Index(name = "idx_registros_situacao_data", columnList = "situacao, dataOperacao"),
+    @Index(name = "idx_registros_saque_data", columnList = "saqueCompletoFeito, dataOperacao"),
+    // Busca ordenada por valor (keyset sobre valor + id)
+    @Index(name = "idx_registros_lucro", columnList = "valorLucro, id"),
+    @Index(name = "idx_registros_deposito", columnList = "valorDeposito, id") })
 public class RegistroOperacao {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  // Sequence com alocação em blocos (pooled): o Hibernate reserva 50 ids por
+  // ida ao banco e consegue agrupar os INSERTs em lotes JDBC, o que IDENTITY
+  // não permite
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seqRegistrosOperacoes")
+  @SequenceGenerator(name = "seqRegistrosOperacoes", sequenceName = "seq_registros_operacoes", allocationSize = 50)
   private Long id;
 
-  @ManyToOne(fetch = FetchType.EAGER)
+  // LAZY: as leituras usam RegistroOperacaoDTO (com JOIN) e as escritas só
+  // precisam do id da plataforma e da conta
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "plataforma_id", nullable = false)
   private Plataforma plataforma;
 
-  @ManyToOne(fetch = FetchType.EAGER)
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "conta_id", nullable = false)
   private Conta conta;
 
+  // As mesmas FKs como colunas simples, só para leitura em consultas (filtrar
+  // por elas não exige JOIN). Não são atualizadas em memória ao trocar a
+  // plataforma/conta, por isso não têm getters.
+  @Column(name = "plataforma_id", insertable = false, updatable = false)
+  private Long plataformaId;
+
+  @Column(name = "conta_id", insertable = false, updatable = false)
+  private Long contaId;
+
   @Column(nullable = false)
   private LocalDate dataOperacao;
 
@@ -37,8 +69,10 @@ public class RegistroOperacao {
   @Column(length = 255)
   private String nomeSlotGiros;
 
-  @Column(nullable = false, length = 50)
-  private String situacao;
+  // Código da Situacao (SituacaoConverter), indexado com a data em
+  // idx_registros_situacao_data
+  @Column(nullable = false)
+  private Situacao situacao;
 
   @Column(nullable = false, precision = 10, scale = 2)
   private BigDecimal valorLucro;
@@ -46,11 +80,19 @@ public class RegistroOperacao {
   @Column(nullable = false)
   private Boolean saqueCompletoFeito;
 
+  // Controle de concorrência otimista: o Hibernate confere e incrementa a
+  // versão em cada UPDATE, e o PATCH faz o mesmo no seu UPDATE direto. O
+  // DEFAULT 0 cobre as cargas que inserem por SQL (import.sql, gerador).
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long versao;
+
   public RegistroOperacao() {
   }
 
   public RegistroOperacao(Long id, Plataforma plataforma, Conta conta, LocalDate dataOperacao,
-      BigDecimal valorDeposito, String nomeSlotGiros, String situacao,
+      BigDecimal valorDeposito, String nomeSlotGiros, Situacao situacao,
       BigDecimal valorLucro, Boolean saqueCompletoFeito) {
     this.id = id;
     this.plataforma = plataforma;
@@ -95,11 +137,11 @@ public class RegistroOperacao {
     this.nomeSlotGiros = nomeSlotGiros;
   }
 
-  public String getSituacao() {
+  public Situacao getSituacao() {
     return situacao;
   }
 
-  public void setSituacao(String situacao) {
+  public void setSituacao(Situacao situacao) {
     this.situacao = situacao;
   }
 
@@ -119,6 +161,10 @@ public class RegistroOperacao {
     this.saqueCompletoFeito = saqueCompletoFeito;
   }
 
+  public Long getVersao() {
+    return versao;
+  }
+
   public Plataforma getPlataforma() {
     return plataforma;
   }
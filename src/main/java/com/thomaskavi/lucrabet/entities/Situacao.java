@@ -0,0 +1,71 @@
+package com.thomaskavi.lucrabet.entities;
+
+import java.util.Optional;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Situações possíveis de um registro de operação. No banco cada uma é gravada
+ * pelo código (SMALLINT, ver SituacaoConverter); na API e nos arquivos
+ * continua aparecendo o texto da planilha ("Finalizado", "Aguardando"...).
+ *
+ * Os códigos são persistidos: uma situação nova recebe o próximo código livre
+ * e os existentes nunca são reaproveitados.
+ */
+public enum Situacao {
+  FINALIZADO(1, "Finalizado"),
+  AGUARDANDO(2, "Aguardando"),
+  CANCELADO(3, "Cancelado");
+
+  private static final Situacao[] POR_CODIGO = new Situacao[4];
+
+  static {
+    for (Situacao situacao : values()) {
+      POR_CODIGO[situacao.codigo] = situacao;
+    }
+  }
+
+  private final short codigo;
+  private final String texto;
+
+  Situacao(int codigo, String texto) {
+    this.codigo = (short) codigo;
+    this.texto = texto;
+  }
+
+  public short getCodigo() {
+    return codigo;
+  }
+
+  @JsonValue
+  public String getTexto() {
+    return texto;
+  }
+
+  public static Situacao doCodigo(short codigo) {
+    if (codigo <= 0 || codigo >= POR_CODIGO.length || POR_CODIGO[codigo] == null) {
+      throw new IllegalArgumentException("Código de situação inválido: " + codigo);
+    }
+    return POR_CODIGO[codigo];
+  }
+
+  // Pelo texto, sem diferenciar maiúsculas de minúsculas; vazio se não existe
+  public static Optional<Situacao> porTexto(String texto) {
+    if (texto != null) {
+      String valor = texto.trim();
+      for (Situacao situacao : values()) {
+        if (situacao.texto.equalsIgnoreCase(valor)) {
+          return Optional.of(situacao);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  // Para valores enviados pelo cliente: um texto desconhecido é um erro (400)
+  @JsonCreator
+  public static Situacao de(String texto) {
+    return porTexto(texto).orElseThrow(() -> new IllegalArgumentException("Situação inválida: " + texto));
+  }
+}
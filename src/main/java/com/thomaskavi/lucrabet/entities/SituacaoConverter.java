@@ -0,0 +1,20 @@
+package com.thomaskavi.lucrabet.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Grava a Situacao pelo código, em uma coluna SMALLINT (2 bytes por linha e
+// por entrada de índice, comparada como inteiro)
+@Converter(autoApply = true)
+public class SituacaoConverter implements AttributeConverter<Situacao, Short> {
+
+  @Override
+  public Short convertToDatabaseColumn(Situacao situacao) {
+    return situacao == null ? null : situacao.getCodigo();
+  }
+
+  @Override
+  public Situacao convertToEntityAttribute(Short codigo) {
+    return codigo == null ? null : Situacao.doCodigo(codigo);
+  }
+}
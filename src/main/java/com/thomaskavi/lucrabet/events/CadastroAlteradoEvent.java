@@ -0,0 +1,36 @@
+package com.thomaskavi.lucrabet.events;
+
+/**
+ * Publicado quando uma plataforma ou conta é criada, renomeada ou excluída
+ * pelos seus endpoints de cadastro.
+ */
+public class CadastroAlteradoEvent {
+
+  public enum Tipo {
+    PLATAFORMA, CONTA
+  }
+
+  private final Tipo tipo;
+  private final Long id;
+
+  // Link da plataforma ou nome da conta; null quando o cadastro foi excluído
+  private final String nome;
+
+  public CadastroAlteradoEvent(Tipo tipo, Long id, String nome) {
+    this.tipo = tipo;
+    this.id = id;
+    this.nome = nome;
+  }
+
+  public Tipo getTipo() {
+    return tipo;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public String getNome() {
+    return nome;
+  }
+}
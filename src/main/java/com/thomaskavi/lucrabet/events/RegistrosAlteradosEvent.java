@@ -0,0 +1,62 @@
+package com.thomaskavi.lucrabet.events;
+
+import java.util.List;
+
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+
+/**
+ * Publicado dentro da transação que grava ou exclui registros de operação.
+ * Os ouvintes usam @TransactionalEventListener, então só recebem o evento
+ * depois do commit (e nunca em caso de rollback).
+ */
+public class RegistrosAlteradosEvent {
+
+  // Registros inseridos ou atualizados, com os valores já gravados
+  private final List<RegistroOperacaoDTO> gravados;
+
+  // Ids dos registros excluídos
+  private final List<Long> removidos;
+
+  // Valores de antes da alteração dos registros atualizados ou excluídos (a
+  // data, plataforma e conta antigas também deixaram de valer)
+  private final List<RegistroOperacaoDTO> anteriores;
+
+  public RegistrosAlteradosEvent(List<RegistroOperacaoDTO> gravados, List<Long> removidos,
+      List<RegistroOperacaoDTO> anteriores) {
+    this.gravados = gravados;
+    this.removidos = removidos;
+    this.anteriores = anteriores;
+  }
+
+  // Registros novos (ex.: um lote da importação)
+  public static RegistrosAlteradosEvent gravados(List<RegistroOperacaoDTO> gravados) {
+    return new RegistrosAlteradosEvent(gravados, List.of(), List.of());
+  }
+
+  // Um registro salvo; anterior é null quando ele é novo
+  public static RegistrosAlteradosEvent gravado(RegistroOperacaoDTO gravado, RegistroOperacaoDTO anterior) {
+    return new RegistrosAlteradosEvent(List.of(gravado), List.of(), anterior == null ? List.of() : List.of(anterior));
+  }
+
+  // Registros atualizados em massa, na mesma ordem dos valores anteriores
+  public static RegistrosAlteradosEvent atualizados(List<RegistroOperacaoDTO> gravados,
+      List<RegistroOperacaoDTO> anteriores) {
+    return new RegistrosAlteradosEvent(gravados, List.of(), anteriores);
+  }
+
+  public static RegistrosAlteradosEvent removido(RegistroOperacaoDTO anterior) {
+    return new RegistrosAlteradosEvent(List.of(), List.of(anterior.getId()), List.of(anterior));
+  }
+
+  public List<RegistroOperacaoDTO> getGravados() {
+    return gravados;
+  }
+
+  public List<Long> getRemovidos() {
+    return removidos;
+  }
+
+  public List<RegistroOperacaoDTO> getAnteriores() {
+    return anteriores;
+  }
+}
@@ -0,0 +1,68 @@
+package com.thomaskavi.lucrabet.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.thomaskavi.lucrabet.dto.PontoSerieDTO;
+import com.thomaskavi.lucrabet.dto.SumarioDTO;
+import com.thomaskavi.lucrabet.dto.TotalPorDataDTO;
+import com.thomaskavi.lucrabet.entities.AgregadoDiario;
+import com.thomaskavi.lucrabet.entities.AgregadoDiarioPK;
+
+@Repository
+public interface AgregadoDiarioRepository extends JpaRepository<AgregadoDiario, AgregadoDiarioPK> {
+
+  // Remove a linha da chave se ela ficou sem nenhuma operação (busca pela
+  // chave primária, sem varrer o agregado)
+  @Modifying
+  @Query("DELETE FROM AgregadoDiario a WHERE a.id.dataOperacao = :dataOperacao "
+      + "AND a.id.plataformaId = :plataformaId AND a.id.contaId = :contaId AND a.quantidadeOperacoes = 0")
+  int removerSeVazio(LocalDate dataOperacao, Long plataformaId, Long contaId);
+
+  // Recalcula todo o agregado a partir dos registros brutos
+  @Modifying
+  @Query(nativeQuery = true, value = "INSERT INTO tb_agregados_diarios (data_operacao, plataforma_id, conta_id, "
+      + "lucro_centavos, deposito_centavos, quantidade_operacoes, saques_pendentes) "
+      + "SELECT r.data_operacao, r.plataforma_id, r.conta_id, SUM(CAST(r.valor_lucro * 100 AS BIGINT)), "
+      + "SUM(CAST(r.valor_deposito * 100 AS BIGINT)), COUNT(*), "
+      + "SUM(CASE WHEN r.saque_completo_feito = FALSE THEN 1 ELSE 0 END) "
+      + "FROM tb_registros_operacoes r GROUP BY r.data_operacao, r.plataforma_id, r.conta_id")
+  int recalcularAPartirDosRegistros();
+
+  /**
+   * Mesmo resumo de RegistroOperacaoRepository, mas lido do agregado: algumas
+   * linhas por dia em vez do livro inteiro. Filtros null são ignorados.
+   */
+  @Query("SELECT new com.thomaskavi.lucrabet.dto.SumarioDTO(COALESCE(SUM(a.lucroCentavos), 0), "
+      + "COALESCE(SUM(a.depositoCentavos), 0), COALESCE(SUM(a.quantidadeOperacoes), 0), "
+      + "COALESCE(SUM(a.saquesPendentes), 0)) "
+      + "FROM AgregadoDiario a "
+      + "WHERE (:startDate IS NULL OR a.id.dataOperacao >= :startDate) "
+      + "AND (:endDate IS NULL OR a.id.dataOperacao <= :endDate) "
+      + "AND (:plataformaId IS NULL OR a.id.plataformaId = :plataformaId) "
+      + "AND (:contaId IS NULL OR a.id.contaId = :contaId)")
+  SumarioDTO resumir(LocalDate startDate, LocalDate endDate, Long plataformaId, Long contaId);
+
+  /**
+   * Totais de cada dia do período que tem operações (uma linha por dia, em
+   * ordem cronológica). Plataforma e conta null não filtram.
+   */
+  @Query("SELECT new com.thomaskavi.lucrabet.dto.PontoSerieDTO(a.id.dataOperacao, SUM(a.lucroCentavos), "
+      + "SUM(a.depositoCentavos), SUM(a.quantidadeOperacoes), SUM(a.saquesPendentes)) "
+      + "FROM AgregadoDiario a "
+      + "WHERE a.id.dataOperacao >= :startDate AND a.id.dataOperacao <= :endDate "
+      + "AND (:plataformaId IS NULL OR a.id.plataformaId = :plataformaId) "
+      + "AND (:contaId IS NULL OR a.id.contaId = :contaId) "
+      + "GROUP BY a.id.dataOperacao ORDER BY a.id.dataOperacao")
+  List<PontoSerieDTO> somarPorDia(LocalDate startDate, LocalDate endDate, Long plataformaId, Long contaId);
+
+  // Lucro total agrupado por dia, em ordem cronológica
+  @Query("SELECT new com.thomaskavi.lucrabet.dto.TotalPorDataDTO(a.id.dataOperacao, SUM(a.lucroCentavos)) "
+      + "FROM AgregadoDiario a GROUP BY a.id.dataOperacao ORDER BY a.id.dataOperacao")
+  List<TotalPorDataDTO> somarLucroAgrupadoPorData();
+}
@@ -1,13 +1,27 @@
 package com.thomaskavi.lucrabet.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.thomaskavi.lucrabet.entities.Conta;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ContaRepository extends JpaRepository<Conta, Long> {
+  // Consultas em cache, como em PlataformaRepository
+  @Override
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+  List<Conta> findAll();
+
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   Optional<Conta> findByNomeConta(String nomeConta);
+
+  List<Conta> findByNomeContaIn(Collection<String> nomesContas);
 }
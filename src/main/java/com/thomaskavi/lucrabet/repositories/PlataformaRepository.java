@@ -1,14 +1,29 @@
 package com.thomaskavi.lucrabet.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.thomaskavi.lucrabet.entities.Plataforma;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface PlataformaRepository extends JpaRepository<Plataforma, Long> {
 
+  // Resultados no cache de consultas. O Hibernate descarta os resultados a
+  // cada escrita em tb_plataformas, inclusive as do PlataformaController
+  @Override
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+  List<Plataforma> findAll();
+
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   Optional<Plataforma> findByLinkPlataforma(String linkPlataforma);
+
+  List<Plataforma> findByLinkPlataformaIn(Collection<String> linksPlataforma);
 }
\ No newline at end of file
@@ -2,30 +2,115 @@ package com.thomaskavi.lucrabet.repositories;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
 import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+import com.thomaskavi.lucrabet.entities.Situacao;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface RegistroOperacaoRepository extends JpaRepository<RegistroOperacao, Long> {
-  // Métodos de consulta baseados nas colunas da planilha e associações
+public interface RegistroOperacaoRepository
+    extends JpaRepository<RegistroOperacao, Long>, RegistroOperacaoRepositoryCustom {
+  // Métodos de consulta baseados nas colunas da planilha e associações.
+  //
+  // Todas as listagens são paginadas por keyset sobre (dataOperacao, id): cada
+  // página começa logo após o último registro da página anterior
+  // (cursorData, cursorId), então uma página profunda custa o mesmo que a
+  // primeira, ao contrário de OFFSET. A condição "dataOperacao >= :cursorData"
+  // é redundante, mas deixa o banco usar o índice da data para pular direto
+  // para o cursor.
+  //
+  // As listagens devolvem RegistroOperacaoDTO montado no próprio SELECT, com
+  // plataforma e conta vindas do JOIN: uma página é exatamente uma consulta.
+  // Os JOINs são LEFT (as FKs são obrigatórias, o resultado é o mesmo) para o
+  // H2 não reordená-los: com INNER ele começa pela tabela menor (contas) e
+  // precisa ordenar todos os registros para devolver uma página, enquanto assim
+  // a leitura parte do índice de tb_registros_operacoes, já na ordem do cursor.
+  // Pelo mesmo motivo a plataforma e a conta são filtradas pelo id (o service
+  // resolve o link/nome antes), o que casa com os índices (fk, dataOperacao).
+  // O filtro usa as colunas das FKs mapeadas só para leitura (plataformaId,
+  // contaId): "r.plataforma.id" reaproveitaria o LEFT JOIN e compararia
+  // tb_plataformas.id, sem usar o índice.
+
+  String SELECT_DTO = "SELECT new com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO(r.id, p.id, p.linkPlataforma, "
+      + "c.id, c.nomeConta, r.dataOperacao, r.valorDeposito, r.nomeSlotGiros, r.situacao, r.valorLucro, "
+      + "r.saqueCompletoFeito, r.versao) FROM RegistroOperacao r LEFT JOIN r.plataforma p LEFT JOIN r.conta c ";
+
+  // Um registro pelo id
+  @Query(SELECT_DTO + "WHERE r.id = :id")
+  Optional<RegistroOperacaoDTO> buscarPorId(Long id);
+
+  // Todos os registros
+  @Query(SELECT_DTO
+      + "WHERE r.dataOperacao >= :cursorData AND (r.dataOperacao > :cursorData OR r.id > :cursorId) "
+      + "ORDER BY r.dataOperacao, r.id")
+  List<RegistroOperacaoDTO> buscarPagina(LocalDate cursorData, Long cursorId, Limit limit);
 
   // Consultas por data da operação
-  List<RegistroOperacao> findByDataOperacao(LocalDate dataOperacao);
+  @Query(SELECT_DTO + "WHERE r.dataOperacao = :dataOperacao AND r.id > :cursorId "
+      + "ORDER BY r.id")
+  List<RegistroOperacaoDTO> buscarPaginaPorDataOperacao(LocalDate dataOperacao, Long cursorId, Limit limit);
 
-  List<RegistroOperacao> findByDataOperacaoBetween(LocalDate startDate, LocalDate endDate);
+  @Query(SELECT_DTO + "WHERE r.dataOperacao BETWEEN :startDate AND :endDate "
+      + "AND r.dataOperacao >= :cursorData AND (r.dataOperacao > :cursorData OR r.id > :cursorId) "
+      + "ORDER BY r.dataOperacao, r.id")
+  List<RegistroOperacaoDTO> buscarPaginaPorPeriodo(LocalDate startDate, LocalDate endDate, LocalDate cursorData,
+      Long cursorId, Limit limit);
 
-  // Consulta por link da plataforma (usando a propriedade da entidade associada)
-  List<RegistroOperacao> findByPlataforma_LinkPlataforma(String linkPlataforma);
+  // Consulta por plataforma
+  @Query(SELECT_DTO + "WHERE r.plataformaId = :plataformaId "
+      + "AND r.dataOperacao >= :cursorData AND (r.dataOperacao > :cursorData OR r.id > :cursorId) "
+      + "ORDER BY r.dataOperacao, r.id")
+  List<RegistroOperacaoDTO> buscarPaginaPorPlataforma(Long plataformaId, LocalDate cursorData, Long cursorId,
+      Limit limit);
 
-  // Consulta por nome da conta (usando a propriedade da entidade associada)
-  List<RegistroOperacao> findByConta_NomeConta(String nomeConta);
+  // Consulta por conta
+  @Query(SELECT_DTO + "WHERE r.contaId = :contaId "
+      + "AND r.dataOperacao >= :cursorData AND (r.dataOperacao > :cursorData OR r.id > :cursorId) "
+      + "ORDER BY r.dataOperacao, r.id")
+  List<RegistroOperacaoDTO> buscarPaginaPorConta(Long contaId, LocalDate cursorData, Long cursorId,
+      Limit limit);
 
   // Consulta por situação
-  List<RegistroOperacao> findBySituacao(String situacao);
+  @Query(SELECT_DTO + "WHERE r.situacao = :situacao "
+      + "AND r.dataOperacao >= :cursorData AND (r.dataOperacao > :cursorData OR r.id > :cursorId) "
+      + "ORDER BY r.dataOperacao, r.id")
+  List<RegistroOperacaoDTO> buscarPaginaPorSituacao(Situacao situacao, LocalDate cursorData, Long cursorId,
+      Limit limit);
 
   // Consulta por se o saque foi completo
-  List<RegistroOperacao> findBySaqueCompletoFeito(Boolean saqueCompletoFeito);
-}
\ No newline at end of file
+  @Query(SELECT_DTO + "WHERE r.saqueCompletoFeito = :saqueCompletoFeito "
+      + "AND r.dataOperacao >= :cursorData AND (r.dataOperacao > :cursorData OR r.id > :cursorId) "
+      + "ORDER BY r.dataOperacao, r.id")
+  List<RegistroOperacaoDTO> buscarPaginaPorSaqueCompletoFeito(Boolean saqueCompletoFeito, LocalDate cursorData,
+      Long cursorId, Limit limit);
+
+  /**
+   * Percorre os registros para exportação sem montar uma lista: as linhas são
+   * lidas do cursor JDBC em blocos de "fetch size" à medida que o Stream é
+   * consumido. Como são DTOs, nada fica acumulado no contexto de persistência.
+   * Deve ser usado dentro de uma transação e o Stream fechado ao
+   * final. Filtros null são ignorados.
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query(SELECT_DTO
+      + "WHERE (:startDate IS NULL OR r.dataOperacao >= :startDate) "
+      + "AND (:endDate IS NULL OR r.dataOperacao <= :endDate) "
+      + "AND (:linkPlataforma IS NULL OR p.linkPlataforma = :linkPlataforma) "
+      + "AND (:nomeConta IS NULL OR c.nomeConta = :nomeConta) "
+      + "AND (:situacao IS NULL OR r.situacao = :situacao) "
+      + "AND (:saqueCompletoFeito IS NULL OR r.saqueCompletoFeito = :saqueCompletoFeito) "
+      + "ORDER BY r.dataOperacao, r.id")
+  Stream<RegistroOperacaoDTO> streamParaExportacao(LocalDate startDate, LocalDate endDate, String linkPlataforma,
+      String nomeConta, Situacao situacao, Boolean saqueCompletoFeito);
+}
@@ -0,0 +1,21 @@
+package com.thomaskavi.lucrabet.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+
+// Consultas montadas com a Criteria API (implementadas em
+// RegistroOperacaoRepositoryImpl)
+public interface RegistroOperacaoRepositoryCustom {
+
+  /**
+   * Registros que atendem ao filtro, já como DTO (com plataforma e conta do
+   * JOIN), na ordem pedida e até o limite, em uma única consulta.
+   */
+  List<RegistroOperacaoDTO> buscar(Specification<RegistroOperacao> filtro, Sort ordem, Limit limite);
+}
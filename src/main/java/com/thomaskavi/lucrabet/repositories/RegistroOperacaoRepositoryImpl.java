@@ -0,0 +1,52 @@
+package com.thomaskavi.lucrabet.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.entities.Conta;
+import com.thomaskavi.lucrabet.entities.Plataforma;
+import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Equivalente em Criteria do RegistroOperacaoRepository.SELECT_DTO: o DTO é
+ * montado no SELECT e os JOINs são LEFT pelo mesmo motivo (o H2 mantém a
+ * leitura partindo do índice de tb_registros_operacoes).
+ */
+class RegistroOperacaoRepositoryImpl implements RegistroOperacaoRepositoryCustom {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<RegistroOperacaoDTO> buscar(Specification<RegistroOperacao> filtro, Sort ordem, Limit limite) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<RegistroOperacaoDTO> query = cb.createQuery(RegistroOperacaoDTO.class);
+    Root<RegistroOperacao> r = query.from(RegistroOperacao.class);
+    Join<RegistroOperacao, Plataforma> p = r.join("plataforma", JoinType.LEFT);
+    Join<RegistroOperacao, Conta> c = r.join("conta", JoinType.LEFT);
+    query.select(cb.construct(RegistroOperacaoDTO.class, r.get("id"), p.get("id"), p.get("linkPlataforma"),
+        c.get("id"), c.get("nomeConta"), r.get("dataOperacao"), r.get("valorDeposito"), r.get("nomeSlotGiros"),
+        r.get("situacao"), r.get("valorLucro"), r.get("saqueCompletoFeito"), r.get("versao")));
+
+    Predicate condicao = filtro.toPredicate(r, query, cb);
+    if (condicao != null) {
+      query.where(condicao);
+    }
+    query.orderBy(QueryUtils.toOrders(ordem, r, cb));
+    return entityManager.createQuery(query).setMaxResults(limite.max()).getResultList();
+  }
+}
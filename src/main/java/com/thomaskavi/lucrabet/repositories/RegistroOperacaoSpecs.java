@@ -0,0 +1,77 @@
+package com.thomaskavi.lucrabet.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+import com.thomaskavi.lucrabet.entities.Situacao;
+
+/**
+ * Filtros de RegistroOperacao combináveis (Specification.allOf) para a busca
+ * com vários critérios. Como nas consultas do RegistroOperacaoRepository, a
+ * plataforma e a conta são filtradas pelas colunas das FKs (plataformaId,
+ * contaId) e não pelo JOIN, para casar com os índices (fk, dataOperacao).
+ */
+public final class RegistroOperacaoSpecs {
+
+  private RegistroOperacaoSpecs() {
+  }
+
+  public static Specification<RegistroOperacao> daPlataforma(Long plataformaId) {
+    return (r, q, cb) -> cb.equal(r.get("plataformaId"), plataformaId);
+  }
+
+  public static Specification<RegistroOperacao> daConta(Long contaId) {
+    return (r, q, cb) -> cb.equal(r.get("contaId"), contaId);
+  }
+
+  public static Specification<RegistroOperacao> aPartirDe(LocalDate data) {
+    return (r, q, cb) -> cb.greaterThanOrEqualTo(r.get("dataOperacao"), data);
+  }
+
+  public static Specification<RegistroOperacao> ate(LocalDate data) {
+    return (r, q, cb) -> cb.lessThanOrEqualTo(r.get("dataOperacao"), data);
+  }
+
+  public static Specification<RegistroOperacao> comSituacao(Situacao situacao) {
+    return (r, q, cb) -> cb.equal(r.get("situacao"), situacao);
+  }
+
+  public static Specification<RegistroOperacao> comSaqueCompletoFeito(Boolean saqueCompletoFeito) {
+    return (r, q, cb) -> cb.equal(r.get("saqueCompletoFeito"), saqueCompletoFeito);
+  }
+
+  // Slot que contém o texto, sem diferenciar maiúsculas de minúsculas
+  public static Specification<RegistroOperacao> slotContem(String texto) {
+    String padrao = "%" + texto.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    return (r, q, cb) -> cb.like(cb.lower(r.get("nomeSlotGiros")), padrao, '\\');
+  }
+
+  public static Specification<RegistroOperacao> lucroMinimo(BigDecimal valor) {
+    return (r, q, cb) -> cb.greaterThanOrEqualTo(r.get("valorLucro"), valor);
+  }
+
+  public static Specification<RegistroOperacao> lucroMaximo(BigDecimal valor) {
+    return (r, q, cb) -> cb.lessThanOrEqualTo(r.get("valorLucro"), valor);
+  }
+
+  /**
+   * Keyset: registros depois de (valor, id) na ordem de "campo" seguido do id,
+   * crescente ou decrescente. O "campo >= valor" (ou "<=") é redundante, mas
+   * deixa o banco começar a leitura do índice já no cursor.
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  public static Specification<RegistroOperacao> depoisDe(String campo, Comparable valor, Long id,
+      boolean crescente) {
+    return (r, q, cb) -> {
+      if (crescente) {
+        return cb.and(cb.greaterThanOrEqualTo(r.get(campo), valor),
+            cb.or(cb.greaterThan(r.get(campo), valor), cb.greaterThan(r.get("id"), id)));
+      }
+      return cb.and(cb.lessThanOrEqualTo(r.get(campo), valor),
+          cb.or(cb.lessThan(r.get(campo), valor), cb.lessThan(r.get("id"), id)));
+    };
+  }
+}
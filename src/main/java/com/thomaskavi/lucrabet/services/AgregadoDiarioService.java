@@ -0,0 +1,318 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.thomaskavi.lucrabet.dto.PontoSerieDTO;
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.dto.SumarioDTO;
+import com.thomaskavi.lucrabet.dto.TotalPorDataDTO;
+import com.thomaskavi.lucrabet.entities.AgregadoDiarioPK;
+import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+import com.thomaskavi.lucrabet.repositories.AgregadoDiarioRepository;
+import com.thomaskavi.lucrabet.util.Centavos;
+import com.thomaskavi.lucrabet.util.TotaisCentavos;
+
+/**
+ * Mantém a tabela tb_agregados_diarios, com os totais por (dia, plataforma,
+ * conta). As consultas de totais leem essa tabela em vez de varrer
+ * tb_registros_operacoes.
+ */
+@Service
+public class AgregadoDiarioService {
+
+  /**
+   * Soma (ou subtrai, com valores negativos) um delta na linha do agregado.
+   * Se a linha ainda não existir ela é criada, tudo em um único MERGE.
+   */
+  private static final String SQL_APLICAR_DELTA = "MERGE INTO tb_agregados_diarios a "
+      + "USING (SELECT CAST(:dataOperacao AS DATE) data_operacao, CAST(:plataformaId AS BIGINT) plataforma_id, "
+      + "CAST(:contaId AS BIGINT) conta_id, CAST(:lucro AS BIGINT) lucro, "
+      + "CAST(:deposito AS BIGINT) deposito, CAST(:quantidade AS BIGINT) quantidade, "
+      + "CAST(:saquesPendentes AS BIGINT) saques_pendentes) d "
+      + "ON (a.data_operacao = d.data_operacao AND a.plataforma_id = d.plataforma_id AND a.conta_id = d.conta_id) "
+      + "WHEN MATCHED THEN UPDATE SET a.lucro_centavos = a.lucro_centavos + d.lucro, "
+      + "a.deposito_centavos = a.deposito_centavos + d.deposito, "
+      + "a.quantidade_operacoes = a.quantidade_operacoes + d.quantidade, "
+      + "a.saques_pendentes = a.saques_pendentes + d.saques_pendentes "
+      + "WHEN NOT MATCHED THEN INSERT (data_operacao, plataforma_id, conta_id, lucro_centavos, deposito_centavos, "
+      + "quantidade_operacoes, saques_pendentes) "
+      + "VALUES (d.data_operacao, d.plataforma_id, d.conta_id, d.lucro, d.deposito, d.quantidade, d.saques_pendentes)";
+
+  // Limite de pontos de uma série (10 anos por dia)
+  public static final int MAXIMO_PONTOS_SERIE = 3660;
+
+  // Tamanho dos períodos de uma série temporal
+  public enum Granularidade {
+    DIA, SEMANA, MES;
+
+    // Primeiro dia do período que contém a data (semanas começam na segunda)
+    public LocalDate inicioDoPeriodo(LocalDate data) {
+      return switch (this) {
+        case DIA -> data;
+        case SEMANA -> data.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        case MES -> data.withDayOfMonth(1);
+      };
+    }
+
+    public LocalDate proximoPeriodo(LocalDate inicio) {
+      return switch (this) {
+        case DIA -> inicio.plusDays(1);
+        case SEMANA -> inicio.plusWeeks(1);
+        case MES -> inicio.plusMonths(1);
+      };
+    }
+
+    private ChronoUnit unidade() {
+      return switch (this) {
+        case DIA -> ChronoUnit.DAYS;
+        case SEMANA -> ChronoUnit.WEEKS;
+        case MES -> ChronoUnit.MONTHS;
+      };
+    }
+
+    // Converte o parâmetro da requisição ("dia", "semana", "mes"), sem
+    // diferenciar maiúsculas de minúsculas
+    public static Granularidade de(String valor) {
+      for (Granularidade granularidade : values()) {
+        if (granularidade.name().equalsIgnoreCase(valor)) {
+          return granularidade;
+        }
+      }
+      throw new IllegalArgumentException("Granularidade inválida: " + valor);
+    }
+  }
+
+  @Autowired
+  private AgregadoDiarioRepository agregadoDiarioRepository;
+
+  @Autowired
+  private NamedParameterJdbcTemplate jdbcTemplate;
+
+  /**
+   * Soma um registro recém-salvo no agregado. Deve ser chamado dentro da
+   * transação que grava o registro.
+   */
+  @Transactional
+  public void adicionar(RegistroOperacao registro) {
+    aplicar(registro.getDataOperacao(), registro.getPlataforma().getId(), registro.getConta().getId(),
+        registro.getValorLucro(), registro.getValorDeposito(), registro.getSaqueCompletoFeito(), 1);
+  }
+
+  /**
+   * Subtrai do agregado os valores de um registro (antes de uma atualização ou
+   * exclusão). Deve ser chamado dentro da transação que altera o registro.
+   */
+  @Transactional
+  public void remover(RegistroOperacaoDTO registro) {
+    aplicar(registro.getDataOperacao(), registro.getPlataformaId(), registro.getContaId(), registro.getValorLucro(),
+        registro.getValorDeposito(), registro.getSaqueCompletoFeito(), -1);
+    agregadoDiarioRepository.removerSeVazio(registro.getDataOperacao(), registro.getPlataformaId(),
+        registro.getContaId());
+  }
+
+  /**
+   * Troca no agregado os valores antigos de um registro pelos novos. Se o dia,
+   * a plataforma e a conta não mudaram, a diferença vai em um único MERGE (a
+   * quantidade da linha não muda, então ela não pode ficar vazia); senão, é o
+   * mesmo que remover e somar.
+   */
+  @Transactional
+  public void substituir(RegistroOperacaoDTO anterior, RegistroOperacaoDTO novo) {
+    AgregadoDiarioPK chave = new AgregadoDiarioPK(novo.getDataOperacao(), novo.getPlataformaId(), novo.getContaId());
+    if (!chave.equals(new AgregadoDiarioPK(anterior.getDataOperacao(), anterior.getPlataformaId(),
+        anterior.getContaId()))) {
+      remover(anterior);
+      aplicar(novo.getDataOperacao(), novo.getPlataformaId(), novo.getContaId(), novo.getValorLucro(),
+          novo.getValorDeposito(), novo.getSaqueCompletoFeito(), 1);
+      return;
+    }
+    TotaisCentavos delta = new TotaisCentavos();
+    delta.adicionar(Centavos.de(anterior.getValorLucro()), Centavos.de(anterior.getValorDeposito()),
+        Boolean.TRUE.equals(anterior.getSaqueCompletoFeito()), -1);
+    delta.adicionar(Centavos.de(novo.getValorLucro()), Centavos.de(novo.getValorDeposito()),
+        Boolean.TRUE.equals(novo.getSaqueCompletoFeito()), 1);
+    if (delta.getLucro() != 0 || delta.getDeposito() != 0 || delta.getSaquesPendentes() != 0) {
+      aplicarDelta(parametrosDelta(chave, delta));
+    }
+  }
+
+  /**
+   * Soma um lote de registros recém-salvos no agregado: os deltas são somados
+   * em memória, em centavos, por (dia, plataforma, conta) e enviados em um
+   * único lote JDBC de MERGEs.
+   */
+  @Transactional
+  public void adicionarLote(List<RegistroOperacao> registros) {
+    Map<AgregadoDiarioPK, TotaisCentavos> deltas = new HashMap<>();
+    for (RegistroOperacao registro : registros) {
+      AgregadoDiarioPK chave = new AgregadoDiarioPK(registro.getDataOperacao(), registro.getPlataforma().getId(),
+          registro.getConta().getId());
+      deltas.computeIfAbsent(chave, k -> new TotaisCentavos()).adicionar(Centavos.de(registro.getValorLucro()),
+          Centavos.de(registro.getValorDeposito()), Boolean.TRUE.equals(registro.getSaqueCompletoFeito()), 1);
+    }
+
+    enviarDeltas(deltas);
+  }
+
+  /**
+   * Versão em lote do substituir, para alterações em massa que não mudam o
+   * dia, a plataforma nem a conta dos registros (anteriores e novos na mesma
+   * ordem): só as diferenças vão para o banco, um MERGE por chave afetada.
+   */
+  @Transactional
+  public void substituirLote(List<RegistroOperacaoDTO> anteriores, List<RegistroOperacaoDTO> novos) {
+    Map<AgregadoDiarioPK, TotaisCentavos> deltas = new HashMap<>();
+    for (int i = 0; i < novos.size(); i++) {
+      RegistroOperacaoDTO anterior = anteriores.get(i);
+      RegistroOperacaoDTO novo = novos.get(i);
+      TotaisCentavos delta = deltas.computeIfAbsent(
+          new AgregadoDiarioPK(novo.getDataOperacao(), novo.getPlataformaId(), novo.getContaId()),
+          k -> new TotaisCentavos());
+      delta.adicionar(Centavos.de(anterior.getValorLucro()), Centavos.de(anterior.getValorDeposito()),
+          Boolean.TRUE.equals(anterior.getSaqueCompletoFeito()), -1);
+      delta.adicionar(Centavos.de(novo.getValorLucro()), Centavos.de(novo.getValorDeposito()),
+          Boolean.TRUE.equals(novo.getSaqueCompletoFeito()), 1);
+    }
+    deltas.values().removeIf(d -> d.getLucro() == 0 && d.getDeposito() == 0 && d.getSaquesPendentes() == 0);
+    if (!deltas.isEmpty()) {
+      enviarDeltas(deltas);
+    }
+  }
+
+  // Envia os deltas em um único lote JDBC de MERGEs
+  private void enviarDeltas(Map<AgregadoDiarioPK, TotaisCentavos> deltas) {
+    List<MapSqlParameterSource> parametros = new ArrayList<>(deltas.size());
+    for (Map.Entry<AgregadoDiarioPK, TotaisCentavos> delta : deltas.entrySet()) {
+      parametros.add(parametrosDelta(delta.getKey(), delta.getValue()));
+    }
+    MapSqlParameterSource[] lote = parametros.toArray(new MapSqlParameterSource[0]);
+    try {
+      jdbcTemplate.batchUpdate(SQL_APLICAR_DELTA, lote);
+    } catch (DuplicateKeyException e) {
+      // O H2 executa o lote inteiro e marca os comandos que falharam: só eles
+      // são repetidos
+      if (!(e.getCause() instanceof BatchUpdateException falha)) {
+        throw e;
+      }
+      int[] resultados = falha.getUpdateCounts();
+      for (int i = 0; i < lote.length; i++) {
+        if (i >= resultados.length || resultados[i] == Statement.EXECUTE_FAILED) {
+          aplicarDelta(lote[i]);
+        }
+      }
+    }
+  }
+
+  private void aplicar(LocalDate dataOperacao, Long plataformaId, Long contaId, BigDecimal valorLucro,
+      BigDecimal valorDeposito, Boolean saqueCompletoFeito, int sinal) {
+    TotaisCentavos delta = new TotaisCentavos();
+    delta.adicionar(Centavos.de(valorLucro), Centavos.de(valorDeposito), Boolean.TRUE.equals(saqueCompletoFeito),
+        sinal);
+    aplicarDelta(parametrosDelta(new AgregadoDiarioPK(dataOperacao, plataformaId, contaId), delta));
+  }
+
+  private MapSqlParameterSource parametrosDelta(AgregadoDiarioPK chave, TotaisCentavos delta) {
+    return new MapSqlParameterSource()
+        .addValue("dataOperacao", chave.getDataOperacao())
+        .addValue("plataformaId", chave.getPlataformaId())
+        .addValue("contaId", chave.getContaId())
+        .addValue("lucro", delta.getLucro())
+        .addValue("deposito", delta.getDeposito())
+        .addValue("quantidade", delta.getQuantidadeOperacoes())
+        .addValue("saquesPendentes", delta.getSaquesPendentes());
+  }
+
+  /**
+   * Executa o MERGE de um delta. Se duas transações criarem a mesma chave ao
+   * mesmo tempo, as duas podem cair no INSERT e a segunda recebe uma violação de
+   * chave primária; nesse momento a linha já existe, então repetir o MERGE cai
+   * no UPDATE. O comando vai pelo JdbcTemplate (e não pelo repositório) para que
+   * essa falha não marque a transação inteira para rollback.
+   */
+  private void aplicarDelta(MapSqlParameterSource parametros) {
+    try {
+      jdbcTemplate.update(SQL_APLICAR_DELTA, parametros);
+    } catch (DuplicateKeyException e) {
+      jdbcTemplate.update(SQL_APLICAR_DELTA, parametros);
+    }
+  }
+
+  /**
+   * Descarta o agregado e o recalcula a partir de tb_registros_operacoes.
+   * Também roda na inicialização (CargaInicialService), já que o import.sql
+   * grava os registros diretamente no banco.
+   *
+   * @return A quantidade de linhas do agregado após a reconstrução.
+   */
+  @Transactional
+  public int reconstruir() {
+    agregadoDiarioRepository.deleteAllInBatch();
+    return agregadoDiarioRepository.recalcularAPartirDosRegistros();
+  }
+
+  // Resumo de um período a partir do agregado (filtros null = sem filtro)
+  @Transactional(readOnly = true)
+  public SumarioDTO resumir(LocalDate startDate, LocalDate endDate, Long plataformaId, Long contaId) {
+    return agregadoDiarioRepository.resumir(startDate, endDate, plataformaId, contaId);
+  }
+
+  /**
+   * Série temporal do período: um ponto por dia, semana ou mês, em ordem
+   * cronológica e sem lacunas (períodos sem operações vêm zerados). O banco
+   * devolve no máximo uma linha por dia e os dias são somados nos seus
+   * períodos aqui, então o custo depende do tamanho do período e não da
+   * quantidade de registros. O primeiro e o último ponto só somam os dias
+   * que estão dentro de [startDate, endDate].
+   */
+  @Transactional(readOnly = true)
+  public List<PontoSerieDTO> serie(LocalDate startDate, LocalDate endDate, Granularidade granularidade,
+      Long plataformaId, Long contaId) {
+    if (startDate.isAfter(endDate)) {
+      throw new IllegalArgumentException("startDate deve ser anterior ou igual a endDate");
+    }
+    LocalDate primeiro = granularidade.inicioDoPeriodo(startDate);
+    LocalDate ultimo = granularidade.inicioDoPeriodo(endDate);
+    if (granularidade.unidade().between(primeiro, ultimo) >= MAXIMO_PONTOS_SERIE) {
+      throw new IllegalArgumentException("A série teria mais de " + MAXIMO_PONTOS_SERIE + " pontos");
+    }
+
+    List<PontoSerieDTO> dias = agregadoDiarioRepository.somarPorDia(startDate, endDate, plataformaId, contaId);
+    List<PontoSerieDTO> serie = new ArrayList<>();
+    int dia = 0;
+    for (LocalDate inicio = primeiro; !inicio.isAfter(ultimo); inicio = granularidade.proximoPeriodo(inicio)) {
+      LocalDate proximo = granularidade.proximoPeriodo(inicio);
+      TotaisCentavos totais = new TotaisCentavos();
+      // Os dias vêm ordenados: consome os que caem neste período
+      while (dia < dias.size() && dias.get(dia).getInicio().isBefore(proximo)) {
+        SumarioDTO doDia = dias.get(dia++).getTotais();
+        totais.somar(doDia.getLucroCentavos(), doDia.getDepositoCentavos(), doDia.getQuantidadeOperacoes(),
+            doDia.getSaquesPendentes());
+      }
+      serie.add(new PontoSerieDTO(inicio, totais.paraSumario()));
+    }
+    return serie;
+  }
+
+  // Lucro total por dia, em ordem cronológica
+  @Transactional(readOnly = true)
+  public List<TotalPorDataDTO> somarLucroAgrupadoPorData() {
+    return agregadoDiarioRepository.somarLucroAgrupadoPorData();
+  }
+}
@@ -0,0 +1,570 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.thomaskavi.lucrabet.dto.DesempenhoSlotDTO;
+import com.thomaskavi.lucrabet.dto.FiltroRegistroDTO;
+import com.thomaskavi.lucrabet.dto.GrupoAnaliticoDTO;
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.dto.ResultadoAnaliticoDTO;
+import com.thomaskavi.lucrabet.dto.SumarioDTO;
+import com.thomaskavi.lucrabet.entities.Conta;
+import com.thomaskavi.lucrabet.entities.Plataforma;
+import com.thomaskavi.lucrabet.entities.Situacao;
+import com.thomaskavi.lucrabet.events.CadastroAlteradoEvent;
+import com.thomaskavi.lucrabet.events.RegistrosAlteradosEvent;
+import com.thomaskavi.lucrabet.util.Centavos;
+import com.thomaskavi.lucrabet.util.TotaisCentavos;
+
+/**
+ * Consultas analíticas (filtro + agrupamento) sobre uma cópia colunar do livro
+ * de operações mantida em memória (LivroColunar).
+ *
+ * A cópia é carregada do banco quando a aplicação sobe e depois acompanha as
+ * escritas pelos eventos publicados pelo RegistroOperacaoService e pela
+ * importação, aplicados só após o commit. As consultas dividem as linhas em
+ * blocos processados em paralelo e somam direto dos arrays primitivos, sem
+ * Hibernate nem ida ao banco.
+ */
+@Service
+public class AnaliticoService {
+
+  public enum Dimensao {
+    PLATAFORMA("plataforma"),
+    CONTA("conta"),
+    SITUACAO("situacao"),
+    SLOT("slot"),
+    SAQUE("saqueCompletoFeito"),
+    DIA("dia"),
+    SEMANA("semana"),
+    MES("mes");
+
+    private final String chave;
+
+    Dimensao(String chave) {
+      this.chave = chave;
+    }
+
+    public String getChave() {
+      return chave;
+    }
+
+    // Converte o parâmetro da requisição ("plataforma", "semana"...), sem
+    // diferenciar maiúsculas de minúsculas
+    public static Dimensao de(String valor) {
+      for (Dimensao dimensao : values()) {
+        if (dimensao.chave.equalsIgnoreCase(valor) || dimensao.name().equalsIgnoreCase(valor)) {
+          return dimensao;
+        }
+      }
+      throw new IllegalArgumentException("Dimensão de agrupamento inválida: " + valor);
+    }
+  }
+
+  // Critério do ranking de slots, sempre do maior para o menor
+  public enum OrdemSlot {
+    ROI("roi"),
+    LUCRO_LIQUIDO("lucroLiquido"),
+    LUCRO("lucro"),
+    DEPOSITO("deposito"),
+    QUANTIDADE("quantidade"),
+    MEDIANA("mediana");
+
+    private final String chave;
+
+    OrdemSlot(String chave) {
+      this.chave = chave;
+    }
+
+    public static OrdemSlot de(String valor) {
+      for (OrdemSlot ordem : values()) {
+        if (ordem.chave.equalsIgnoreCase(valor) || ordem.name().equalsIgnoreCase(valor)) {
+          return ordem;
+        }
+      }
+      throw new IllegalArgumentException("Ordenação de slots inválida: " + valor);
+    }
+  }
+
+  public static final int MAXIMO_SLOTS = 500;
+
+  // Percentis do lucro por operação devolvidos no desempenho de cada slot
+  private static final double[] PERCENTIS = { 0.10, 0.25, 0.50, 0.75, 0.90 };
+
+  // A chave de um grupo é um long com o código de cada dimensão em 21 bits
+  public static final int MAXIMO_DIMENSOES = 3;
+  private static final int BITS_POR_DIMENSAO = 21;
+  private static final long MASCARA_DIMENSAO = (1L << BITS_POR_DIMENSAO) - 1;
+
+  // Soma aplicada aos epoch-days (e semanas) para que o código nunca seja
+  // negativo
+  private static final int DESLOCAMENTO_DIA = 1 << 20;
+
+  // Linhas por tarefa paralela (bem abaixo de Centavos.BLOCO_SEM_OVERFLOW, o
+  // que permite somar um bloco sem verificar overflow a cada linha)
+  private static final int LINHAS_POR_BLOCO = 16_384;
+
+  private static final String SQL_CARGA = "SELECT r.id, r.plataforma_id, p.link_plataforma, r.conta_id, "
+      + "c.nome_conta, r.data_operacao, r.valor_deposito, r.nome_slot_giros, r.situacao, r.valor_lucro, "
+      + "r.saque_completo_feito FROM tb_registros_operacoes r "
+      + "JOIN tb_plataformas p ON p.id = r.plataforma_id JOIN tb_contas c ON c.id = r.conta_id";
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlataformaService plataformaService;
+
+  @Autowired
+  private ContaService contaService;
+
+  // Consultas leem em paralelo; eventos e carga escrevem com exclusividade
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final LivroColunar livro = new LivroColunar();
+
+  // Falso até a primeira carga (CargaInicialService, antes de o servidor web
+  // subir) terminar; antes disso o RegistroOperacaoService responde pelo
+  // agregado diário
+  private volatile boolean pronto;
+
+  // Filtro já traduzido para os códigos do livro (-1 = sem filtro)
+  private static class Filtro {
+    int diaInicio = Integer.MIN_VALUE;
+    int diaFim = Integer.MAX_VALUE;
+    int plataforma = -1;
+    int conta = -1;
+    int situacao = -1;
+    int saque = -1;
+    // Algum filtro usa um valor que não existe no livro: resultado vazio
+    boolean vazio;
+  }
+
+  public void carregar() {
+    lock.writeLock().lock();
+    try {
+      jdbcTemplate.query(SQL_CARGA, rs -> {
+        livro.gravar(new RegistroOperacaoDTO(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getLong(4),
+            rs.getString(5), rs.getObject(6, LocalDate.class), rs.getBigDecimal(7), rs.getString(8),
+            Situacao.doCodigo(rs.getShort(9)), rs.getBigDecimal(10), rs.getBoolean(11)));
+      });
+      pronto = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // Antes dos demais ouvintes (versão dos dados, cache de agregados), que
+  // supõem a cópia já atualizada
+  @TransactionalEventListener
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public void aoAlterarRegistros(RegistrosAlteradosEvent evento) {
+    lock.writeLock().lock();
+    try {
+      evento.getGravados().forEach(livro::gravar);
+      evento.getRemovidos().forEach(livro::remover);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // As alterações de cadastro não rodam em transação (fallbackExecution)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void aoAlterarCadastro(CadastroAlteradoEvent evento) {
+    if (evento.getNome() == null) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      Map<Long, String> nomes = evento.getTipo() == CadastroAlteradoEvent.Tipo.PLATAFORMA
+          ? livro.nomesPlataformas
+          : livro.nomesContas;
+      nomes.replace(evento.getId(), evento.getNome());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public boolean isPronto() {
+    return pronto;
+  }
+
+  /**
+   * Totais de um período, opcionalmente de uma plataforma e/ou conta (ids).
+   * Parâmetros null não filtram.
+   */
+  public SumarioDTO resumir(LocalDate startDate, LocalDate endDate, Long plataformaId, Long contaId) {
+    lock.readLock().lock();
+    try {
+      Filtro filtro = new Filtro();
+      aplicarPeriodo(filtro, startDate, endDate);
+      filtro.plataforma = codigoFiltro(filtro, livro.dicionarioPlataformas, plataformaId);
+      filtro.conta = codigoFiltro(filtro, livro.dicionarioContas, contaId);
+      TotaisCentavos totais = agregar(filtro, new Dimensao[0]).get(0L);
+      return totais == null ? SumarioDTO.vazio() : totais.paraSumario();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Filtra o livro e agrupa os totais por até MAXIMO_DIMENSOES dimensões. Sem
+   * dimensões, devolve um único grupo com os totais do filtro.
+   */
+  public ResultadoAnaliticoDTO consultar(List<Dimensao> agruparPor, FiltroRegistroDTO filtroRegistro) {
+    if (agruparPor.size() > MAXIMO_DIMENSOES) {
+      throw new IllegalArgumentException("No máximo " + MAXIMO_DIMENSOES + " dimensões de agrupamento");
+    }
+    Dimensao[] dimensoes = agruparPor.toArray(new Dimensao[0]);
+
+    // Link/nome são resolvidos para o id fora do lock (pode ir ao banco)
+    Long plataformaId = null;
+    if (filtroRegistro.getLinkPlataforma() != null) {
+      plataformaId = plataformaService.findByLinkPlataforma(filtroRegistro.getLinkPlataforma())
+          .map(Plataforma::getId).orElse(-1L);
+    }
+    Long contaId = null;
+    if (filtroRegistro.getNomeConta() != null) {
+      contaId = contaService.findByNomeConta(filtroRegistro.getNomeConta()).map(Conta::getId).orElse(-1L);
+    }
+
+    long inicio = System.nanoTime();
+    lock.readLock().lock();
+    try {
+      Filtro filtro = new Filtro();
+      aplicarPeriodo(filtro, filtroRegistro.getStartDate(), filtroRegistro.getEndDate());
+      filtro.plataforma = codigoFiltro(filtro, livro.dicionarioPlataformas, plataformaId);
+      filtro.conta = codigoFiltro(filtro, livro.dicionarioContas, contaId);
+      Optional<Situacao> situacao = Situacao.porTexto(filtroRegistro.getSituacao());
+      if (filtroRegistro.getSituacao() != null && situacao.isEmpty()) {
+        filtro.vazio = true;
+      }
+      filtro.situacao = codigoFiltro(filtro, livro.dicionarioSituacoes, situacao.orElse(null));
+      if (filtroRegistro.getSaqueCompletoFeito() != null) {
+        filtro.saque = filtroRegistro.getSaqueCompletoFeito() ? 1 : 0;
+      }
+
+      List<GrupoAnaliticoDTO> grupos = new ArrayList<>();
+      for (Map.Entry<Long, TotaisCentavos> grupo : agregar(filtro, dimensoes).entrySet()) {
+        grupos.add(new GrupoAnaliticoDTO(rotular(grupo.getKey(), dimensoes), grupo.getValue().paraSumario()));
+      }
+      grupos.sort(ORDEM_DOS_GRUPOS);
+      return new ResultadoAnaliticoDTO(grupos, (System.nanoTime() - inicio) / 1_000);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Ranking dos slots pelo critério pedido (maior primeiro), só com os que têm
+   * pelo menos minimoOperacoes operações. Com busca, só os slots cujo nome a
+   * contém (mesma regra das sugestões). Os totais e percentis são mantidos
+   * por slot a cada escrita, então o custo não depende do número de operações.
+   */
+  public List<DesempenhoSlotDTO> desempenhoSlots(String busca, OrdemSlot ordem, long minimoOperacoes, int limite) {
+    validarLimite(limite);
+    lock.readLock().lock();
+    try {
+      List<LivroColunar.EstatisticaSlot> estatisticas = livro.estatisticasSlots;
+      Comparator<Integer> melhor = Comparator.comparing(estatisticas::get, comparadorSlots(ordem));
+      PriorityQueue<Integer> melhores = new PriorityQueue<>(melhor);
+      IntConsumer candidato = codigo -> {
+        if (estatisticas.get(codigo).totais.getQuantidadeOperacoes() >= Math.max(minimoOperacoes, 1)) {
+          manterMelhores(melhores, codigo, limite);
+        }
+      };
+      if (busca == null) {
+        for (int codigo = 0; codigo < estatisticas.size(); codigo++) {
+          if (estatisticas.get(codigo) != null) {
+            candidato.accept(codigo);
+          }
+        }
+      } else {
+        livro.indiceSlots.buscar(busca, candidato);
+      }
+
+      List<DesempenhoSlotDTO> ranking = new ArrayList<>();
+      for (Integer codigo : ordenar(melhores, melhor)) {
+        ranking.add(paraDesempenho(livro.dicionarioSlots.valor(codigo), estatisticas.get(codigo)));
+      }
+      return ranking;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Nomes de slot para autocompletar: o texto no início de uma palavra do nome
+   * ("tig" → "Fortune Tiger") ou, com 3 ou mais caracteres, em qualquer
+   * posição, sem diferenciar maiúsculas nem acentos. Os mais usados primeiro.
+   */
+  public List<String> sugerirSlots(String texto, int limite) {
+    validarLimite(limite);
+    lock.readLock().lock();
+    try {
+      Comparator<Integer> maisUsado = Comparator
+          .comparingLong((Integer codigo) -> livro.estatisticasSlots.get(codigo).totais.getQuantidadeOperacoes())
+          .thenComparing(livro.dicionarioSlots::valor, Comparator.reverseOrder());
+      PriorityQueue<Integer> melhores = new PriorityQueue<>(maisUsado);
+      livro.indiceSlots.buscar(texto, codigo -> manterMelhores(melhores, codigo, limite));
+      return ordenar(melhores, maisUsado).stream().map(livro.dicionarioSlots::valor).toList();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static void validarLimite(int limite) {
+    if (limite < 1 || limite > MAXIMO_SLOTS) {
+      throw new IllegalArgumentException("O limite deve estar entre 1 e " + MAXIMO_SLOTS);
+    }
+  }
+
+  // A fila mantém os "limite" melhores com o pior na cabeça
+  private static void manterMelhores(PriorityQueue<Integer> melhores, int codigo, int limite) {
+    melhores.add(codigo);
+    if (melhores.size() > limite) {
+      melhores.poll();
+    }
+  }
+
+  private static List<Integer> ordenar(PriorityQueue<Integer> melhores, Comparator<Integer> melhor) {
+    List<Integer> codigos = new ArrayList<>(melhores);
+    codigos.sort(melhor.reversed());
+    return codigos;
+  }
+
+  private static Comparator<LivroColunar.EstatisticaSlot> comparadorSlots(OrdemSlot ordem) {
+    return switch (ordem) {
+      // Sem depósito não há ROI: esses slots ficam por último
+      case ROI -> Comparator.comparing(AnaliticoService::roi, Comparator.nullsFirst(Comparator.naturalOrder()));
+      case LUCRO_LIQUIDO -> Comparator.comparingLong(e -> e.totais.getLucro() - e.totais.getDeposito());
+      case LUCRO -> Comparator.comparingLong(e -> e.totais.getLucro());
+      case DEPOSITO -> Comparator.comparingLong(e -> e.totais.getDeposito());
+      case QUANTIDADE -> Comparator.comparingLong(e -> e.totais.getQuantidadeOperacoes());
+      case MEDIANA -> Comparator.comparingLong(e -> e.lucros.quantil(0.5));
+    };
+  }
+
+  private static Double roi(LivroColunar.EstatisticaSlot estatistica) {
+    long deposito = estatistica.totais.getDeposito();
+    return deposito == 0 ? null : (double) (estatistica.totais.getLucro() - deposito) / deposito;
+  }
+
+  private static DesempenhoSlotDTO paraDesempenho(String nome, LivroColunar.EstatisticaSlot estatistica) {
+    TotaisCentavos totais = estatistica.totais;
+    BigDecimal roi = null;
+    if (totais.getDeposito() != 0) {
+      roi = BigDecimal.valueOf(Math.subtractExact(totais.getLucro(), totais.getDeposito()))
+          .divide(BigDecimal.valueOf(totais.getDeposito()), 4, RoundingMode.HALF_EVEN);
+    }
+    Map<String, BigDecimal> percentis = new LinkedHashMap<>();
+    for (double percentil : PERCENTIS) {
+      percentis.put("p" + Math.round(percentil * 100), Centavos.paraDecimal(estatistica.lucros.quantil(percentil)));
+    }
+    return new DesempenhoSlotDTO(nome, totais.paraSumario(), roi, percentis);
+  }
+
+  // Ordena pelos valores da chave, dimensão a dimensão (datas em ISO ordenam
+  // cronologicamente)
+  private static final Comparator<GrupoAnaliticoDTO> ORDEM_DOS_GRUPOS = (a, b) -> {
+    List<String> chaveA = new ArrayList<>(a.getChave().values());
+    List<String> chaveB = new ArrayList<>(b.getChave().values());
+    Comparator<String> ordem = Comparator.nullsFirst(Comparator.naturalOrder());
+    for (int i = 0; i < chaveA.size(); i++) {
+      int comparacao = ordem.compare(chaveA.get(i), chaveB.get(i));
+      if (comparacao != 0) {
+        return comparacao;
+      }
+    }
+    return 0;
+  };
+
+  private void aplicarPeriodo(Filtro filtro, LocalDate startDate, LocalDate endDate) {
+    if (startDate != null) {
+      filtro.diaInicio = (int) startDate.toEpochDay();
+    }
+    if (endDate != null) {
+      filtro.diaFim = (int) endDate.toEpochDay();
+    }
+  }
+
+  private <T> int codigoFiltro(Filtro filtro, LivroColunar.Dicionario<T> dicionario, T valor) {
+    if (valor == null) {
+      return -1;
+    }
+    int codigo = dicionario.codigo(valor);
+    if (codigo < 0) {
+      filtro.vazio = true;
+    }
+    return codigo;
+  }
+
+  // --- Execução (chamada com o read lock) ---
+
+  private Map<Long, TotaisCentavos> agregar(Filtro filtro, Dimensao[] dimensoes) {
+    if (filtro.vazio) {
+      return Map.of();
+    }
+    int linhas = livro.linhas;
+    int blocos = (linhas + LINHAS_POR_BLOCO - 1) / LINHAS_POR_BLOCO;
+    return IntStream.range(0, blocos).parallel()
+        .mapToObj(bloco -> agregarBloco(filtro, dimensoes, bloco * LINHAS_POR_BLOCO,
+            Math.min(linhas, (bloco + 1) * LINHAS_POR_BLOCO)))
+        .reduce(AnaliticoService::juntar)
+        .orElseGet(HashMap::new);
+  }
+
+  private Map<Long, TotaisCentavos> agregarBloco(Filtro filtro, Dimensao[] dimensoes, int inicio, int fim) {
+    Map<Long, TotaisCentavos> grupos = new HashMap<>();
+    // Sem agrupamento: somas em variáveis locais, um único grupo no final
+    long lucro = 0;
+    long deposito = 0;
+    long quantidade = 0;
+    long pendentes = 0;
+    // Linhas vizinhas costumam cair no mesmo grupo (mesmo dia, por exemplo)
+    long ultimaChave = -1;
+    TotaisCentavos ultimoGrupo = null;
+
+    for (int i = livro.ativas.nextSetBit(inicio); i >= 0 && i < fim; i = livro.ativas.nextSetBit(i + 1)) {
+      int dia = livro.dias[i];
+      boolean saque = livro.saques.get(i);
+      if (dia < filtro.diaInicio || dia > filtro.diaFim
+          || (filtro.plataforma >= 0 && livro.plataformas[i] != filtro.plataforma)
+          || (filtro.conta >= 0 && livro.contas[i] != filtro.conta)
+          || (filtro.situacao >= 0 && livro.situacoes[i] != filtro.situacao)
+          || (filtro.saque >= 0 && (saque ? 1 : 0) != filtro.saque)) {
+        continue;
+      }
+
+      if (dimensoes.length == 0) {
+        lucro += livro.lucros[i];
+        deposito += livro.depositos[i];
+        quantidade++;
+        if (!saque) {
+          pendentes++;
+        }
+        continue;
+      }
+
+      long chave = 0;
+      for (Dimensao dimensao : dimensoes) {
+        chave = (chave << BITS_POR_DIMENSAO) | codigo(dimensao, i, saque);
+      }
+      if (ultimoGrupo == null || chave != ultimaChave) {
+        ultimoGrupo = grupos.computeIfAbsent(chave, k -> new TotaisCentavos());
+        ultimaChave = chave;
+      }
+      ultimoGrupo.adicionar(livro.lucros[i], livro.depositos[i], saque, 1);
+    }
+
+    if (dimensoes.length == 0 && quantidade > 0) {
+      TotaisCentavos totais = new TotaisCentavos();
+      totais.somar(lucro, deposito, quantidade, pendentes);
+      grupos.put(0L, totais);
+    }
+    return grupos;
+  }
+
+  private static Map<Long, TotaisCentavos> juntar(Map<Long, TotaisCentavos> a, Map<Long, TotaisCentavos> b) {
+    Map<Long, TotaisCentavos> maior = a.size() >= b.size() ? a : b;
+    Map<Long, TotaisCentavos> menor = maior == a ? b : a;
+    menor.forEach((chave, totais) -> maior.merge(chave, totais, TotaisCentavos::combinar));
+    return maior;
+  }
+
+  private int codigo(Dimensao dimensao, int linha, boolean saque) {
+    return switch (dimensao) {
+      case PLATAFORMA -> livro.plataformas[linha];
+      case CONTA -> livro.contas[linha];
+      case SITUACAO -> livro.situacoes[linha];
+      case SLOT -> livro.slots[linha];
+      case SAQUE -> saque ? 1 : 0;
+      case DIA -> livro.dias[linha] + DESLOCAMENTO_DIA;
+      // Semanas começam na segunda-feira (o dia 0, 1970-01-01, foi uma quinta)
+      case SEMANA -> Math.floorDiv(livro.dias[linha] + 3, 7) + DESLOCAMENTO_DIA;
+      case MES -> mesDoDia(livro.dias[linha]);
+    };
+  }
+
+  // Converte a chave de um grupo nos valores legíveis de cada dimensão
+  private Map<String, String> rotular(long chave, Dimensao[] dimensoes) {
+    String[] valores = new String[dimensoes.length];
+    for (int i = dimensoes.length - 1; i >= 0; i--) {
+      valores[i] = rotulo(dimensoes[i], (int) (chave & MASCARA_DIMENSAO));
+      chave >>>= BITS_POR_DIMENSAO;
+    }
+    Map<String, String> rotulos = new LinkedHashMap<>();
+    for (int i = 0; i < dimensoes.length; i++) {
+      rotulos.put(dimensoes[i].getChave(), valores[i]);
+    }
+    return rotulos;
+  }
+
+  private String rotulo(Dimensao dimensao, int codigo) {
+    return switch (dimensao) {
+      case PLATAFORMA -> livro.nomesPlataformas.get(livro.dicionarioPlataformas.valor(codigo));
+      case CONTA -> livro.nomesContas.get(livro.dicionarioContas.valor(codigo));
+      case SITUACAO -> livro.dicionarioSituacoes.valor(codigo).getTexto();
+      case SLOT -> livro.dicionarioSlots.valor(codigo);
+      case SAQUE -> String.valueOf(codigo == 1);
+      case DIA -> LocalDate.ofEpochDay(codigo - DESLOCAMENTO_DIA).toString();
+      case SEMANA -> LocalDate.ofEpochDay((codigo - DESLOCAMENTO_DIA) * 7L - 3).toString();
+      case MES -> YearMonth.of(codigo / 12, codigo % 12 + 1).toString();
+    };
+  }
+
+  /**
+   * Mês de um epoch-day como ano * 12 + (mês - 1), sem criar um LocalDate por
+   * linha (algoritmo "civil from days" de Howard Hinnant).
+   */
+  static int mesDoDia(int epochDay) {
+    int z = epochDay + 719_468;
+    int era = Math.floorDiv(z, 146_097);
+    int diaDaEra = z - era * 146_097;
+    int anoDaEra = (diaDaEra - diaDaEra / 1_460 + diaDaEra / 36_524 - diaDaEra / 146_096) / 365;
+    int diaDoAno = diaDaEra - (365 * anoDaEra + anoDaEra / 4 - anoDaEra / 100);
+    int mp = (5 * diaDoAno + 2) / 153;
+    int mes = mp < 10 ? mp + 3 : mp - 9;
+    int ano = anoDaEra + era * 400 + (mes <= 2 ? 1 : 0);
+    return ano * 12 + mes - 1;
+  }
+
+  // Usado pelo RegistroOperacaoService para o lucro por dia
+  Optional<Map<LocalDate, TotaisCentavos>> totaisPorDia() {
+    if (!pronto) {
+      return Optional.empty();
+    }
+    lock.readLock().lock();
+    try {
+      Map<Long, TotaisCentavos> grupos = agregar(new Filtro(), new Dimensao[] { Dimensao.DIA });
+      Map<LocalDate, TotaisCentavos> porDia = new TreeMap<>();
+      grupos.forEach((chave, totais) -> porDia.put(LocalDate.ofEpochDay(chave - DESLOCAMENTO_DIA), totais));
+      return Optional.of(porDia);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+}
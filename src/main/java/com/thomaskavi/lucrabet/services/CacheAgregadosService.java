@@ -0,0 +1,149 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.events.RegistrosAlteradosEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cache dos resultados das consultas de totais (sumários, séries e lucro por
+ * dia), limitado por quantidade de entradas (Caffeine, descarta as menos
+ * usadas).
+ *
+ * Cada entrada guarda o período e a plataforma/conta que a consulta cobre.
+ * Uma escrita em (dia D, plataforma P, conta C) remove só as entradas cujo
+ * período contém D e cujos filtros aceitam P e C; as demais continuam valendo.
+ * Acertos e falhas ficam no Actuator (/actuator/metrics/cache.gets com
+ * cache=agregados).
+ */
+@Service
+public class CacheAgregadosService {
+
+  /**
+   * Chave de uma consulta: o tipo (e a granularidade, nas séries) mais o período
+   * e os filtros. Campos null = sem filtro.
+   */
+  public static final class Chave {
+    private final String consulta;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Long plataformaId;
+    private final Long contaId;
+
+    public Chave(String consulta, LocalDate startDate, LocalDate endDate, Long plataformaId, Long contaId) {
+      this.consulta = consulta;
+      this.startDate = startDate;
+      this.endDate = endDate;
+      this.plataformaId = plataformaId;
+      this.contaId = contaId;
+    }
+
+    // Se um registro com estes valores entra no resultado desta consulta
+    boolean cobre(LocalDate data, Long plataforma, Long conta) {
+      return (startDate == null || !data.isBefore(startDate))
+          && (endDate == null || !data.isAfter(endDate))
+          && (plataformaId == null || plataformaId.equals(plataforma))
+          && (contaId == null || contaId.equals(conta));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Chave outra)) {
+        return false;
+      }
+      return consulta.equals(outra.consulta) && Objects.equals(startDate, outra.startDate)
+          && Objects.equals(endDate, outra.endDate) && Objects.equals(plataformaId, outra.plataformaId)
+          && Objects.equals(contaId, outra.contaId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(consulta, startDate, endDate, plataformaId, contaId);
+    }
+  }
+
+  @Value("${lucrabet.cache-agregados.tamanho-maximo:10000}")
+  private long tamanhoMaximo;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private Cache<Chave, Object> cache;
+
+  // Incrementada a cada invalidação (ver buscar)
+  private final AtomicLong geracao = new AtomicLong();
+
+  @PostConstruct
+  void iniciar() {
+    cache = Caffeine.newBuilder().maximumSize(tamanhoMaximo).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "agregados");
+  }
+
+  /**
+   * Devolve o resultado em cache ou calcula e guarda. Se uma invalidação
+   * acontecer enquanto o valor é calculado, ele pode ter sido lido antes da
+   * escrita: é devolvido, mas não fica no cache.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T buscar(Chave chave, Supplier<T> calculo) {
+    Object emCache = cache.getIfPresent(chave);
+    if (emCache != null) {
+      return (T) emCache;
+    }
+    long inicio = geracao.get();
+    T valor = calculo.get();
+    cache.put(chave, valor);
+    // A invalidação incrementa a geração antes de varrer as chaves: ou a
+    // varredura já viu este put, ou a geração mudou e o put é desfeito aqui
+    if (geracao.get() != inicio) {
+      cache.invalidate(chave);
+    }
+    return valor;
+  }
+
+  // Depois do AnaliticoService, para que um recálculo logo após a invalidação
+  // já leia a cópia em memória atualizada, e antes do VersaoDadosService
+  @TransactionalEventListener(fallbackExecution = true)
+  @Order(Ordered.LOWEST_PRECEDENCE - 10)
+  public void aoAlterarRegistros(RegistrosAlteradosEvent evento) {
+    geracao.incrementAndGet();
+    invalidar(evento.getGravados());
+    invalidar(evento.getAnteriores());
+  }
+
+  private void invalidar(List<RegistroOperacaoDTO> registros) {
+    if (registros.isEmpty()) {
+      return;
+    }
+    // Um lote da importação costuma repetir (dia, plataforma, conta); o
+    // intervalo de datas do lote descarta de cara as chaves de outros períodos
+    List<Chave> alterados = registros.stream()
+        .map(r -> new Chave("", r.getDataOperacao(), r.getDataOperacao(), r.getPlataformaId(), r.getContaId()))
+        .distinct().toList();
+    LocalDate menor = alterados.stream().map(a -> a.startDate).min(LocalDate::compareTo).get();
+    LocalDate maior = alterados.stream().map(a -> a.startDate).max(LocalDate::compareTo).get();
+    cache.asMap().keySet().removeIf(chave -> (chave.startDate == null || !maior.isBefore(chave.startDate))
+        && (chave.endDate == null || !menor.isAfter(chave.endDate))
+        && alterados.stream().anyMatch(a -> chave.cobre(a.startDate, a.plataformaId, a.contaId)));
+  }
+}
@@ -0,0 +1,100 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache concorrente de nome → entidade usado pelos getOrCreate de Plataforma e
+ * Conta.
+ *
+ * A resolução de um nome que ainda não está no cache é "single-flight": a
+ * primeira thread registra um CompletableFuture e executa a busca/criação; as
+ * demais que pedirem o mesmo nome esperam esse mesmo futuro em vez de irem ao
+ * banco. Assim só acontece um INSERT por nome novo, mesmo sob concorrência.
+ *
+ * As entidades guardadas ficam desanexadas (só id e nome importam para montar
+ * as associações de RegistroOperacao).
+ */
+public class CacheResolucao<T> {
+
+  private final Map<String, CompletableFuture<T>> cache = new ConcurrentHashMap<>();
+
+  // Incrementada a cada invalidação: uma resolução que começou antes dela não
+  // pode deixar no cache um valor possivelmente desatualizado
+  private final AtomicLong geracao = new AtomicLong();
+
+  private final Function<T, Long> id;
+
+  public CacheResolucao(Function<T, Long> id) {
+    this.id = id;
+  }
+
+  /**
+   * Retorna a entidade do nome, executando "resolvedor" (buscar ou criar) só se
+   * ninguém ainda o resolveu. Falhas não ficam no cache.
+   */
+  public T resolver(String nome, Function<String, T> resolvedor) {
+    CompletableFuture<T> existente = cache.get(nome);
+    if (existente == null) {
+      CompletableFuture<T> novo = new CompletableFuture<>();
+      existente = cache.putIfAbsent(nome, novo);
+      if (existente == null) {
+        return executar(nome, novo, resolvedor);
+      }
+    }
+    try {
+      return existente.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException causa ? causa : e;
+    }
+  }
+
+  private T executar(String nome, CompletableFuture<T> futuro, Function<String, T> resolvedor) {
+    long geracaoInicial = geracao.get();
+    try {
+      T valor = resolvedor.apply(nome);
+      futuro.complete(valor);
+      if (valor == null || geracao.get() != geracaoInicial) {
+        cache.remove(nome, futuro);
+      }
+      return valor;
+    } catch (RuntimeException e) {
+      cache.remove(nome, futuro);
+      futuro.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  // Retorna a entidade se o nome já estiver resolvido, sem ir ao banco
+  public T buscar(String nome) {
+    CompletableFuture<T> futuro = cache.get(nome);
+    if (futuro == null || !futuro.isDone() || futuro.isCompletedExceptionally()) {
+      return null;
+    }
+    return futuro.join();
+  }
+
+  // Registra uma entidade já carregada do banco (ex.: por uma busca em lote)
+  public void registrar(String nome, T valor) {
+    cache.putIfAbsent(nome, CompletableFuture.completedFuture(valor));
+  }
+
+  /**
+   * Remove do cache a entidade com este id (e qualquer resolução em andamento),
+   * para ser chamado depois de atualizar ou excluir a entidade.
+   */
+  public void invalidar(Long idEntidade) {
+    geracao.incrementAndGet();
+    cache.values().removeIf(futuro -> {
+      if (!futuro.isDone() || futuro.isCompletedExceptionally()) {
+        return true;
+      }
+      T valor = futuro.join();
+      return valor != null && idEntidade.equals(id.apply(valor));
+    });
+  }
+}
@@ -0,0 +1,47 @@
+package com.thomaskavi.lucrabet.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reconstrói o agregado diário e carrega a cópia analítica em memória antes de
+ * o servidor web aceitar requisições. Como fase do ciclo de vida, roda depois
+ * de todos os beans existirem (e do import.sql e do GeradorLivroService, que
+ * gravam direto no banco) e antes do WebServerStartStopLifecycle (fase
+ * DEFAULT_PHASE - 2048): nenhuma escrita ou leitura de totais chega com a
+ * carga pela metade.
+ */
+@Service
+public class CargaInicialService implements SmartLifecycle {
+
+  @Autowired
+  private AgregadoDiarioService agregadoDiarioService;
+
+  @Autowired
+  private AnaliticoService analiticoService;
+
+  private volatile boolean executando;
+
+  @Override
+  public void start() {
+    agregadoDiarioService.reconstruir();
+    analiticoService.carregar();
+    executando = true;
+  }
+
+  @Override
+  public void stop() {
+    executando = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return executando;
+  }
+
+  @Override
+  public int getPhase() {
+    return DEFAULT_PHASE - 4096;
+  }
+}
@@ -1,20 +1,63 @@
 package com.thomaskavi.lucrabet.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.thomaskavi.lucrabet.entities.Conta;
+import com.thomaskavi.lucrabet.events.CadastroAlteradoEvent;
 import com.thomaskavi.lucrabet.repositories.ContaRepository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class ContaService {
 
   @Autowired
   private ContaRepository contaRepository;
 
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  // Resultados do getOrCreate: já no cache, lido do banco ou criado
+  private Counter acertosCache;
+  private Counter encontradas;
+  private Counter criadas;
+
+  // Cache nome → Conta usado pelo getOrCreateConta
+  private final CacheResolucao<Conta> cache = new CacheResolucao<>(Conta::getId);
+
+  @PostConstruct
+  void iniciarMetricas() {
+    acertosCache = contador("cache");
+    encontradas = contador("banco");
+    criadas = contador("criado");
+  }
+
+  private Counter contador(String resultado) {
+    return Counter.builder("lucrabet.getorcreate").description("Resoluções do getOrCreate por resultado")
+        .tag("entidade", "conta").tag("resultado", resultado).register(meterRegistry);
+  }
+
   // Método para buscar todas as contas
   public List<Conta> findAll() {
     return contaRepository.findAll();
@@ -27,16 +70,29 @@ public class ContaService {
 
   // Método para salvar (criar ou atualizar) uma conta
   public Conta save(Conta conta) {
-    return contaRepository.save(conta);
+    Conta salva = contaRepository.save(conta);
+    if (conta.getId() != null) {
+      // Atualização: o nome antigo não pode continuar resolvendo para este id
+      cache.invalidar(conta.getId());
+    }
+    eventPublisher.publishEvent(
+        new CadastroAlteradoEvent(CadastroAlteradoEvent.Tipo.CONTA, salva.getId(), salva.getNomeConta()));
+    return salva;
   }
 
   // Método para deletar uma conta por ID
   public void deleteById(Long id) {
     contaRepository.deleteById(id);
+    cache.invalidar(id);
+    eventPublisher.publishEvent(new CadastroAlteradoEvent(CadastroAlteradoEvent.Tipo.CONTA, id, null));
   }
 
   // Método para buscar uma conta pelo nome da conta
   public Optional<Conta> findByNomeConta(String nomeConta) {
+    Conta emCache = cache.buscar(nomeConta);
+    if (emCache != null) {
+      return Optional.of(emCache);
+    }
     return contaRepository.findByNomeConta(nomeConta);
   }
 
@@ -45,13 +101,83 @@ public class ContaService {
    * não existir.
    * Isso é útil para garantir que não haja duplicação de contas ao criar
    * RegistroOperacao.
+   * O resultado fica em cache, e chamadas concorrentes para um nome novo geram
+   * um único INSERT (ver CacheResolucao).
    * 
    * @param nomeConta O nome da conta.
    * @return A Conta encontrada ou uma nova criada e salva.
    */
   public Conta getOrCreateConta(String nomeConta) {
-    return contaRepository.findByNomeConta(nomeConta)
-        .orElseGet(() -> contaRepository.save(new Conta(null, nomeConta)));
-    // O ID é null aqui porque será gerado automaticamente pelo JPA
+    Conta emCache = cache.buscar(nomeConta);
+    if (emCache != null) {
+      acertosCache.increment();
+      return emCache;
+    }
+    return cache.resolver(nomeConta, this::buscarOuCriar);
+  }
+
+  /**
+   * Busca ou cria a conta em uma transação própria, para que o cache nunca
+   * guarde o id de uma linha que possa sofrer rollback junto com a transação de
+   * quem chamou. Se outra instância criar o mesmo nome ao mesmo tempo, a
+   * restrição unique falha e a conta já gravada é lida de novo.
+   */
+  private Conta buscarOuCriar(String nomeConta) {
+    TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+    transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    try {
+      return transacao.execute(status -> contaRepository.findByNomeConta(nomeConta)
+          .map(existente -> {
+            encontradas.increment();
+            return existente;
+          })
+          .orElseGet(() -> {
+            // O ID é null aqui porque será gerado automaticamente pelo JPA
+            Conta criada = contaRepository.saveAndFlush(new Conta(null, nomeConta));
+            criadas.increment();
+            return criada;
+          }));
+    } catch (DataIntegrityViolationException e) {
+      Conta existente = contaRepository.findByNomeConta(nomeConta).orElseThrow(() -> e);
+      encontradas.increment();
+      return existente;
+    }
+  }
+
+  /**
+   * Versão em lote do getOrCreateConta: os nomes que não estão no cache são
+   * buscados com uma única consulta, e só os realmente novos passam pela
+   * criação individual (que garante um INSERT por nome).
+   * 
+   * @param nomesContas Os nomes das contas.
+   * @return Um Map do nome para a Conta encontrada ou criada.
+   */
+  public Map<String, Conta> getOrCreateContas(Collection<String> nomesContas) {
+    Map<String, Conta> contas = new HashMap<>();
+    List<String> foraDoCache = new ArrayList<>();
+    for (String nomeConta : nomesContas) {
+      Conta conta = cache.buscar(nomeConta);
+      if (conta != null) {
+        acertosCache.increment();
+        contas.put(nomeConta, conta);
+      } else {
+        foraDoCache.add(nomeConta);
+      }
+    }
+    if (foraDoCache.isEmpty()) {
+      return contas;
+    }
+
+    for (Conta conta : contaRepository.findByNomeContaIn(foraDoCache)) {
+      cache.registrar(conta.getNomeConta(), conta);
+      encontradas.increment();
+      contas.put(conta.getNomeConta(), conta);
+    }
+    for (String nomeConta : foraDoCache) {
+      if (!contas.containsKey(nomeConta)) {
+        contas.put(nomeConta, getOrCreateConta(nomeConta));
+      }
+    }
+    return contas;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,180 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thomaskavi.lucrabet.dto.FiltroRegistroDTO;
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.entities.Situacao;
+import com.thomaskavi.lucrabet.repositories.RegistroOperacaoRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Exporta o livro de operações em NDJSON ou CSV escrevendo cada linha na saída
+ * assim que ela é lida do banco. As linhas são lidas como RegistroOperacaoDTO,
+ * que não ficam no contexto de persistência, então o uso de memória não cresce
+ * com a quantidade de linhas.
+ *
+ * Cada exportação é medida do início da consulta à última linha escrita
+ * (timer lucrabet.exportacao, com as tags formato, outcome e exception) e a
+ * quantidade de linhas vai para lucrabet.exportacao.linhas. Como as linhas são
+ * lidas do banco conforme são escritas, o tempo inclui a escrita para o
+ * cliente.
+ */
+@Service
+public class ExportacaoRegistroService {
+
+  // A cada quantas linhas os bytes acumulados são enviados ao cliente
+  private static final int LINHAS_POR_FLUSH = 1000;
+
+  private static final String CABECALHO_CSV = "id,dataOperacao,linkPlataforma,nomeConta,valorDeposito,"
+      + "nomeSlotGiros,situacao,valorLucro,saqueCompletoFeito";
+
+  public enum Formato {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extensao;
+
+    Formato(String contentType, String extensao) {
+      this.contentType = contentType;
+      this.extensao = extensao;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    public String getExtensao() {
+      return extensao;
+    }
+
+    // Converte o parâmetro da requisição ("csv", "ndjson"), sem diferenciar
+    // maiúsculas de minúsculas
+    public static Formato de(String valor) {
+      for (Formato formato : values()) {
+        if (formato.name().equalsIgnoreCase(valor)) {
+          return formato;
+        }
+      }
+      throw new IllegalArgumentException("Formato de exportação inválido: " + valor);
+    }
+  }
+
+  @Autowired
+  private RegistroOperacaoRepository registroOperacaoRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /**
+   * Escreve em "saida" todos os registros que atendem ao filtro, em ordem de
+   * data e id.
+   *
+   * @return A quantidade de registros exportados.
+   */
+  @Transactional(readOnly = true)
+  public long exportar(FiltroRegistroDTO filtro, Formato formato, OutputStream saida) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+    if (formato == Formato.CSV) {
+      writer.write(CABECALHO_CSV);
+      writer.write('\n');
+    }
+
+    // Uma situação que não existe não tem registros: só o cabeçalho
+    Optional<Situacao> situacao = Situacao.porTexto(filtro.getSituacao());
+    if (filtro.getSituacao() != null && situacao.isEmpty()) {
+      writer.flush();
+      return 0;
+    }
+
+    long inicio = System.nanoTime();
+    long linhas = 0;
+    try (Stream<RegistroOperacaoDTO> registros = registroOperacaoRepository.streamParaExportacao(
+        filtro.getStartDate(), filtro.getEndDate(), filtro.getLinkPlataforma(), filtro.getNomeConta(),
+        situacao.orElse(null), filtro.getSaqueCompletoFeito())) {
+      Iterator<RegistroOperacaoDTO> iterator = registros.iterator();
+      while (iterator.hasNext()) {
+        RegistroOperacaoDTO registro = iterator.next();
+        if (formato == Formato.CSV) {
+          escreverCsv(writer, registro);
+        } else {
+          writer.write(objectMapper.writeValueAsString(registro));
+          writer.write('\n');
+        }
+
+        if (++linhas % LINHAS_POR_FLUSH == 0) {
+          writer.flush();
+        }
+      }
+      writer.flush();
+    } catch (IOException | RuntimeException e) {
+      registrar(formato, "ERROR", e.getClass().getSimpleName(), inicio);
+      throw e;
+    }
+    registrar(formato, "SUCCESS", "none", inicio);
+    DistributionSummary.builder("lucrabet.exportacao.linhas").description("Linhas escritas por exportação")
+        .baseUnit("linhas").tag("formato", formato.getExtensao()).register(meterRegistry).record(linhas);
+    return linhas;
+  }
+
+  private void registrar(Formato formato, String outcome, String exception, long inicio) {
+    Timer.builder("lucrabet.exportacao").description("Duração das exportações, leitura e escrita das linhas")
+        .tag("formato", formato.getExtensao()).tag("outcome", outcome).tag("exception", exception)
+        .register(meterRegistry).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+  }
+
+  private void escreverCsv(Writer writer, RegistroOperacaoDTO registro) throws IOException {
+    writer.write(String.valueOf(registro.getId()));
+    writer.write(',');
+    writer.write(registro.getDataOperacao().toString());
+    writer.write(',');
+    writer.write(campoCsv(registro.getLinkPlataforma()));
+    writer.write(',');
+    writer.write(campoCsv(registro.getNomeConta()));
+    writer.write(',');
+    writer.write(registro.getValorDeposito().toPlainString());
+    writer.write(',');
+    writer.write(campoCsv(registro.getNomeSlotGiros()));
+    writer.write(',');
+    writer.write(campoCsv(registro.getSituacao().getTexto()));
+    writer.write(',');
+    writer.write(registro.getValorLucro().toPlainString());
+    writer.write(',');
+    writer.write(String.valueOf(registro.getSaqueCompletoFeito()));
+    writer.write('\n');
+  }
+
+  // Coloca o valor entre aspas quando ele contém vírgula, aspas ou quebra de
+  // linha (RFC 4180)
+  private String campoCsv(String valor) {
+    if (valor == null) {
+      return "";
+    }
+    if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0
+        || valor.indexOf('\r') >= 0) {
+      return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+    return valor;
+  }
+}
@@ -0,0 +1,281 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.thomaskavi.lucrabet.entities.Conta;
+import com.thomaskavi.lucrabet.entities.Plataforma;
+import com.thomaskavi.lucrabet.entities.Situacao;
+
+/**
+ * Gera um livro de operações sintético com volume de produção, para testes de
+ * capacidade locais. Só existe no perfil "gerador":
+ *
+ * java -jar lucrabet.jar --spring.profiles.active=test,gerador
+ * --lucrabet.gerador.registros=10000000
+ *
+ * As distribuições imitam o uso real: poucas plataformas e contas concentram
+ * a maior parte das operações (Zipf), o volume cresce ao longo do período e é
+ * maior nos fins de semana, depósitos são valores redondos, a maioria das
+ * operações perde parte ou todo o depósito e poucas têm ganhos grandes.
+ *
+ * A carga não passa pelo JPA: os registros são gerados em streaming e
+ * inseridos por JDBC em lotes, em transações de LINHAS_POR_COMMIT linhas,
+ * com ids reservados de uma vez na sequence da aplicação. Com a mesma
+ * semente e os mesmos parâmetros o livro é sempre o mesmo.
+ */
+@Service
+@Profile("gerador")
+public class GeradorLivroService implements SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(GeradorLivroService.class);
+
+  private static final int LINHAS_POR_LOTE = 5_000;
+  private static final int LINHAS_POR_COMMIT = 100_000;
+
+  // Incremento da seq_registros_operacoes (allocationSize de RegistroOperacao)
+  private static final int ALOCACAO_SEQUENCE = 50;
+
+  private static final String SQL_INSERIR = "INSERT INTO tb_registros_operacoes (id, plataforma_id, conta_id, "
+      + "data_operacao, valor_deposito, nome_slot_giros, situacao, valor_lucro, saque_completo_feito) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String[] SLOTS = { "Fortune Tiger", "Aviator", "Gates of Olympus", "Sweet Bonanza",
+      "Fortune Rabbit", "Penalty Shoot-out", "Mines", "Spaceman", "Fortune Ox", "Big Bass Bonanza",
+      "Sugar Rush", "Fortune Mouse", "Starlight Princess", "Wild Bandito", "Dragon Hatch", "Fortune Dragon",
+      "Crazy Time", "Football Studio", "Roleta Brasileira", "Double Fortune", "Lucky Neko", "Mahjong Ways",
+      "Ganesha Gold", "Tumble Wins", "Zeus vs Hades", "Cash Mania", "Treasures of Aztec", "Bikini Paradise",
+      "Fruit Party", "JetX" };
+
+  private static final int[] GIROS = { 5, 10, 20, 50, 100 };
+
+  private static final int[] DEPOSITOS = { 10, 20, 25, 30, 50, 75, 100, 150, 200, 300, 500, 1000 };
+  private static final double[] PESOS_DEPOSITOS = { 12, 14, 6, 8, 20, 5, 15, 4, 7, 3, 4, 2 };
+
+  // Maior valor de uma coluna DECIMAL(10, 2)
+  private static final double VALOR_MAXIMO = 99_999_999.99;
+
+  @Value("${lucrabet.gerador.registros:100000}")
+  private long registros;
+
+  @Value("${lucrabet.gerador.plataformas:40}")
+  private int plataformas;
+
+  @Value("${lucrabet.gerador.contas:300}")
+  private int contas;
+
+  @Value("${lucrabet.gerador.dias:730}")
+  private int dias;
+
+  @Value("${lucrabet.gerador.data-final:2025-12-31}")
+  private LocalDate dataFinal;
+
+  @Value("${lucrabet.gerador.semente:42}")
+  private long semente;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlataformaService plataformaService;
+
+  @Autowired
+  private ContaService contaService;
+
+  // Depois que todos os beans existem e antes de o Tomcat aceitar requisições:
+  // nenhuma consulta (nem o cache de totais) vê o livro pela metade, e a
+  // CargaInicialService, que roda depois (no início do ciclo de vida), já lê
+  // o livro completo
+  @Override
+  public void afterSingletonsInstantiated() {
+    try {
+      gerar();
+    } catch (SQLException e) {
+      throw new IllegalStateException("Falha ao gerar o livro sintético", e);
+    }
+  }
+
+  public void gerar() throws SQLException {
+    long inicio = System.nanoTime();
+    SplittableRandom random = new SplittableRandom(semente);
+
+    List<String> links = new ArrayList<>();
+    for (int i = 1; i <= plataformas; i++) {
+      links.add("plataforma" + i + ".bet.br");
+    }
+    List<String> nomes = new ArrayList<>();
+    for (int i = 1; i <= contas; i++) {
+      nomes.add("conta" + i);
+    }
+    Map<String, Plataforma> porLink = plataformaService.getOrCreatePlataformas(links);
+    Map<String, Conta> porNome = contaService.getOrCreateContas(nomes);
+    long[] plataformaIds = links.stream().mapToLong(l -> porLink.get(l).getId()).toArray();
+    long[] contaIds = nomes.stream().mapToLong(n -> porNome.get(n).getId()).toArray();
+
+    double[] zipfPlataformas = acumulada(zipf(plataformas, 1.1));
+    double[] zipfContas = acumulada(zipf(contas, 0.9));
+    double[] zipfSlots = acumulada(zipf(SLOTS.length, 1.0));
+    double[] pesosDepositos = acumulada(PESOS_DEPOSITOS);
+    double[] pesosDias = acumulada(pesosDias());
+    LocalDate primeiroDia = dataFinal.minusDays(dias - 1L);
+
+    long primeiroId = reservarIds(registros);
+
+    try (Connection conexao = dataSource.getConnection();
+        PreparedStatement insert = conexao.prepareStatement(SQL_INSERIR)) {
+      conexao.setAutoCommit(false);
+      for (long i = 0; i < registros; i++) {
+        int deposito = DEPOSITOS[sortear(pesosDepositos, random)];
+        Situacao situacao = sortearSituacao(random);
+        String slot = random.nextInt(20) == 0 ? null
+            : SLOTS[sortear(zipfSlots, random)] + " " + GIROS[random.nextInt(GIROS.length)] + "x";
+
+        insert.setLong(1, primeiroId + i);
+        insert.setLong(2, plataformaIds[sortear(zipfPlataformas, random)]);
+        insert.setLong(3, contaIds[sortear(zipfContas, random)]);
+        insert.setDate(4, Date.valueOf(primeiroDia.plusDays(sortear(pesosDias, random))));
+        insert.setBigDecimal(5, BigDecimal.valueOf(deposito * 100L, 2));
+        insert.setString(6, slot);
+        insert.setShort(7, situacao.getCodigo());
+        insert.setBigDecimal(8, sortearLucro(deposito, situacao, random));
+        insert.setBoolean(9, sortearSaque(situacao, random));
+        insert.addBatch();
+
+        long gerados = i + 1;
+        if (gerados % LINHAS_POR_LOTE == 0 || gerados == registros) {
+          insert.executeBatch();
+        }
+        if (gerados % LINHAS_POR_COMMIT == 0 || gerados == registros) {
+          conexao.commit();
+          if (gerados % (10L * LINHAS_POR_COMMIT) == 0) {
+            log.info("Gerador: {} de {} registros", gerados, registros);
+          }
+        }
+      }
+    }
+
+    double segundos = (System.nanoTime() - inicio) / 1e9;
+    log.info("Gerador: {} registros em {} plataformas e {} contas, {} dias até {} ({} s, {} linhas/s)", registros,
+        plataformas, contas, dias, dataFinal, String.format("%.1f", segundos),
+        String.format("%.0f", registros / segundos));
+  }
+
+  /**
+   * Reserva "quantidade" ids da seq_registros_operacoes e devolve o primeiro.
+   * A sequence é reposicionada depois do bloco, e os próximos ids que o
+   * Hibernate alocar (de ALOCACAO_SEQUENCE em ALOCACAO_SEQUENCE, terminando no
+   * valor lido) ficam todos acima dele.
+   */
+  private long reservarIds(long quantidade) {
+    long atual = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR seq_registros_operacoes", Long.class);
+    jdbcTemplate.execute("ALTER SEQUENCE seq_registros_operacoes RESTART WITH "
+        + (atual + quantidade + ALOCACAO_SEQUENCE));
+    return atual + 1;
+  }
+
+  // --- Distribuições ---
+
+  // Peso de cada posição em uma distribuição de Zipf com expoente s
+  private static double[] zipf(int n, double s) {
+    double[] pesos = new double[n];
+    for (int i = 0; i < n; i++) {
+      pesos[i] = 1 / Math.pow(i + 1, s);
+    }
+    return pesos;
+  }
+
+  // Volume crescente ao longo do período (de 1x a 3x) e 40% maior de sexta a
+  // domingo
+  private double[] pesosDias() {
+    double[] pesos = new double[dias];
+    LocalDate primeiroDia = dataFinal.minusDays(dias - 1L);
+    for (int d = 0; d < dias; d++) {
+      DayOfWeek diaDaSemana = primeiroDia.plusDays(d).getDayOfWeek();
+      boolean fimDeSemana = diaDaSemana == DayOfWeek.FRIDAY || diaDaSemana == DayOfWeek.SATURDAY
+          || diaDaSemana == DayOfWeek.SUNDAY;
+      pesos[d] = (1 + 2.0 * d / dias) * (fimDeSemana ? 1.4 : 1.0);
+    }
+    return pesos;
+  }
+
+  private static double[] acumulada(double[] pesos) {
+    double[] acumulada = new double[pesos.length];
+    double total = 0;
+    for (int i = 0; i < pesos.length; i++) {
+      total += pesos[i];
+      acumulada[i] = total;
+    }
+    for (int i = 0; i < acumulada.length; i++) {
+      acumulada[i] /= total;
+    }
+    return acumulada;
+  }
+
+  // Índice sorteado conforme a distribuição acumulada
+  private static int sortear(double[] acumulada, SplittableRandom random) {
+    int posicao = Arrays.binarySearch(acumulada, random.nextDouble());
+    return Math.min(posicao >= 0 ? posicao : -posicao - 1, acumulada.length - 1);
+  }
+
+  private static Situacao sortearSituacao(SplittableRandom random) {
+    int x = random.nextInt(100);
+    return x < 88 ? Situacao.FINALIZADO : x < 97 ? Situacao.AGUARDANDO : Situacao.CANCELADO;
+  }
+
+  /**
+   * Lucro em relação ao depósito: 30% perdem tudo, 25% perdem uma parte, 40%
+   * ganham pouco (lognormal em torno de 30% do depósito) e 5% ganham muito
+   * (até dezenas de vezes o depósito). Cancelados têm lucro zero.
+   */
+  private static BigDecimal sortearLucro(int deposito, Situacao situacao, SplittableRandom random) {
+    if (situacao == Situacao.CANCELADO) {
+      return BigDecimal.ZERO.setScale(2);
+    }
+    double x = random.nextDouble();
+    double lucro;
+    if (x < 0.30) {
+      lucro = -deposito;
+    } else if (x < 0.55) {
+      lucro = -deposito * random.nextDouble();
+    } else if (x < 0.95) {
+      lucro = deposito * 0.3 * Math.exp(0.8 * random.nextGaussian());
+    } else {
+      lucro = deposito * Math.exp(1.5 + 1.0 * random.nextGaussian());
+    }
+    lucro = Math.max(-VALOR_MAXIMO, Math.min(VALOR_MAXIMO, lucro));
+    return BigDecimal.valueOf(Math.round(lucro * 100), 2);
+  }
+
+  // Aguardando ainda não sacou; finalizadas quase sempre já sacaram
+  private static boolean sortearSaque(Situacao situacao, SplittableRandom random) {
+    return switch (situacao) {
+      case AGUARDANDO -> false;
+      case CANCELADO -> true;
+      default -> random.nextInt(100) < 75;
+    };
+  }
+}
@@ -0,0 +1,321 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.thomaskavi.lucrabet.dto.ErroImportacaoDTO;
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.dto.ResultadoImportacaoDTO;
+import com.thomaskavi.lucrabet.entities.Conta;
+import com.thomaskavi.lucrabet.entities.Plataforma;
+import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+import com.thomaskavi.lucrabet.entities.Situacao;
+import com.thomaskavi.lucrabet.events.RegistrosAlteradosEvent;
+import com.thomaskavi.lucrabet.repositories.RegistroOperacaoRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Importação em lote de registros a partir de um CSV exportado da planilha.
+ *
+ * A primeira linha é o cabeçalho e as colunas seguem a ordem da planilha:
+ * Plataforma; Conta; Data; Valor Depós.; Slot/Giros; Situação; Lucro; Saque
+ * Completo. O separador pode ser ";" ou "," (detectado pelo cabeçalho), as
+ * datas podem estar em dd/MM/yyyy ou yyyy-MM-dd e os valores aceitam o formato
+ * brasileiro ("R$ 1.234,56").
+ *
+ * O arquivo é lido em streaming e gravado em lotes: cada lote resolve as
+ * plataformas e contas com uma consulta só, insere os registros em lotes JDBC
+ * e atualiza o agregado diário, tudo em uma transação própria. Linhas
+ * inválidas são reportadas sem interromper a importação; se o banco recusar
+ * um lote, as linhas dele são gravadas uma a uma e só as recusadas viram erro.
+ */
+@Service
+public class ImportacaoRegistroService {
+
+  private static final int LINHAS_POR_LOTE = 1000;
+
+  // Limite de erros devolvidos na resposta (os demais são apenas contados)
+  private static final int MAXIMO_ERROS_REPORTADOS = 1000;
+
+  private static final int COLUNAS = 8;
+
+  // VARCHAR(255) de link_plataforma, nome_conta e nome_slot_giros
+  private static final int TAMANHO_MAXIMO_TEXTO = 255;
+
+  private static final DateTimeFormatter DATA_BRASILEIRA = DateTimeFormatter.ofPattern("dd/MM/uuuu")
+      .withResolverStyle(ResolverStyle.STRICT);
+
+  @Autowired
+  private RegistroOperacaoRepository registroOperacaoRepository;
+
+  @Autowired
+  private PlataformaService plataformaService;
+
+  @Autowired
+  private ContaService contaService;
+
+  @Autowired
+  private AgregadoDiarioService agregadoDiarioService;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  // Uma linha já convertida, guardando o número da linha para reportar erros
+  private static class LinhaLida {
+    private final long numero;
+    private final RegistroOperacao registro;
+
+    LinhaLida(long numero, RegistroOperacao registro) {
+      this.numero = numero;
+      this.registro = registro;
+    }
+  }
+
+  // Contadores e erros acumulados durante uma importação
+  private static class Progresso {
+    private long linhasLidas;
+    private long linhasImportadas;
+    private long linhasComErro;
+    private final List<ErroImportacaoDTO> erros = new ArrayList<>();
+
+    void registrarErro(long linha, String mensagem) {
+      linhasComErro++;
+      if (erros.size() < MAXIMO_ERROS_REPORTADOS) {
+        erros.add(new ErroImportacaoDTO(linha, mensagem));
+      }
+    }
+  }
+
+  public ResultadoImportacaoDTO importar(InputStream entrada) throws IOException {
+    long inicio = System.nanoTime();
+    Progresso progresso = new Progresso();
+
+    BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+    String cabecalho = reader.readLine();
+    if (cabecalho != null) {
+      char separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+      List<LinhaLida> lote = new ArrayList<>(LINHAS_POR_LOTE);
+      long numeroLinha = 1;
+      String linha;
+      while ((linha = reader.readLine()) != null) {
+        numeroLinha++;
+        if (linha.isBlank()) {
+          continue;
+        }
+        progresso.linhasLidas++;
+        try {
+          lote.add(new LinhaLida(numeroLinha, converterLinha(linha, separador)));
+        } catch (IllegalArgumentException e) {
+          progresso.registrarErro(numeroLinha, e.getMessage());
+        }
+
+        if (lote.size() == LINHAS_POR_LOTE) {
+          gravarLote(lote, progresso);
+          lote.clear();
+        }
+      }
+      gravarLote(lote, progresso);
+    }
+
+    long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+    return new ResultadoImportacaoDTO(progresso.linhasLidas, progresso.linhasImportadas, progresso.linhasComErro,
+        duracaoMs, progresso.erros);
+  }
+
+  /**
+   * Grava um lote em uma transação própria. Se o banco recusar o lote, cada
+   * linha é tentada de novo na sua própria transação, para que só as linhas
+   * recusadas sejam reportadas como erro.
+   */
+  private void gravarLote(List<LinhaLida> lote, Progresso progresso) {
+    if (lote.isEmpty()) {
+      return;
+    }
+    try {
+      gravar(lote);
+      progresso.linhasImportadas += lote.size();
+    } catch (RuntimeException e) {
+      for (LinhaLida linha : lote) {
+        try {
+          gravar(List.of(novaTentativa(linha)));
+          progresso.linhasImportadas++;
+        } catch (RuntimeException erroLinha) {
+          progresso.registrarErro(linha.numero, "Linha não gravada: " + erroLinha.getMessage());
+        }
+      }
+    }
+  }
+
+  private void gravar(List<LinhaLida> lote) {
+    // Plataformas e contas são resolvidas antes da transação do lote (novas são
+    // criadas e confirmadas à parte, como no RegistroOperacaoService.save)
+    Set<String> links = new HashSet<>();
+    Set<String> nomes = new HashSet<>();
+    for (LinhaLida linha : lote) {
+      links.add(linha.registro.getPlataforma().getLinkPlataforma());
+      nomes.add(linha.registro.getConta().getNomeConta());
+    }
+    Map<String, Plataforma> plataformas = plataformaService.getOrCreatePlataformas(links);
+    Map<String, Conta> contas = contaService.getOrCreateContas(nomes);
+
+    List<RegistroOperacao> registros = new ArrayList<>(lote.size());
+    for (LinhaLida linha : lote) {
+      RegistroOperacao registro = linha.registro;
+      registro.setPlataforma(plataformas.get(registro.getPlataforma().getLinkPlataforma()));
+      registro.setConta(contas.get(registro.getConta().getNomeConta()));
+      registros.add(registro);
+    }
+
+    transactionTemplate.executeWithoutResult(status -> {
+      registroOperacaoRepository.saveAll(registros);
+      entityManager.flush();
+      // Libera as entidades do lote: a memória não cresce com o arquivo e os
+      // MERGEs do agregado não disparam dirty checking do lote inteiro
+      entityManager.clear();
+      agregadoDiarioService.adicionarLote(registros);
+      eventPublisher.publishEvent(
+          RegistrosAlteradosEvent.gravados(registros.stream().map(RegistroOperacaoDTO::new).toList()));
+    });
+  }
+
+  // O persist do lote recusado já deu id e versão às entidades; a nova
+  // tentativa usa uma cópia sem eles, para ser inserida e não mesclada
+  private LinhaLida novaTentativa(LinhaLida linha) {
+    RegistroOperacao r = linha.registro;
+    return new LinhaLida(linha.numero, new RegistroOperacao(null, r.getPlataforma(), r.getConta(),
+        r.getDataOperacao(), r.getValorDeposito(), r.getNomeSlotGiros(), r.getSituacao(), r.getValorLucro(),
+        r.getSaqueCompletoFeito()));
+  }
+
+  // --- Conversão das colunas da planilha ---
+
+  private RegistroOperacao converterLinha(String linha, char separador) {
+    List<String> colunas = dividir(linha, separador);
+    if (colunas.size() < COLUNAS) {
+      throw new IllegalArgumentException(
+          "Esperadas " + COLUNAS + " colunas, encontradas " + colunas.size());
+    }
+
+    RegistroOperacao registro = new RegistroOperacao();
+    registro.setPlataforma(new Plataforma(null, limitado(obrigatorio(colunas.get(0), "Plataforma"), "Plataforma")));
+    registro.setConta(new Conta(null, limitado(obrigatorio(colunas.get(1), "Conta"), "Conta")));
+    registro.setDataOperacao(converterData(colunas.get(2)));
+    registro.setValorDeposito(converterValor(colunas.get(3), "Valor Depós."));
+    String slot = colunas.get(4).trim();
+    registro.setNomeSlotGiros(slot.isEmpty() ? null : limitado(slot, "Slot/Giros"));
+    registro.setSituacao(Situacao.de(obrigatorio(colunas.get(5), "Situação")));
+    registro.setValorLucro(converterValor(colunas.get(6), "Lucro"));
+    registro.setSaqueCompletoFeito(converterSimNao(colunas.get(7)));
+    return registro;
+  }
+
+  private String obrigatorio(String valor, String coluna) {
+    String texto = valor.trim();
+    if (texto.isEmpty()) {
+      throw new IllegalArgumentException("Coluna '" + coluna + "' vazia");
+    }
+    return texto;
+  }
+
+  private String limitado(String texto, String coluna) {
+    if (texto.length() > TAMANHO_MAXIMO_TEXTO) {
+      throw new IllegalArgumentException(
+          "Coluna '" + coluna + "' com mais de " + TAMANHO_MAXIMO_TEXTO + " caracteres");
+    }
+    return texto;
+  }
+
+  private LocalDate converterData(String valor) {
+    String texto = valor.trim();
+    try {
+      return texto.contains("/") ? LocalDate.parse(texto, DATA_BRASILEIRA) : LocalDate.parse(texto);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Data inválida: '" + texto + "'");
+    }
+  }
+
+  // Aceita "1234.56", "1.234,56", "R$ -10,00"; precisa caber em DECIMAL(10, 2)
+  private BigDecimal converterValor(String valor, String coluna) {
+    String texto = valor.replace("R$", "").replace(" ", "").trim();
+    if (texto.contains(",")) {
+      texto = texto.replace(".", "").replace(',', '.');
+    }
+    try {
+      BigDecimal numero = new BigDecimal(texto).setScale(2, RoundingMode.UNNECESSARY);
+      if (numero.precision() > 10) {
+        throw new IllegalArgumentException("Valor fora do limite na coluna '" + coluna + "': '" + valor + "'");
+      }
+      return numero;
+    } catch (ArithmeticException | NumberFormatException e) {
+      throw new IllegalArgumentException("Valor inválido na coluna '" + coluna + "': '" + valor + "'");
+    }
+  }
+
+  private Boolean converterSimNao(String valor) {
+    switch (valor.trim().toLowerCase(Locale.ROOT)) {
+      case "sim", "s", "true", "1", "x":
+        return true;
+      case "não", "nao", "n", "false", "0", "":
+        return false;
+      default:
+        throw new IllegalArgumentException("Valor inválido na coluna 'Saque Completo': '" + valor + "'");
+    }
+  }
+
+  // Divide uma linha CSV respeitando campos entre aspas ("a;b" e aspas
+  // duplicadas "" dentro deles)
+  private List<String> dividir(String linha, char separador) {
+    List<String> colunas = new ArrayList<>(COLUNAS);
+    StringBuilder atual = new StringBuilder();
+    boolean entreAspas = false;
+    for (int i = 0; i < linha.length(); i++) {
+      char c = linha.charAt(i);
+      if (entreAspas) {
+        if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+          atual.append('"');
+          i++;
+        } else if (c == '"') {
+          entreAspas = false;
+        } else {
+          atual.append(c);
+        }
+      } else if (c == '"') {
+        entreAspas = true;
+      } else if (c == separador) {
+        colunas.add(atual.toString());
+        atual.setLength(0);
+      } else {
+        atual.append(c);
+      }
+    }
+    colunas.add(atual.toString());
+    return colunas;
+  }
+}
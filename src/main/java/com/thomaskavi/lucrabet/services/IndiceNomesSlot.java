@@ -0,0 +1,122 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Índice em memória dos nomes de slot para busca por texto (autocompletar),
+ * indexados pelo código do slot no LivroColunar.
+ *
+ * Os nomes são normalizados (minúsculas, sem acentos) e indexados de duas
+ * formas:
+ * - prefixo de palavra: um TreeMap com o nome a partir do início de cada
+ * palavra ("fortune tiger" → "fortune tiger" e "tiger"), então "tig" e
+ * "fortune t" são um subMap, O(log n + resultados);
+ * - trigramas: para texto no meio de uma palavra ("rtun"), a lista do trigrama
+ * mais raro do texto dá os candidatos, conferidos com contains().
+ *
+ * Não é thread-safe: o AnaliticoService controla o acesso com um
+ * ReadWriteLock.
+ */
+class IndiceNomesSlot {
+
+  private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+  private static final int TAMANHO_NGRAMA = 3;
+
+  private final Map<Integer, String> normalizados = new HashMap<>();
+  private final NavigableMap<String, Set<Integer>> porInicioDePalavra = new TreeMap<>();
+  private final Map<String, Set<Integer>> porTrigrama = new HashMap<>();
+
+  static String normalizar(String texto) {
+    String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+    return semAcentos.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+  }
+
+  void adicionar(int codigo, String nome) {
+    String normalizado = normalizar(nome);
+    if (normalizados.putIfAbsent(codigo, normalizado) != null) {
+      return;
+    }
+    for (int inicio : iniciosDePalavra(normalizado)) {
+      porInicioDePalavra.computeIfAbsent(normalizado.substring(inicio), k -> new HashSet<>()).add(codigo);
+    }
+    for (int i = 0; i + TAMANHO_NGRAMA <= normalizado.length(); i++) {
+      porTrigrama.computeIfAbsent(normalizado.substring(i, i + TAMANHO_NGRAMA), k -> new HashSet<>()).add(codigo);
+    }
+  }
+
+  void remover(int codigo) {
+    String normalizado = normalizados.remove(codigo);
+    if (normalizado == null) {
+      return;
+    }
+    for (int inicio : iniciosDePalavra(normalizado)) {
+      retirar(porInicioDePalavra, normalizado.substring(inicio), codigo);
+    }
+    for (int i = 0; i + TAMANHO_NGRAMA <= normalizado.length(); i++) {
+      retirar(porTrigrama, normalizado.substring(i, i + TAMANHO_NGRAMA), codigo);
+    }
+  }
+
+  /**
+   * Entrega ao consumidor o código de cada slot cujo nome tem o texto no
+   * início de uma palavra ou, com 3 ou mais caracteres, em qualquer posição.
+   * Cada código é entregue uma vez.
+   */
+  void buscar(String texto, IntConsumer consumidor) {
+    String busca = normalizar(texto);
+    if (busca.isEmpty()) {
+      normalizados.keySet().forEach(consumidor::accept);
+      return;
+    }
+    Set<Integer> encontrados = new HashSet<>();
+    for (Set<Integer> codigos : porInicioDePalavra.subMap(busca, true, busca + Character.MAX_VALUE, false)
+        .values()) {
+      for (Integer codigo : codigos) {
+        if (encontrados.add(codigo)) {
+          consumidor.accept(codigo);
+        }
+      }
+    }
+    if (busca.length() < TAMANHO_NGRAMA) {
+      return;
+    }
+    Set<Integer> candidatos = null;
+    for (int i = 0; i + TAMANHO_NGRAMA <= busca.length(); i++) {
+      Set<Integer> codigos = porTrigrama.get(busca.substring(i, i + TAMANHO_NGRAMA));
+      if (codigos == null) {
+        return;
+      }
+      if (candidatos == null || codigos.size() < candidatos.size()) {
+        candidatos = codigos;
+      }
+    }
+    for (Integer codigo : candidatos) {
+      if (!encontrados.contains(codigo) && normalizados.get(codigo).contains(busca)) {
+        consumidor.accept(codigo);
+      }
+    }
+  }
+
+  private static int[] iniciosDePalavra(String normalizado) {
+    return IntStream.range(0, normalizado.length())
+        .filter(i -> (i == 0 || normalizado.charAt(i - 1) == ' ') && normalizado.charAt(i) != ' ')
+        .toArray();
+  }
+
+  private static void retirar(Map<String, Set<Integer>> indice, String chave, int codigo) {
+    Set<Integer> codigos = indice.get(chave);
+    if (codigos != null && codigos.remove(codigo) && codigos.isEmpty()) {
+      indice.remove(chave);
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.entities.Situacao;
+import com.thomaskavi.lucrabet.util.Centavos;
+import com.thomaskavi.lucrabet.util.SketchQuantis;
+import com.thomaskavi.lucrabet.util.TotaisCentavos;
+
+/**
+ * Cópia em memória de tb_registros_operacoes organizada por colunas: cada
+ * atributo é um array primitivo indexado pela linha. Datas são epoch-days
+ * (int), valores são centavos (long), plataforma/conta/situação/slot são
+ * códigos de dicionário (int) e saqueCompletoFeito é um BitSet.
+ *
+ * Por slot (código do dicionário) são mantidos de forma incremental os totais
+ * e a distribuição do lucro das linhas ativas, e os nomes dos slots com alguma
+ * linha ficam no índice de busca por texto.
+ *
+ * Linhas excluídas só são desligadas no BitSet "ativas" e o espaço é
+ * recuperado por compactar(). Não é thread-safe: o AnaliticoService controla o
+ * acesso com um ReadWriteLock.
+ */
+class LivroColunar {
+
+  private static final int CAPACIDADE_INICIAL = 1024;
+
+  // Dicionário valor ↔ código denso (0, 1, 2...); aceita null como valor
+  static class Dicionario<T> {
+    private final Map<T, Integer> codigos = new HashMap<>();
+    private final List<T> valores = new ArrayList<>();
+
+    int codificar(T valor) {
+      Integer codigo = codigos.get(valor);
+      if (codigo == null) {
+        codigo = valores.size();
+        codigos.put(valor, codigo);
+        valores.add(valor);
+      }
+      return codigo;
+    }
+
+    // -1 se o valor nunca apareceu
+    int codigo(T valor) {
+      return codigos.getOrDefault(valor, -1);
+    }
+
+    T valor(int codigo) {
+      return valores.get(codigo);
+    }
+
+    int tamanho() {
+      return valores.size();
+    }
+  }
+
+  // Totais e distribuição do lucro das linhas ativas de um slot
+  static class EstatisticaSlot {
+    final TotaisCentavos totais = new TotaisCentavos();
+    final SketchQuantis lucros = new SketchQuantis();
+  }
+
+  int linhas;
+  int removidas;
+
+  long[] ids = new long[CAPACIDADE_INICIAL];
+  int[] dias = new int[CAPACIDADE_INICIAL];
+  long[] lucros = new long[CAPACIDADE_INICIAL];
+  long[] depositos = new long[CAPACIDADE_INICIAL];
+  int[] plataformas = new int[CAPACIDADE_INICIAL];
+  int[] contas = new int[CAPACIDADE_INICIAL];
+  int[] situacoes = new int[CAPACIDADE_INICIAL];
+  int[] slots = new int[CAPACIDADE_INICIAL];
+  BitSet saques = new BitSet();
+  BitSet ativas = new BitSet();
+
+  // Plataformas e contas são codificadas pelo id (não pelo nome, que pode ser
+  // renomeado); os nomes atuais ficam nos mapas abaixo
+  final Dicionario<Long> dicionarioPlataformas = new Dicionario<>();
+  final Dicionario<Long> dicionarioContas = new Dicionario<>();
+  final Dicionario<Situacao> dicionarioSituacoes = new Dicionario<>();
+  final Dicionario<String> dicionarioSlots = new Dicionario<>();
+  final Map<Long, String> nomesPlataformas = new HashMap<>();
+  final Map<Long, String> nomesContas = new HashMap<>();
+
+  // Indexada pelo código do slot (null para o código do nome null)
+  final List<EstatisticaSlot> estatisticasSlots = new ArrayList<>();
+  final IndiceNomesSlot indiceSlots = new IndiceNomesSlot();
+
+  private final Map<Long, Integer> linhaPorId = new HashMap<>();
+
+  // Insere o registro ou, se o id já existir, sobrescreve a sua linha
+  void gravar(RegistroOperacaoDTO registro) {
+    Integer existente = linhaPorId.get(registro.getId());
+    int linha;
+    if (existente != null) {
+      linha = existente;
+      retirarDoSlot(linha);
+    } else {
+      garantirCapacidade(linhas + 1);
+      linha = linhas++;
+      linhaPorId.put(registro.getId(), linha);
+      ativas.set(linha);
+    }
+
+    ids[linha] = registro.getId();
+    dias[linha] = (int) registro.getDataOperacao().toEpochDay();
+    lucros[linha] = Centavos.de(registro.getValorLucro());
+    depositos[linha] = Centavos.de(registro.getValorDeposito());
+    plataformas[linha] = dicionarioPlataformas.codificar(registro.getPlataformaId());
+    contas[linha] = dicionarioContas.codificar(registro.getContaId());
+    situacoes[linha] = dicionarioSituacoes.codificar(registro.getSituacao());
+    slots[linha] = dicionarioSlots.codificar(registro.getNomeSlotGiros());
+    saques.set(linha, Boolean.TRUE.equals(registro.getSaqueCompletoFeito()));
+    somarNoSlot(linha);
+    nomesPlataformas.put(registro.getPlataformaId(), registro.getLinkPlataforma());
+    nomesContas.put(registro.getContaId(), registro.getNomeConta());
+  }
+
+  void remover(Long id) {
+    Integer linha = linhaPorId.remove(id);
+    if (linha != null) {
+      retirarDoSlot(linha);
+      ativas.clear(linha);
+      removidas++;
+      // Recupera o espaço quando metade das linhas já foi excluída
+      if (removidas > CAPACIDADE_INICIAL && removidas > linhas / 2) {
+        compactar();
+      }
+    }
+  }
+
+  private void somarNoSlot(int linha) {
+    int codigo = slots[linha];
+    String nome = dicionarioSlots.valor(codigo);
+    if (nome == null) {
+      return;
+    }
+    while (estatisticasSlots.size() <= codigo) {
+      estatisticasSlots.add(null);
+    }
+    EstatisticaSlot estatistica = estatisticasSlots.get(codigo);
+    if (estatistica == null) {
+      estatistica = new EstatisticaSlot();
+      estatisticasSlots.set(codigo, estatistica);
+    }
+    if (estatistica.totais.getQuantidadeOperacoes() == 0) {
+      indiceSlots.adicionar(codigo, nome);
+    }
+    estatistica.totais.adicionar(lucros[linha], depositos[linha], saques.get(linha), 1);
+    estatistica.lucros.adicionar(lucros[linha]);
+  }
+
+  private void retirarDoSlot(int linha) {
+    int codigo = slots[linha];
+    if (dicionarioSlots.valor(codigo) == null) {
+      return;
+    }
+    EstatisticaSlot estatistica = estatisticasSlots.get(codigo);
+    estatistica.totais.adicionar(lucros[linha], depositos[linha], saques.get(linha), -1);
+    estatistica.lucros.remover(lucros[linha]);
+    // Slot sem nenhuma operação sai da busca por texto
+    if (estatistica.totais.getQuantidadeOperacoes() == 0) {
+      indiceSlots.remover(codigo);
+    }
+  }
+
+  // Move as linhas ativas para o início dos arrays
+  void compactar() {
+    int destino = 0;
+    for (int origem = ativas.nextSetBit(0); origem >= 0; origem = ativas.nextSetBit(origem + 1)) {
+      ids[destino] = ids[origem];
+      dias[destino] = dias[origem];
+      lucros[destino] = lucros[origem];
+      depositos[destino] = depositos[origem];
+      plataformas[destino] = plataformas[origem];
+      contas[destino] = contas[origem];
+      situacoes[destino] = situacoes[origem];
+      slots[destino] = slots[origem];
+      saques.set(destino, saques.get(origem));
+      linhaPorId.put(ids[destino], destino);
+      destino++;
+    }
+    saques.clear(destino, linhas);
+    ativas.clear();
+    ativas.set(0, destino);
+    linhas = destino;
+    removidas = 0;
+  }
+
+  private void garantirCapacidade(int minimo) {
+    if (minimo <= ids.length) {
+      return;
+    }
+    int capacidade = Math.max(minimo, ids.length * 2);
+    ids = Arrays.copyOf(ids, capacidade);
+    dias = Arrays.copyOf(dias, capacidade);
+    lucros = Arrays.copyOf(lucros, capacidade);
+    depositos = Arrays.copyOf(depositos, capacidade);
+    plataformas = Arrays.copyOf(plataformas, capacidade);
+    contas = Arrays.copyOf(contas, capacidade);
+    situacoes = Arrays.copyOf(situacoes, capacidade);
+    slots = Arrays.copyOf(slots, capacidade);
+  }
+}
@@ -0,0 +1,149 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import com.thomaskavi.lucrabet.dto.PaginaDTO;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mede cada chamada dos métodos públicos do RegistroOperacaoService e de todos
+ * os repositórios:
+ *
+ * - lucrabet.servico / lucrabet.repositorio: timers com as tags class, method,
+ * outcome (SUCCESS ou ERROR) e exception (classe da exceção, ou none);
+ * - lucrabet.servico.linhas / lucrabet.repositorio.linhas: quantidade de
+ * linhas de cada resultado em lista (ou página), com as tags class e method.
+ *
+ * Métodos que devolvem um Stream ficam de fora: a chamada só monta o Stream e
+ * as linhas são lidas depois, por quem o consome. A exportação
+ * (streamParaExportacao) é medida no ExportacaoRegistroService, com a leitura
+ * das linhas incluída.
+ *
+ * Os histogramas de percentis e os percentis publicados vêm da configuração
+ * (management.metrics.distribution.* em application.properties). Os meters de
+ * cada método são criados na primeira chamada e guardados, então o custo por
+ * chamada é o de duas leituras de System.nanoTime() e um registro no timer.
+ */
+@Aspect
+@Component
+public class MetricasAspect {
+
+  // Meters de um método, para não ir ao MeterRegistry a cada chamada
+  private static class Medidores {
+    private final String classe;
+    private final String metodo;
+    private final Timer sucesso;
+    // null quando o método não devolve uma lista
+    private final DistributionSummary linhas;
+
+    Medidores(String classe, String metodo, Timer sucesso, DistributionSummary linhas) {
+      this.classe = classe;
+      this.metodo = metodo;
+      this.sucesso = sucesso;
+      this.linhas = linhas;
+    }
+  }
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private final Map<Method, Medidores> servico = new ConcurrentHashMap<>();
+  // Por classe do proxy e método: os métodos herdados são o mesmo Method em
+  // todos os repositórios
+  private final Map<Class<?>, Map<Method, Medidores>> repositorio = new ConcurrentHashMap<>();
+
+  @Around("execution(public * com.thomaskavi.lucrabet.services.RegistroOperacaoService.*(..))")
+  public Object medirServico(ProceedingJoinPoint joinPoint) throws Throwable {
+    MethodSignature assinatura = (MethodSignature) joinPoint.getSignature();
+    Medidores medidores = servico.computeIfAbsent(assinatura.getMethod(),
+        m -> criar("lucrabet.servico", "RegistroOperacaoService", m));
+    return medir(joinPoint, "lucrabet.servico", medidores);
+  }
+
+  // Inclui os métodos herdados de JpaRepository (findAll, saveAll...), que
+  // aparecem com o nome do repositório da aplicação que os recebeu
+  @Around("execution(* org.springframework.data.repository.Repository+.*(..))"
+      + " && !execution(java.util.stream.BaseStream+ *(..))"
+      + " && target(org.springframework.data.repository.Repository)")
+  public Object medirRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+    MethodSignature assinatura = (MethodSignature) joinPoint.getSignature();
+    Object alvo = joinPoint.getTarget();
+    Medidores medidores = repositorio.computeIfAbsent(alvo.getClass(), c -> new ConcurrentHashMap<>())
+        .computeIfAbsent(assinatura.getMethod(),
+            m -> criar("lucrabet.repositorio", nomeRepositorio(alvo), m));
+    return medir(joinPoint, "lucrabet.repositorio", medidores);
+  }
+
+  private Object medir(ProceedingJoinPoint joinPoint, String nome, Medidores medidores) throws Throwable {
+    long inicio = System.nanoTime();
+    Object resultado;
+    try {
+      resultado = joinPoint.proceed();
+    } catch (Throwable e) {
+      // Erros são raros: o timer de cada exceção é buscado na hora
+      Timer.builder(nome).tag("class", medidores.classe).tag("method", medidores.metodo).tag("outcome", "ERROR")
+          .tag("exception", e.getClass().getSimpleName()).register(meterRegistry)
+          .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+      throw e;
+    }
+    medidores.sucesso.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+    if (medidores.linhas != null && resultado != null) {
+      medidores.linhas.record(contarLinhas(resultado));
+    }
+    return resultado;
+  }
+
+  private Medidores criar(String nome, String classe, Method metodo) {
+    Timer sucesso = Timer.builder(nome).description("Duração das chamadas")
+        .tag("class", classe).tag("method", metodo.getName()).tag("outcome", "SUCCESS").tag("exception", "none")
+        .register(meterRegistry);
+    DistributionSummary linhas = null;
+    if (devolveLista(metodo.getReturnType())) {
+      linhas = DistributionSummary.builder(nome + ".linhas")
+          .description("Linhas devolvidas pelas consultas em lista").baseUnit("linhas")
+          .tag("class", classe).tag("method", metodo.getName()).register(meterRegistry);
+    }
+    return new Medidores(classe, metodo.getName(), sucesso, linhas);
+  }
+
+  private static boolean devolveLista(Class<?> tipo) {
+    return Collection.class.isAssignableFrom(tipo) || PaginaDTO.class.isAssignableFrom(tipo)
+        || Slice.class.isAssignableFrom(tipo);
+  }
+
+  private static int contarLinhas(Object resultado) {
+    if (resultado instanceof Collection<?> colecao) {
+      return colecao.size();
+    }
+    if (resultado instanceof PaginaDTO<?> pagina) {
+      return pagina.getConteudo().size();
+    }
+    return ((Slice<?>) resultado).getNumberOfElements();
+  }
+
+  // O alvo é o proxy do Spring Data: o nome vem da interface da aplicação
+  private static String nomeRepositorio(Object alvo) {
+    for (Class<?> interfaceAlvo : alvo.getClass().getInterfaces()) {
+      if (interfaceAlvo.getPackageName().startsWith("com.thomaskavi.lucrabet")) {
+        return interfaceAlvo.getSimpleName();
+      }
+    }
+    return alvo.getClass().getSimpleName();
+  }
+}
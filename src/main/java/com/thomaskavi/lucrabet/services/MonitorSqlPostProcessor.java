@@ -0,0 +1,181 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Envolve o DataSource da aplicação para medir cada comando SQL executado e
+ * repassar ao MonitorSqlService, sem o custo do spring.jpa.show-sql.
+ *
+ * Conexões e statements são proxies dinâmicos que só observam: os métodos
+ * set* guardam o tipo de cada parâmetro, addBatch conta as linhas do lote e
+ * os execute* são cronometrados. Todo o resto vai direto para o objeto real
+ * (inclusive unwrap, então o Hikari continua acessível para as métricas do
+ * pool). O proxy do DataSource implementa todas as interfaces do original,
+ * inclusive Closeable: é pelo close() que o Spring fecha o pool ao encerrar o
+ * contexto. O tempo de um executeQuery vai até o ResultSet ser devolvido, sem a
+ * leitura das linhas.
+ */
+@Component
+public class MonitorSqlPostProcessor implements BeanPostProcessor {
+
+  // Resolvido só no primeiro comando: o DataSource é criado antes dos serviços
+  private final ObjectProvider<MonitorSqlService> provedorMonitor;
+  private volatile MonitorSqlService monitor;
+
+  public MonitorSqlPostProcessor(ObjectProvider<MonitorSqlService> provedorMonitor) {
+    this.provedorMonitor = provedorMonitor;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof DataSource dataSource) {
+      return proxy(ClassUtils.getAllInterfaces(dataSource), (proxy, metodo, args) -> {
+        Object resultado = invocar(dataSource, metodo, args);
+        return resultado instanceof Connection conexao ? proxy(Connection.class, new ConexaoMonitorada(conexao))
+            : resultado;
+      });
+    }
+    return bean;
+  }
+
+  private MonitorSqlService monitor() {
+    MonitorSqlService atual = monitor;
+    if (atual == null) {
+      atual = provedorMonitor.getObject();
+      monitor = atual;
+    }
+    return atual;
+  }
+
+  private class ConexaoMonitorada implements InvocationHandler {
+    private final Connection alvo;
+
+    ConexaoMonitorada(Connection alvo) {
+      this.alvo = alvo;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+      Object resultado = invocar(alvo, metodo, args);
+      String nome = metodo.getName();
+      if (resultado instanceof Statement statement && (nome.startsWith("prepare") || nome.equals("createStatement"))) {
+        String sql = nome.startsWith("prepare") ? (String) args[0] : null;
+        return proxy(metodo.getReturnType(), new ComandoMonitorado(statement, sql, monitor()));
+      }
+      return resultado;
+    }
+  }
+
+  private static class ComandoMonitorado implements InvocationHandler {
+    private final Statement alvo;
+    private final MonitorSqlService monitor;
+    private String sql;
+
+    // Por posição: o nome do método set* usado, ou a classe do valor em
+    // setObject, ou "null" (traduzido para o tipo só nos comandos lentos)
+    private Object[] parametros = new Object[16];
+    private int quantidadeParametros;
+    private int lote;
+
+    ComandoMonitorado(Statement alvo, String sql, MonitorSqlService monitor) {
+      this.alvo = alvo;
+      this.sql = sql;
+      this.monitor = monitor;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+      String nome = metodo.getName();
+      if (nome.startsWith("execute")) {
+        return executar(metodo, args);
+      }
+      if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer posicao
+          && metodo.getDeclaringClass() != Statement.class) {
+        registrarParametro(posicao, nome, args[1]);
+      } else if (nome.equals("addBatch")) {
+        lote++;
+        if (args != null) {
+          sql = (String) args[0];
+        }
+      } else if (nome.equals("clearParameters")) {
+        quantidadeParametros = 0;
+      } else if (nome.equals("clearBatch")) {
+        lote = 0;
+      }
+      return invocar(alvo, metodo, args);
+    }
+
+    private void registrarParametro(int posicao, String metodoSet, Object valor) {
+      if (posicao > parametros.length) {
+        parametros = Arrays.copyOf(parametros, Math.max(posicao, parametros.length * 2));
+      }
+      Object forma = metodoSet;
+      if (metodoSet.equals("setNull") || (metodoSet.equals("setObject") && valor == null)) {
+        forma = "null";
+      } else if (metodoSet.equals("setObject")) {
+        forma = valor.getClass();
+      }
+      parametros[posicao - 1] = forma;
+      quantidadeParametros = Math.max(quantidadeParametros, posicao);
+    }
+
+    private Object executar(Method metodo, Object[] args) throws Throwable {
+      long inicio = System.nanoTime();
+      try {
+        return invocar(alvo, metodo, args);
+      } finally {
+        long nanos = System.nanoTime() - inicio;
+        if (monitor.contar(nanos)) {
+          String texto = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+          monitor.registrarLento(texto == null ? "" : texto.replaceAll("\\s+", " ").trim(), formas(),
+              Math.max(lote, 1), nanos);
+        }
+        if (metodo.getName().equals("executeBatch") || metodo.getName().equals("executeLargeBatch")) {
+          lote = 0;
+        }
+      }
+    }
+
+    private List<String> formas() {
+      List<String> formas = new ArrayList<>(quantidadeParametros);
+      for (int i = 0; i < quantidadeParametros; i++) {
+        Object forma = parametros[i];
+        formas.add(forma instanceof Class<?> classe ? classe.getSimpleName()
+            : forma == null ? "?" : forma.equals("null") ? "null" : ((String) forma).substring(3));
+      }
+      return formas;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> tipo, InvocationHandler handler) {
+    return (T) proxy(new Class<?>[] { tipo }, handler);
+  }
+
+  private static Object proxy(Class<?>[] tipos, InvocationHandler handler) {
+    return Proxy.newProxyInstance(MonitorSqlPostProcessor.class.getClassLoader(), tipos, handler);
+  }
+
+  private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+    try {
+      return metodo.invoke(alvo, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.thomaskavi.lucrabet.dto.ComandoSqlDTO;
+import com.thomaskavi.lucrabet.dto.RequisicaoSqlDTO;
+
+/**
+ * Contagem e amostragem dos comandos SQL executados pela aplicação,
+ * alimentadas pelo DataSource monitorado (MonitorSqlPostProcessor).
+ *
+ * - Todo comando é contado, no total e na requisição em andamento (quando a
+ * thread está dentro de uma requisição da API, ver ComandosSqlFilter).
+ * - Os comandos que levam lucrabet.sql.limiar-lento-ms ou mais vão para um
+ * buffer circular de lucrabet.sql.capacidade posições, com o SQL, a forma dos
+ * parâmetros (só os tipos, nunca os valores), o tamanho do lote e a
+ * requisição de origem. Os mais antigos são sobrescritos.
+ */
+@Service
+public class MonitorSqlService {
+
+  // Comandos e tempo da requisição em andamento na thread
+  private static class Requisicao {
+    private final String uri;
+    private long comandos;
+    private long nanos;
+
+    Requisicao(String uri) {
+      this.uri = uri;
+    }
+  }
+
+  private final long limiarNanos;
+  private final ComandoSqlDTO[] lentos;
+  private long proximoLento;
+
+  private final LongAdder comandos = new LongAdder();
+  private final LongAdder nanosComandos = new LongAdder();
+  private final LongAdder requisicoes = new LongAdder();
+  private final LongAdder comandosEmRequisicoes = new LongAdder();
+
+  // Requisição com mais comandos desde a última limpeza
+  private volatile RequisicaoSqlDTO maiorRequisicao;
+
+  private final ThreadLocal<Requisicao> requisicaoAtual = new ThreadLocal<>();
+
+  public MonitorSqlService(@Value("${lucrabet.sql.limiar-lento-ms:50}") long limiarLentoMs,
+      @Value("${lucrabet.sql.capacidade:100}") int capacidade) {
+    this.limiarNanos = limiarLentoMs * 1_000_000;
+    this.lentos = new ComandoSqlDTO[capacidade];
+  }
+
+  /**
+   * Conta um comando que levou "nanos" e diz se ele é lento (e deve ser
+   * detalhado em registrarLento).
+   */
+  public boolean contar(long nanos) {
+    comandos.increment();
+    nanosComandos.add(nanos);
+    Requisicao requisicao = requisicaoAtual.get();
+    if (requisicao != null) {
+      requisicao.comandos++;
+      requisicao.nanos += nanos;
+    }
+    return nanos >= limiarNanos;
+  }
+
+  public void registrarLento(String sql, List<String> parametros, int lote, long nanos) {
+    Requisicao requisicao = requisicaoAtual.get();
+    ComandoSqlDTO comando = new ComandoSqlDTO(sql, parametros, lote, nanos / 1e6, Instant.now(),
+        requisicao == null ? null : requisicao.uri);
+    synchronized (lentos) {
+      lentos[(int) (proximoLento++ % lentos.length)] = comando;
+    }
+  }
+
+  public void iniciarRequisicao(String uri) {
+    requisicaoAtual.set(new Requisicao(uri));
+  }
+
+  // Encerra a requisição da thread e devolve quantos comandos ela executou
+  public long encerrarRequisicao() {
+    Requisicao requisicao = requisicaoAtual.get();
+    requisicaoAtual.remove();
+    if (requisicao == null) {
+      return 0;
+    }
+    requisicoes.increment();
+    comandosEmRequisicoes.add(requisicao.comandos);
+    RequisicaoSqlDTO maior = maiorRequisicao;
+    if (maior == null || requisicao.comandos > maior.getComandos()) {
+      synchronized (this) {
+        if (maiorRequisicao == null || requisicao.comandos > maiorRequisicao.getComandos()) {
+          maiorRequisicao = new RequisicaoSqlDTO(requisicao.uri, requisicao.comandos,
+              requisicao.nanos / 1e6);
+        }
+      }
+    }
+    return requisicao.comandos;
+  }
+
+  // Comandos lentos ainda no buffer, do mais lento para o mais rápido
+  public List<ComandoSqlDTO> getLentos() {
+    List<ComandoSqlDTO> copia = new ArrayList<>(lentos.length);
+    synchronized (lentos) {
+      for (ComandoSqlDTO comando : lentos) {
+        if (comando != null) {
+          copia.add(comando);
+        }
+      }
+    }
+    copia.sort(Comparator.comparingDouble(ComandoSqlDTO::getDuracaoMs).reversed());
+    return copia;
+  }
+
+  public long getComandos() {
+    return comandos.sum();
+  }
+
+  public double getTempoComandosMs() {
+    return nanosComandos.sum() / 1e6;
+  }
+
+  public long getRequisicoes() {
+    return requisicoes.sum();
+  }
+
+  public long getComandosEmRequisicoes() {
+    return comandosEmRequisicoes.sum();
+  }
+
+  public RequisicaoSqlDTO getMaiorRequisicao() {
+    return maiorRequisicao;
+  }
+
+  public long getLimiarLentoMs() {
+    return limiarNanos / 1_000_000;
+  }
+
+  public void limpar() {
+    synchronized (lentos) {
+      Arrays.fill(lentos, null);
+      proximoLento = 0;
+    }
+    comandos.reset();
+    nanosComandos.reset();
+    requisicoes.reset();
+    comandosEmRequisicoes.reset();
+    maiorRequisicao = null;
+  }
+}
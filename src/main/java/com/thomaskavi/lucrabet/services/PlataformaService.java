@@ -1,20 +1,63 @@
 package com.thomaskavi.lucrabet.services;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.thomaskavi.lucrabet.entities.Plataforma;
+import com.thomaskavi.lucrabet.events.CadastroAlteradoEvent;
 import com.thomaskavi.lucrabet.repositories.PlataformaRepository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class PlataformaService {
 
   @Autowired
   private PlataformaRepository plataformaRepository;
 
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  // Resultados do getOrCreate: já no cache, lido do banco ou criado
+  private Counter acertosCache;
+  private Counter encontradas;
+  private Counter criadas;
+
+  // Cache link → Plataforma usado pelo getOrCreatePlataforma
+  private final CacheResolucao<Plataforma> cache = new CacheResolucao<>(Plataforma::getId);
+
+  @PostConstruct
+  void iniciarMetricas() {
+    acertosCache = contador("cache");
+    encontradas = contador("banco");
+    criadas = contador("criado");
+  }
+
+  private Counter contador(String resultado) {
+    return Counter.builder("lucrabet.getorcreate").description("Resoluções do getOrCreate por resultado")
+        .tag("entidade", "plataforma").tag("resultado", resultado).register(meterRegistry);
+  }
+
   // Método para buscar todas as plataformas
   public List<Plataforma> findAll() {
     return plataformaRepository.findAll();
@@ -27,16 +70,29 @@ public class PlataformaService {
 
   // Método para salvar (criar ou atualizar) uma plataforma
   public Plataforma save(Plataforma plataforma) {
-    return plataformaRepository.save(plataforma);
+    Plataforma salva = plataformaRepository.save(plataforma);
+    if (plataforma.getId() != null) {
+      // Atualização: o link antigo não pode continuar resolvendo para este id
+      cache.invalidar(plataforma.getId());
+    }
+    eventPublisher.publishEvent(
+        new CadastroAlteradoEvent(CadastroAlteradoEvent.Tipo.PLATAFORMA, salva.getId(), salva.getLinkPlataforma()));
+    return salva;
   }
 
   // Método para deletar uma plataforma por ID
   public void deleteById(Long id) {
     plataformaRepository.deleteById(id);
+    cache.invalidar(id);
+    eventPublisher.publishEvent(new CadastroAlteradoEvent(CadastroAlteradoEvent.Tipo.PLATAFORMA, id, null));
   }
 
   // Método para buscar uma plataforma pelo nome do link
   public Optional<Plataforma> findByLinkPlataforma(String linkPlataforma) {
+    Plataforma emCache = cache.buscar(linkPlataforma);
+    if (emCache != null) {
+      return Optional.of(emCache);
+    }
     return plataformaRepository.findByLinkPlataforma(linkPlataforma);
   }
 
@@ -45,13 +101,83 @@ public class PlataformaService {
    * nova se não existir.
    * Isso é útil para garantir que não haja duplicação de plataformas ao criar
    * RegistroOperacao.
+   * O resultado fica em cache, e chamadas concorrentes para um link novo geram
+   * um único INSERT (ver CacheResolucao).
    * 
    * @param linkPlataforma O nome do link da plataforma.
    * @return A Plataforma encontrada ou uma nova criada e salva.
    */
   public Plataforma getOrCreatePlataforma(String linkPlataforma) {
-    return plataformaRepository.findByLinkPlataforma(linkPlataforma)
-        .orElseGet(() -> plataformaRepository.save(new Plataforma(null, linkPlataforma)));
-    // O ID é null aqui porque será gerado automaticamente pelo JPA
+    Plataforma emCache = cache.buscar(linkPlataforma);
+    if (emCache != null) {
+      acertosCache.increment();
+      return emCache;
+    }
+    return cache.resolver(linkPlataforma, this::buscarOuCriar);
+  }
+
+  /**
+   * Busca ou cria a plataforma em uma transação própria, para que o cache nunca
+   * guarde o id de uma linha que possa sofrer rollback junto com a transação de
+   * quem chamou. Se outra instância criar o mesmo link ao mesmo tempo, a
+   * restrição unique falha e a plataforma já gravada é lida de novo.
+   */
+  private Plataforma buscarOuCriar(String linkPlataforma) {
+    TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+    transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    try {
+      return transacao.execute(status -> plataformaRepository.findByLinkPlataforma(linkPlataforma)
+          .map(existente -> {
+            encontradas.increment();
+            return existente;
+          })
+          .orElseGet(() -> {
+            // O ID é null aqui porque será gerado automaticamente pelo JPA
+            Plataforma criada = plataformaRepository.saveAndFlush(new Plataforma(null, linkPlataforma));
+            criadas.increment();
+            return criada;
+          }));
+    } catch (DataIntegrityViolationException e) {
+      Plataforma existente = plataformaRepository.findByLinkPlataforma(linkPlataforma).orElseThrow(() -> e);
+      encontradas.increment();
+      return existente;
+    }
+  }
+
+  /**
+   * Versão em lote do getOrCreatePlataforma: os links que não estão no cache
+   * são buscados com uma única consulta, e só os realmente novos passam pela
+   * criação individual (que garante um INSERT por link).
+   * 
+   * @param linksPlataforma Os links das plataformas.
+   * @return Um Map do link para a Plataforma encontrada ou criada.
+   */
+  public Map<String, Plataforma> getOrCreatePlataformas(Collection<String> linksPlataforma) {
+    Map<String, Plataforma> plataformas = new HashMap<>();
+    List<String> foraDoCache = new ArrayList<>();
+    for (String linkPlataforma : linksPlataforma) {
+      Plataforma plataforma = cache.buscar(linkPlataforma);
+      if (plataforma != null) {
+        acertosCache.increment();
+        plataformas.put(linkPlataforma, plataforma);
+      } else {
+        foraDoCache.add(linkPlataforma);
+      }
+    }
+    if (foraDoCache.isEmpty()) {
+      return plataformas;
+    }
+
+    for (Plataforma plataforma : plataformaRepository.findByLinkPlataformaIn(foraDoCache)) {
+      cache.registrar(plataforma.getLinkPlataforma(), plataforma);
+      encontradas.increment();
+      plataformas.put(plataforma.getLinkPlataforma(), plataforma);
+    }
+    for (String linkPlataforma : foraDoCache) {
+      if (!plataformas.containsKey(linkPlataforma)) {
+        plataformas.put(linkPlataforma, getOrCreatePlataforma(linkPlataforma));
+      }
+    }
+    return plataformas;
   }
-}
\ No newline at end of file
+}
@@ -1,23 +1,106 @@
 package com.thomaskavi.lucrabet.services;
 
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.thomaskavi.lucrabet.dto.AtualizacaoRegistroDTO;
+import com.thomaskavi.lucrabet.dto.BuscaRegistroDTO;
+import com.thomaskavi.lucrabet.dto.CursorBusca;
+import com.thomaskavi.lucrabet.dto.CursorRegistro;
+import com.thomaskavi.lucrabet.dto.PaginaDTO;
+import com.thomaskavi.lucrabet.dto.PontoSerieDTO;
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.dto.SumarioDTO;
+import com.thomaskavi.lucrabet.dto.TotalPorDataDTO;
+import com.thomaskavi.lucrabet.dto.TransicaoLoteDTO;
 import com.thomaskavi.lucrabet.entities.Conta;
 import com.thomaskavi.lucrabet.entities.Plataforma;
+import com.thomaskavi.lucrabet.entities.Situacao;
 import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+import com.thomaskavi.lucrabet.events.RegistrosAlteradosEvent;
 import com.thomaskavi.lucrabet.repositories.RegistroOperacaoRepository;
+import com.thomaskavi.lucrabet.repositories.RegistroOperacaoSpecs;
+import com.thomaskavi.lucrabet.util.Centavos;
+import com.thomaskavi.lucrabet.util.TotaisCentavos;
 
 @Service
 public class RegistroOperacaoService {
 
+  // Campos pelos quais a busca pode ordenar, com a conversão do valor guardado
+  // no cursor
+  public enum OrdemBusca {
+    DATA("dataOperacao", LocalDate::parse),
+    LUCRO("valorLucro", BigDecimal::new),
+    DEPOSITO("valorDeposito", BigDecimal::new);
+
+    private final String campo;
+    private final Function<String, Comparable<?>> leitor;
+
+    OrdemBusca(String campo, Function<String, Comparable<?>> leitor) {
+      this.campo = campo;
+      this.leitor = leitor;
+    }
+
+    public String getCampo() {
+      return campo;
+    }
+
+    // Valor do campo em um registro, como vai para o cursor
+    private Object valor(RegistroOperacaoDTO registro) {
+      return switch (this) {
+        case DATA -> registro.getDataOperacao();
+        case LUCRO -> registro.getValorLucro();
+        case DEPOSITO -> registro.getValorDeposito();
+      };
+    }
+
+    // Pelo nome do campo (null = dataOperacao)
+    public static OrdemBusca de(String campo) {
+      if (campo == null) {
+        return DATA;
+      }
+      for (OrdemBusca ordem : values()) {
+        if (ordem.campo.equalsIgnoreCase(campo)) {
+          return ordem;
+        }
+      }
+      throw new IllegalArgumentException("Ordenação inválida: " + campo);
+    }
+  }
+
+  // Colunas do RegistroOperacaoDTO lidas da tabela de delta "o" (OLD TABLE do
+  // H2: as linhas como estavam antes do UPDATE/DELETE que a envolve), com o
+  // link e o nome vindos do JOIN
+  private static final String SELECT_ANTERIOR = "SELECT o.id, o.plataforma_id, p.link_plataforma, o.conta_id, "
+      + "c.nome_conta, o.data_operacao, o.valor_deposito, o.nome_slot_giros, o.situacao, o.valor_lucro, "
+      + "o.saque_completo_feito, o.versao FROM OLD TABLE (%s) o "
+      + "JOIN tb_plataformas p ON p.id = o.plataforma_id JOIN tb_contas c ON c.id = o.conta_id";
+
+  private static final String SQL_EXCLUIR = String.format(SELECT_ANTERIOR,
+      "DELETE FROM tb_registros_operacoes WHERE id = :id");
+
   @Autowired
   private RegistroOperacaoRepository registroOperacaoRepository;
 
@@ -27,85 +110,509 @@ public class RegistroOperacaoService {
   @Autowired
   private ContaService contaService; // Para usar o getOrCreateConta
 
+  @Autowired
+  private AgregadoDiarioService agregadoDiarioService; // Totais materializados por dia
+
+  @Autowired
+  private AnaliticoService analiticoService; // Cópia colunar em memória
+
+  @Autowired
+  private CacheAgregadosService cacheAgregadosService; // Resultados dos totais
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private NamedParameterJdbcTemplate jdbcTemplate;
+
   // --- Métodos CRUD Básicos ---
 
-  // Buscar todos os registros de operações
-  public List<RegistroOperacao> findAll() {
-    return registroOperacaoRepository.findAll();
+  // Tamanho de página usado quando o cliente não informa e o máximo permitido
+  public static final int TAMANHO_PAGINA_PADRAO = 50;
+  public static final int TAMANHO_PAGINA_MAXIMO = 500;
+
+  // Buscar todos os registros de operações (paginado)
+  public PaginaDTO<RegistroOperacaoDTO> findAll(String cursor, Integer tamanho) {
+    return paginar(cursor, tamanho,
+        (c, limite) -> registroOperacaoRepository.buscarPagina(c.getDataOperacao(), c.getId(), limite));
   }
 
-  // Buscar um registro de operação por ID
+  // Buscar um registro de operação por ID (entidade, para as escritas)
   public Optional<RegistroOperacao> findById(Long id) {
     return registroOperacaoRepository.findById(id);
   }
 
+  // Buscar um registro de operação por ID já com plataforma e conta, em uma
+  // consulta
+  public Optional<RegistroOperacaoDTO> buscarPorId(Long id) {
+    return registroOperacaoRepository.buscarPorId(id);
+  }
+
   /**
    * Salva um RegistroOperacao. Antes de salvar, garante que as entidades
    * Plataforma e Conta associadas existem ou são criadas.
+   * Na mesma transação, atualiza o agregado diário: em uma atualização, os
+   * valores antigos são trocados pelos novos (um único MERGE se o dia, a
+   * plataforma e a conta não mudaram).
    * 
    * @param registroOperacao O objeto RegistroOperacao a ser salvo.
-   * @return O RegistroOperacao salvo.
+   * @return O RegistroOperacao salvo, já como DTO de leitura.
    */
-  public RegistroOperacao save(RegistroOperacao registroOperacao) {
-    // Garante que a plataforma existe ou é criada
+  public RegistroOperacaoDTO save(RegistroOperacao registroOperacao) {
+    // Plataforma e conta são resolvidas (quase sempre pelo cache) antes de abrir
+    // a transação do registro: uma plataforma ou conta nova é criada e
+    // confirmada na sua própria transação
     Plataforma plataforma = plataformaService
         .getOrCreatePlataforma(registroOperacao.getPlataforma().getLinkPlataforma());
     registroOperacao.setPlataforma(plataforma);
 
-    // Garante que a conta existe ou é criada
     Conta conta = contaService.getOrCreateConta(registroOperacao.getConta().getNomeConta());
     registroOperacao.setConta(conta);
 
-    return registroOperacaoRepository.save(registroOperacao);
+    // Mais de 2 casas decimais: arredonda como a coluna faria
+    registroOperacao.setValorDeposito(Centavos.arredondar(registroOperacao.getValorDeposito()));
+    registroOperacao.setValorLucro(Centavos.arredondar(registroOperacao.getValorLucro()));
+
+    return transactionTemplate.execute(status -> {
+      // Em uma atualização, os valores que estão no banco saem do agregado
+      RegistroOperacaoDTO anterior = null;
+      if (registroOperacao.getId() != null) {
+        anterior = registroOperacaoRepository.buscarPorId(registroOperacao.getId()).orElse(null);
+      }
+
+      // O flush incrementa a versão antes de ela ir para o DTO
+      RegistroOperacao salvo = registroOperacaoRepository.saveAndFlush(registroOperacao);
+      // Em uma atualização, "salvo" é a cópia gerenciada e suas associações podem
+      // ser proxies; a plataforma e a conta resolvidas acima já estão completas
+      salvo.setPlataforma(plataforma);
+      salvo.setConta(conta);
+      RegistroOperacaoDTO dto = new RegistroOperacaoDTO(salvo);
+      if (anterior != null) {
+        agregadoDiarioService.substituir(anterior, dto);
+      } else {
+        agregadoDiarioService.adicionar(salvo);
+      }
+      eventPublisher.publishEvent(RegistrosAlteradosEvent.gravado(dto, anterior));
+      return dto;
+    });
   }
 
-  // Deletar um registro de operação por ID
-  public void deleteById(Long id) {
-    registroOperacaoRepository.deleteById(id);
+  /**
+   * Altera só os campos enviados de um registro em um único UPDATE, que confere
+   * e incrementa a versão. O UPDATE vai dentro de um SELECT ... FROM OLD TABLE,
+   * então o mesmo comando devolve os valores anteriores, necessários para o
+   * agregado diário e para o evento.
+   *
+   * @return O registro alterado, ou vazio se o id não existe.
+   * @throws OptimisticLockingFailureException Se a versão enviada não é mais a
+   *                                           do registro.
+   */
+  public Optional<RegistroOperacaoDTO> atualizarParcial(Long id, AtualizacaoRegistroDTO alteracao) {
+    if (alteracao.getVersao() == null) {
+      throw new IllegalArgumentException("Informe a versão do registro");
+    }
+    // Como no save, plataforma e conta novas são resolvidas fora da transação
+    Plataforma plataforma = alteracao.getLinkPlataforma() == null ? null
+        : plataformaService.getOrCreatePlataforma(alteracao.getLinkPlataforma());
+    Conta conta = alteracao.getNomeConta() == null ? null : contaService.getOrCreateConta(alteracao.getNomeConta());
+    alteracao.setValorDeposito(Centavos.arredondar(alteracao.getValorDeposito()));
+    alteracao.setValorLucro(Centavos.arredondar(alteracao.getValorLucro()));
+
+    MapSqlParameterSource parametros = new MapSqlParameterSource("id", id).addValue("versao",
+        alteracao.getVersao());
+    List<String> colunas = new ArrayList<>();
+    adicionarColuna(colunas, parametros, "plataforma_id", plataforma == null ? null : plataforma.getId());
+    adicionarColuna(colunas, parametros, "conta_id", conta == null ? null : conta.getId());
+    adicionarColuna(colunas, parametros, "data_operacao", alteracao.getDataOperacao());
+    adicionarColuna(colunas, parametros, "valor_deposito", alteracao.getValorDeposito());
+    adicionarColuna(colunas, parametros, "nome_slot_giros", alteracao.getNomeSlotGiros());
+    adicionarColuna(colunas, parametros, "situacao",
+        alteracao.getSituacao() == null ? null : alteracao.getSituacao().getCodigo());
+    adicionarColuna(colunas, parametros, "valor_lucro", alteracao.getValorLucro());
+    adicionarColuna(colunas, parametros, "saque_completo_feito", alteracao.getSaqueCompletoFeito());
+    colunas.add("versao = versao + 1");
+    String sql = String.format(SELECT_ANTERIOR, "UPDATE tb_registros_operacoes SET " + String.join(", ", colunas)
+        + " WHERE id = :id AND versao = :versao");
+
+    return transactionTemplate.execute(status -> {
+      List<RegistroOperacaoDTO> anteriores = jdbcTemplate.query(sql, parametros, RegistroOperacaoService::lerDTO);
+      if (anteriores.isEmpty()) {
+        // Nenhuma linha: ou o registro não existe, ou a versão mudou
+        List<Long> versaoAtual = jdbcTemplate.queryForList(
+            "SELECT versao FROM tb_registros_operacoes WHERE id = :id", parametros, Long.class);
+        if (versaoAtual.isEmpty()) {
+          return Optional.<RegistroOperacaoDTO>empty();
+        }
+        throw new OptimisticLockingFailureException("O registro " + id + " foi alterado (versão atual "
+            + versaoAtual.get(0) + ", enviada " + alteracao.getVersao() + ")");
+      }
+
+      RegistroOperacaoDTO anterior = anteriores.get(0);
+      RegistroOperacaoDTO novo = new RegistroOperacaoDTO(id,
+          plataforma == null ? anterior.getPlataformaId() : plataforma.getId(),
+          plataforma == null ? anterior.getLinkPlataforma() : plataforma.getLinkPlataforma(),
+          conta == null ? anterior.getContaId() : conta.getId(),
+          conta == null ? anterior.getNomeConta() : conta.getNomeConta(),
+          valorOu(alteracao.getDataOperacao(), anterior.getDataOperacao()),
+          valorOu(alteracao.getValorDeposito(), anterior.getValorDeposito()),
+          valorOu(alteracao.getNomeSlotGiros(), anterior.getNomeSlotGiros()),
+          valorOu(alteracao.getSituacao(), anterior.getSituacao()),
+          valorOu(alteracao.getValorLucro(), anterior.getValorLucro()),
+          valorOu(alteracao.getSaqueCompletoFeito(), anterior.getSaqueCompletoFeito()), anterior.getVersao() + 1);
+      agregadoDiarioService.substituir(anterior, novo);
+      eventPublisher.publishEvent(RegistrosAlteradosEvent.gravado(novo, anterior));
+      return Optional.of(novo);
+    });
+  }
+
+  private static void adicionarColuna(List<String> colunas, MapSqlParameterSource parametros, String coluna,
+      Object valor) {
+    if (valor != null) {
+      colunas.add(coluna + " = :" + coluna);
+      parametros.addValue(coluna, valor);
+    }
+  }
+
+  private static <T> T valorOu(T valor, T atual) {
+    return valor == null ? atual : valor;
+  }
+
+  /**
+   * Exclui um registro (e retira seus valores do agregado) com um único DELETE,
+   * que devolve a linha excluída.
+   *
+   * @return false se o id não existe.
+   */
+  @Transactional
+  public boolean excluir(Long id) {
+    List<RegistroOperacaoDTO> excluidos = jdbcTemplate.query(SQL_EXCLUIR, new MapSqlParameterSource("id", id),
+        RegistroOperacaoService::lerDTO);
+    if (excluidos.isEmpty()) {
+      return false;
+    }
+    agregadoDiarioService.remover(excluidos.get(0));
+    eventPublisher.publishEvent(RegistrosAlteradosEvent.removido(excluidos.get(0)));
+    return true;
+  }
+
+  /**
+   * Aplica a mesma situação e/ou o mesmo status de saque a todos os registros
+   * escolhidos (por id ou filtro) com um único UPDATE. Registros que já estão
+   * no estado pedido ficam de fora, então a versão deles não muda. As linhas
+   * devolvidas pelo OLD TABLE alimentam o agregado (só os saques pendentes
+   * mudam) e o evento, como no PATCH.
+   *
+   * @return Quantos registros foram alterados.
+   */
+  public int transicionar(TransicaoLoteDTO transicao) {
+    if (transicao.getSituacao() == null && transicao.getSaqueCompletoFeito() == null) {
+      throw new IllegalArgumentException("Informe a nova situacao e/ou saqueCompletoFeito");
+    }
+    if (!transicao.temCriterio()) {
+      throw new IllegalArgumentException("Informe os ids ou ao menos um filtro");
+    }
+
+    MapSqlParameterSource parametros = new MapSqlParameterSource();
+    List<String> colunas = new ArrayList<>();
+    List<String> diferentes = new ArrayList<>();
+    adicionarColuna(colunas, parametros, "situacao",
+        transicao.getSituacao() == null ? null : transicao.getSituacao().getCodigo());
+    adicionarColuna(colunas, parametros, "saque_completo_feito", transicao.getSaqueCompletoFeito());
+    colunas.forEach(coluna -> diferentes.add(coluna.replace(" = ", " <> ")));
+    colunas.add("versao = versao + 1");
+
+    List<String> condicoes = new ArrayList<>();
+    condicoes.add("(" + String.join(" OR ", diferentes) + ")");
+    if (transicao.getIds() != null && !transicao.getIds().isEmpty()) {
+      condicoes.add("id IN (:ids)");
+      parametros.addValue("ids", transicao.getIds());
+    }
+    if (transicao.getStartDate() != null) {
+      condicoes.add("data_operacao >= :startDate");
+      parametros.addValue("startDate", transicao.getStartDate());
+    }
+    if (transicao.getEndDate() != null) {
+      condicoes.add("data_operacao <= :endDate");
+      parametros.addValue("endDate", transicao.getEndDate());
+    }
+    // Plataforma e conta pelo id (cache do serviço); se não existem, nenhum
+    // registro pode ser alterado
+    if (transicao.getLinkPlataforma() != null) {
+      Optional<Plataforma> plataforma = plataformaService.findByLinkPlataforma(transicao.getLinkPlataforma());
+      if (plataforma.isEmpty()) {
+        return 0;
+      }
+      condicoes.add("plataforma_id = :plataformaId");
+      parametros.addValue("plataformaId", plataforma.get().getId());
+    }
+    if (transicao.getNomeConta() != null) {
+      Optional<Conta> conta = contaService.findByNomeConta(transicao.getNomeConta());
+      if (conta.isEmpty()) {
+        return 0;
+      }
+      condicoes.add("conta_id = :contaId");
+      parametros.addValue("contaId", conta.get().getId());
+    }
+    if (transicao.getSituacaoAtual() != null) {
+      condicoes.add("situacao = :situacaoAtual");
+      parametros.addValue("situacaoAtual", transicao.getSituacaoAtual().getCodigo());
+    }
+    String sql = String.format(SELECT_ANTERIOR, "UPDATE tb_registros_operacoes SET " + String.join(", ", colunas)
+        + " WHERE " + String.join(" AND ", condicoes));
+
+    return transactionTemplate.execute(status -> {
+      List<RegistroOperacaoDTO> anteriores = jdbcTemplate.query(sql, parametros, RegistroOperacaoService::lerDTO);
+      if (anteriores.isEmpty()) {
+        return 0;
+      }
+      List<RegistroOperacaoDTO> novos = anteriores.stream().map(a -> new RegistroOperacaoDTO(a.getId(),
+          a.getPlataformaId(), a.getLinkPlataforma(), a.getContaId(), a.getNomeConta(), a.getDataOperacao(),
+          a.getValorDeposito(), a.getNomeSlotGiros(), valorOu(transicao.getSituacao(), a.getSituacao()),
+          a.getValorLucro(), valorOu(transicao.getSaqueCompletoFeito(), a.getSaqueCompletoFeito()),
+          a.getVersao() + 1)).toList();
+      agregadoDiarioService.substituirLote(anteriores, novos);
+      eventPublisher.publishEvent(RegistrosAlteradosEvent.atualizados(novos, anteriores));
+      return novos.size();
+    });
+  }
+
+  private static RegistroOperacaoDTO lerDTO(ResultSet rs, int linha) throws SQLException {
+    return new RegistroOperacaoDTO(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getLong(4), rs.getString(5),
+        rs.getObject(6, LocalDate.class), rs.getBigDecimal(7), rs.getString(8),
+        Situacao.doCodigo(rs.getShort(9)), rs.getBigDecimal(10), rs.getBoolean(11), rs.getLong(12));
   }
 
   // --- Métodos de Consulta Específicos ---
 
   // Buscar registros por data da operação
-  public List<RegistroOperacao> findByDataOperacao(LocalDate dataOperacao) {
-    return registroOperacaoRepository.findByDataOperacao(dataOperacao);
+  public PaginaDTO<RegistroOperacaoDTO> findByDataOperacao(LocalDate dataOperacao, String cursor, Integer tamanho) {
+    return paginar(cursor, tamanho, (c, limite) -> registroOperacaoRepository
+        .buscarPaginaPorDataOperacao(dataOperacao, c.getId(), limite));
   }
 
   // Buscar registros por período de datas
-  public List<RegistroOperacao> findByPeriodo(LocalDate startDate, LocalDate endDate) {
-    return registroOperacaoRepository.findByDataOperacaoBetween(startDate, endDate);
+  public PaginaDTO<RegistroOperacaoDTO> findByPeriodo(LocalDate startDate, LocalDate endDate, String cursor,
+      Integer tamanho) {
+    return paginar(cursor, tamanho, (c, limite) -> registroOperacaoRepository
+        .buscarPaginaPorPeriodo(startDate, endDate, c.getDataOperacao(), c.getId(), limite));
   }
 
-  // Buscar registros por link da plataforma
-  public List<RegistroOperacao> findByPlataformaLink(String linkPlataforma) {
-    return registroOperacaoRepository.findByPlataforma_LinkPlataforma(linkPlataforma);
+  // Buscar registros por link da plataforma (o link é resolvido para o id pelo
+  // cache do PlataformaService e a consulta usa o índice da FK)
+  public PaginaDTO<RegistroOperacaoDTO> findByPlataformaLink(String linkPlataforma, String cursor, Integer tamanho) {
+    Optional<Plataforma> plataforma = plataformaService.findByLinkPlataforma(linkPlataforma);
+    if (plataforma.isEmpty()) {
+      return new PaginaDTO<>(List.of(), null);
+    }
+    Long plataformaId = plataforma.get().getId();
+    return paginar(cursor, tamanho, (c, limite) -> registroOperacaoRepository
+        .buscarPaginaPorPlataforma(plataformaId, c.getDataOperacao(), c.getId(), limite));
   }
 
-  // Buscar registros por nome da conta
-  public List<RegistroOperacao> findByContaNome(String nomeConta) {
-    return registroOperacaoRepository.findByConta_NomeConta(nomeConta);
+  // Buscar registros por nome da conta (resolvido para o id, como acima)
+  public PaginaDTO<RegistroOperacaoDTO> findByContaNome(String nomeConta, String cursor, Integer tamanho) {
+    Optional<Conta> conta = contaService.findByNomeConta(nomeConta);
+    if (conta.isEmpty()) {
+      return new PaginaDTO<>(List.of(), null);
+    }
+    Long contaId = conta.get().getId();
+    return paginar(cursor, tamanho, (c, limite) -> registroOperacaoRepository
+        .buscarPaginaPorConta(contaId, c.getDataOperacao(), c.getId(), limite));
   }
 
-  // Buscar registros por situação
-  public List<RegistroOperacao> findBySituacao(String situacao) {
-    return registroOperacaoRepository.findBySituacao(situacao);
+  // Buscar registros por situação, pelo texto ("Finalizado"...); um texto que
+  // não é uma Situacao não tem registros
+  public PaginaDTO<RegistroOperacaoDTO> findBySituacao(String texto, String cursor, Integer tamanho) {
+    Optional<Situacao> situacao = Situacao.porTexto(texto);
+    if (situacao.isEmpty()) {
+      return new PaginaDTO<>(List.of(), null);
+    }
+    return paginar(cursor, tamanho, (c, limite) -> registroOperacaoRepository
+        .buscarPaginaPorSituacao(situacao.get(), c.getDataOperacao(), c.getId(), limite));
   }
 
   // Buscar registros por status de saque completo
-  public List<RegistroOperacao> findBySaqueCompletoFeito(Boolean saqueCompletoFeito) {
-    return registroOperacaoRepository.findBySaqueCompletoFeito(saqueCompletoFeito);
+  public PaginaDTO<RegistroOperacaoDTO> findBySaqueCompletoFeito(Boolean saqueCompletoFeito, String cursor,
+      Integer tamanho) {
+    return paginar(cursor, tamanho, (c, limite) -> registroOperacaoRepository
+        .buscarPaginaPorSaqueCompletoFeito(saqueCompletoFeito, c.getDataOperacao(), c.getId(), limite));
+  }
+
+  /**
+   * Busca com qualquer combinação dos filtros de BuscaRegistroDTO, em uma única
+   * consulta: os filtros viram Specifications combinadas com AND, junto com a
+   * condição do keyset, e a página é ordenada pelo campo pedido e pelo id.
+   * Plataforma e conta são resolvidas para os ids antes (uma que não existe
+   * não tem registros), então a consulta pode usar os índices (fk, data).
+   */
+  public PaginaDTO<RegistroOperacaoDTO> buscar(BuscaRegistroDTO busca, String cursor, Integer tamanho) {
+    OrdemBusca ordem = OrdemBusca.de(busca.getOrdenarPor());
+    boolean crescente = busca.getDirecao() == null || busca.getDirecao().equalsIgnoreCase("asc");
+    if (!crescente && !busca.getDirecao().equalsIgnoreCase("desc")) {
+      throw new IllegalArgumentException("Direção inválida: " + busca.getDirecao());
+    }
+    String chaveOrdem = ordem.getCampo() + (crescente ? ",asc" : ",desc");
+    CursorBusca posicao = CursorBusca.decodificar(cursor, chaveOrdem);
+
+    List<Specification<RegistroOperacao>> filtros = new ArrayList<>();
+    if (busca.getLinkPlataforma() != null) {
+      Optional<Plataforma> plataforma = plataformaService.findByLinkPlataforma(busca.getLinkPlataforma());
+      if (plataforma.isEmpty()) {
+        return new PaginaDTO<>(List.of(), null);
+      }
+      filtros.add(RegistroOperacaoSpecs.daPlataforma(plataforma.get().getId()));
+    }
+    if (busca.getNomeConta() != null) {
+      Optional<Conta> conta = contaService.findByNomeConta(busca.getNomeConta());
+      if (conta.isEmpty()) {
+        return new PaginaDTO<>(List.of(), null);
+      }
+      filtros.add(RegistroOperacaoSpecs.daConta(conta.get().getId()));
+    }
+    if (busca.getSituacao() != null) {
+      Optional<Situacao> situacao = Situacao.porTexto(busca.getSituacao());
+      if (situacao.isEmpty()) {
+        return new PaginaDTO<>(List.of(), null);
+      }
+      filtros.add(RegistroOperacaoSpecs.comSituacao(situacao.get()));
+    }
+    if (busca.getStartDate() != null) {
+      filtros.add(RegistroOperacaoSpecs.aPartirDe(busca.getStartDate()));
+    }
+    if (busca.getEndDate() != null) {
+      filtros.add(RegistroOperacaoSpecs.ate(busca.getEndDate()));
+    }
+    if (busca.getSaqueCompletoFeito() != null) {
+      filtros.add(RegistroOperacaoSpecs.comSaqueCompletoFeito(busca.getSaqueCompletoFeito()));
+    }
+    if (busca.getNomeSlotGiros() != null && !busca.getNomeSlotGiros().isBlank()) {
+      filtros.add(RegistroOperacaoSpecs.slotContem(busca.getNomeSlotGiros().trim()));
+    }
+    if (busca.getLucroMinimo() != null) {
+      filtros.add(RegistroOperacaoSpecs.lucroMinimo(busca.getLucroMinimo()));
+    }
+    if (busca.getLucroMaximo() != null) {
+      filtros.add(RegistroOperacaoSpecs.lucroMaximo(busca.getLucroMaximo()));
+    }
+    if (posicao != null) {
+      Comparable<?> valor;
+      try {
+        valor = ordem.leitor.apply(posicao.getValor());
+      } catch (RuntimeException e) {
+        throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+      }
+      filtros.add(RegistroOperacaoSpecs.depoisDe(ordem.getCampo(), valor, posicao.getId(), crescente));
+    }
+
+    int tamanhoPagina = tamanho == null ? TAMANHO_PAGINA_PADRAO
+        : Math.max(1, Math.min(tamanho, TAMANHO_PAGINA_MAXIMO));
+    Sort.Direction direcao = crescente ? Sort.Direction.ASC : Sort.Direction.DESC;
+    List<RegistroOperacaoDTO> registros = registroOperacaoRepository.buscar(Specification.allOf(filtros),
+        Sort.by(direcao, ordem.getCampo(), "id"), Limit.of(tamanhoPagina + 1));
+    if (registros.size() <= tamanhoPagina) {
+      return new PaginaDTO<>(registros, null);
+    }
+
+    List<RegistroOperacaoDTO> pagina = registros.subList(0, tamanhoPagina);
+    RegistroOperacaoDTO ultimo = pagina.get(tamanhoPagina - 1);
+    String proximoCursor = new CursorBusca(chaveOrdem, String.valueOf(ordem.valor(ultimo)), ultimo.getId())
+        .codificar();
+    return new PaginaDTO<>(pagina, proximoCursor);
+  }
+
+  /**
+   * Executa uma consulta paginada por keyset. Busca um registro a mais do que o
+   * tamanho da página só para saber se existe uma próxima página; nesse caso o
+   * cursor aponta para o último registro devolvido.
+   */
+  private PaginaDTO<RegistroOperacaoDTO> paginar(String cursor, Integer tamanho,
+      BiFunction<CursorRegistro, Limit, List<RegistroOperacaoDTO>> consulta) {
+    int tamanhoPagina = tamanho == null ? TAMANHO_PAGINA_PADRAO
+        : Math.max(1, Math.min(tamanho, TAMANHO_PAGINA_MAXIMO));
+
+    List<RegistroOperacaoDTO> registros = consulta.apply(CursorRegistro.decodificar(cursor),
+        Limit.of(tamanhoPagina + 1));
+    if (registros.size() <= tamanhoPagina) {
+      return new PaginaDTO<>(registros, null);
+    }
+
+    List<RegistroOperacaoDTO> pagina = registros.subList(0, tamanhoPagina);
+    RegistroOperacaoDTO ultimo = pagina.get(tamanhoPagina - 1);
+    String proximoCursor = new CursorRegistro(ultimo.getDataOperacao(), ultimo.getId()).codificar();
+    return new PaginaDTO<>(pagina, proximoCursor);
   }
 
   // --- Métodos de Cálculos e Agregações ---
+  // Os totais vêm da cópia colunar do AnaliticoService; enquanto ela não foi
+  // carregada, são lidos do agregado diário (tb_agregados_diarios), que tem
+  // algumas linhas por dia, em vez de varrer todos os registros. Os
+  // resultados ficam no CacheAgregadosService até uma escrita que os afete.
+
+  /**
+   * Resume as operações de um período em uma única consulta: lucro, depósito,
+   * lucro líquido, quantidade de operações e saques pendentes.
+   * Todos os parâmetros são opcionais (null = sem filtro).
+   */
+  public SumarioDTO resumir(LocalDate startDate, LocalDate endDate, String linkPlataforma, String nomeConta) {
+    Long plataformaId = null;
+    if (linkPlataforma != null) {
+      Optional<Plataforma> plataforma = plataformaService.findByLinkPlataforma(linkPlataforma);
+      if (plataforma.isEmpty()) {
+        return SumarioDTO.vazio();
+      }
+      plataformaId = plataforma.get().getId();
+    }
+
+    Long contaId = null;
+    if (nomeConta != null) {
+      Optional<Conta> conta = contaService.findByNomeConta(nomeConta);
+      if (conta.isEmpty()) {
+        return SumarioDTO.vazio();
+      }
+      contaId = conta.get().getId();
+    }
+
+    return resumirPorIds(startDate, endDate, plataformaId, contaId);
+  }
+
+  // O resumo com plataforma e conta já resolvidas para os ids
+  private SumarioDTO resumirPorIds(LocalDate startDate, LocalDate endDate, Long plataformaId, Long contaId) {
+    return cacheAgregadosService.buscar(
+        new CacheAgregadosService.Chave("sumario", startDate, endDate, plataformaId, contaId), () -> {
+          if (analiticoService.isPronto()) {
+            return analiticoService.resumir(startDate, endDate, plataformaId, contaId);
+          }
+          return agregadoDiarioService.resumir(startDate, endDate, plataformaId, contaId);
+        });
+  }
+
+  /**
+   * Série temporal de lucro, depósito e lucro líquido entre startDate e
+   * endDate, um ponto por período da granularidade (ver
+   * AgregadoDiarioService.serie). Plataforma e conta são opcionais; se não
+   * existirem, a série vem toda zerada.
+   */
+  public List<PontoSerieDTO> serie(LocalDate startDate, LocalDate endDate,
+      AgregadoDiarioService.Granularidade granularidade, String linkPlataforma, String nomeConta) {
+    // -1 não corresponde a nenhum id: a série sai com todos os períodos zerados
+    Long plataformaId = linkPlataforma == null ? null
+        : plataformaService.findByLinkPlataforma(linkPlataforma).map(Plataforma::getId).orElse(-1L);
+    Long contaId = nomeConta == null ? null
+        : contaService.findByNomeConta(nomeConta).map(Conta::getId).orElse(-1L);
+    return cacheAgregadosService.buscar(
+        new CacheAgregadosService.Chave("serie-" + granularidade, startDate, endDate, plataformaId, contaId),
+        () -> List.copyOf(agregadoDiarioService.serie(startDate, endDate, granularidade, plataformaId, contaId)));
+  }
 
   /**
    * Calcula o lucro total para um determinado dia.
    * Corresponde à soma da coluna 'Lucro' para uma data específica.
    */
   public BigDecimal calcularLucroTotalDiario(LocalDate data) {
-    return registroOperacaoRepository.findByDataOperacao(data).stream()
-        .map(RegistroOperacao::getValorLucro)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    return resumir(data, data, null, null).getLucroTotal();
   }
 
   /**
@@ -113,9 +620,7 @@ public class RegistroOperacaoService {
    * Corresponde à soma da coluna 'Valor Depós.' para uma data específica.
    */
   public BigDecimal calcularDepositoTotalDiario(LocalDate data) {
-    return registroOperacaoRepository.findByDataOperacao(data).stream()
-        .map(RegistroOperacao::getValorDeposito)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    return resumir(data, data, null, null).getDepositoTotal();
   }
 
   /**
@@ -123,27 +628,21 @@ public class RegistroOperacaoService {
    * Total).
    */
   public BigDecimal calcularLucroLiquidoDiario(LocalDate data) {
-    BigDecimal totalLucro = calcularLucroTotalDiario(data);
-    BigDecimal totalDeposito = calcularDepositoTotalDiario(data);
-    return totalLucro.subtract(totalDeposito);
+    return resumir(data, data, null, null).getLucroLiquido();
   }
 
   /**
    * Calcula o lucro total geral de todas as operações.
    */
   public BigDecimal calcularLucroTotalGeral() {
-    return registroOperacaoRepository.findAll().stream()
-        .map(RegistroOperacao::getValorLucro)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    return resumir(null, null, null, null).getLucroTotal();
   }
 
   /**
    * Calcula o depósito total geral de todas as operações.
    */
   public BigDecimal calcularDepositoTotalGeral() {
-    return registroOperacaoRepository.findAll().stream()
-        .map(RegistroOperacao::getValorDeposito)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    return resumir(null, null, null, null).getDepositoTotal();
   }
 
   /**
@@ -151,36 +650,43 @@ public class RegistroOperacaoService {
    * - Depósito Total Geral).
    */
   public BigDecimal calcularLucroLiquidoGeral() {
-    BigDecimal totalLucro = calcularLucroTotalGeral();
-    BigDecimal totalDeposito = calcularDepositoTotalGeral();
-    return totalLucro.subtract(totalDeposito);
+    return resumir(null, null, null, null).getLucroLiquido();
   }
 
   /**
    * Calcula o lucro total para uma plataforma específica.
    */
   public BigDecimal calcularLucroTotalPorPlataforma(String linkPlataforma) {
-    return registroOperacaoRepository.findByPlataforma_LinkPlataforma(linkPlataforma).stream()
-        .map(RegistroOperacao::getValorLucro)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    return resumir(null, null, linkPlataforma, null).getLucroTotal();
   }
 
   /**
    * Calcula o lucro total para uma conta específica.
    */
   public BigDecimal calcularLucroTotalPorConta(String nomeConta) {
-    return registroOperacaoRepository.findByConta_NomeConta(nomeConta).stream()
-        .map(RegistroOperacao::getValorLucro)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+    return resumir(null, null, null, nomeConta).getLucroTotal();
   }
 
   /**
    * Retorna o lucro total agrupado por dia.
-   * Retorna um Map onde a chave é a data e o valor é o lucro total daquele dia.
+   * Retorna um Map (em ordem cronológica) onde a chave é a data e o valor é o
+   * lucro total daquele dia.
    */
   public Map<LocalDate, BigDecimal> getLucroTotalPorDia() {
-    return registroOperacaoRepository.findAll().stream()
-        .collect(Collectors.groupingBy(RegistroOperacao::getDataOperacao,
-            Collectors.reducing(BigDecimal.ZERO, RegistroOperacao::getValorLucro, BigDecimal::add)));
+    return cacheAgregadosService.buscar(new CacheAgregadosService.Chave("lucro-por-dia", null, null, null, null),
+        () -> Collections.unmodifiableMap(calcularLucroTotalPorDia()));
+  }
+
+  private Map<LocalDate, BigDecimal> calcularLucroTotalPorDia() {
+    Map<LocalDate, BigDecimal> lucroPorDia = new LinkedHashMap<>();
+    Optional<Map<LocalDate, TotaisCentavos>> totaisPorDia = analiticoService.totaisPorDia();
+    if (totaisPorDia.isPresent()) {
+      totaisPorDia.get().forEach((data, totais) -> lucroPorDia.put(data, totais.paraSumario().getLucroTotal()));
+      return lucroPorDia;
+    }
+    for (TotalPorDataDTO total : agregadoDiarioService.somarLucroAgrupadoPorData()) {
+      lucroPorDia.put(total.getData(), total.getTotal());
+    }
+    return lucroPorDia;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.thomaskavi.lucrabet.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.thomaskavi.lucrabet.events.CadastroAlteradoEvent;
+import com.thomaskavi.lucrabet.events.RegistrosAlteradosEvent;
+
+/**
+ * Versão dos dados: um contador que só cresce e é incrementado depois do
+ * commit de cada escrita em registros, plataformas ou contas (pelos eventos
+ * publicados pelos serviços). Duas leituras feitas na mesma versão veem os
+ * mesmos dados, o que permite responder GETs condicionais sem ir ao banco.
+ */
+@Service
+public class VersaoDadosService {
+
+  // Diferencia as versões de execuções diferentes da aplicação (o contador
+  // recomeça a cada inicialização e o banco em memória também)
+  private final long instancia = System.currentTimeMillis();
+
+  private final AtomicLong versao = new AtomicLong();
+
+  // Só depois do AnaliticoService e do CacheAgregadosService (que usa
+  // LOWEST_PRECEDENCE - 10): quem ler a versão nova precisa ver a cópia em
+  // memória já atualizada e o cache já invalidado
+  @TransactionalEventListener(fallbackExecution = true)
+  @Order(Ordered.LOWEST_PRECEDENCE)
+  public void aoAlterarRegistros(RegistrosAlteradosEvent evento) {
+    versao.incrementAndGet();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void aoAlterarCadastro(CadastroAlteradoEvent evento) {
+    versao.incrementAndGet();
+  }
+
+  public long getVersao() {
+    return versao.get();
+  }
+
+  // Valor do ETag (fraco) correspondente à versão atual
+  public String getEtag() {
+    return "W/\"" + Long.toString(instancia, 36) + "-" + versao.get() + "\"";
+  }
+}
@@ -0,0 +1,69 @@
+package com.thomaskavi.lucrabet.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Aritmética de dinheiro em centavos, como long.
+ *
+ * Os valores de RegistroOperacao são DECIMAL(10, 2), então cabem exatamente em
+ * um long de centavos (|v| < 10^10). As somas são feitas nesse formato, sem
+ * alocar um BigDecimal por adição, e só viram BigDecimal na borda da API
+ * (getters dos DTOs).
+ */
+public final class Centavos {
+
+  // Maior valor absoluto de uma coluna DECIMAL(10, 2), em centavos
+  public static final long MAXIMO_POR_VALOR = 99_999_999_99L;
+
+  // Quantos valores de uma coluna podem ser somados com "+" sem risco de
+  // overflow: BLOCO_SEM_OVERFLOW * MAXIMO_POR_VALOR < Long.MAX_VALUE
+  static final int BLOCO_SEM_OVERFLOW = 1 << 26;
+
+  private Centavos() {
+  }
+
+  /**
+   * Converte um valor monetário em centavos.
+   *
+   * @throws ArithmeticException se o valor tiver frações de centavo ou não
+   *                             couber em um long
+   */
+  public static long de(BigDecimal valor) {
+    return valor.movePointRight(2).longValueExact();
+  }
+
+  /**
+   * Arredonda um valor recebido pela API para 2 casas (HALF_UP, como a coluna
+   * DECIMAL(10, 2) faria ao gravar), para que o agregado, o evento e a resposta
+   * usem o mesmo valor que vai para o banco. null continua null.
+   */
+  public static BigDecimal arredondar(BigDecimal valor) {
+    return valor == null ? null : valor.setScale(2, RoundingMode.HALF_UP);
+  }
+
+  // Converte centavos no BigDecimal com escala 2 devolvido pela API
+  public static BigDecimal paraDecimal(long centavos) {
+    return BigDecimal.valueOf(centavos, 2);
+  }
+
+  /**
+   * Soma "quantidade" valores de uma coluna (cada um com |v| <=
+   * MAXIMO_POR_VALOR, como os vindos de de()). Cada bloco de
+   * BLOCO_SEM_OVERFLOW valores é somado com "+" (o JIT consegue vetorizar o
+   * laço) e os totais dos blocos são combinados com Math.addExact, que lança
+   * ArithmeticException em caso de overflow.
+   */
+  public static long somar(long[] valores, int quantidade) {
+    long total = 0;
+    for (int inicio = 0; inicio < quantidade; inicio += BLOCO_SEM_OVERFLOW) {
+      int fim = (int) Math.min((long) inicio + BLOCO_SEM_OVERFLOW, quantidade);
+      long bloco = 0;
+      for (int i = inicio; i < fim; i++) {
+        bloco += valores[i];
+      }
+      total = Math.addExact(total, bloco);
+    }
+    return total;
+  }
+}
@@ -0,0 +1,134 @@
+package com.thomaskavi.lucrabet.util;
+
+import java.util.Arrays;
+
+/**
+ * Distribuição aproximada de valores em centavos (positivos, negativos ou
+ * zero) para estimar quantis sem guardar os valores, no formato do DDSketch:
+ * cada valor cai em um balde logarítmico e o quantil devolvido tem erro
+ * relativo de no máximo ERRO_RELATIVO.
+ *
+ * Diferente de um sketch só de inserção, os baldes são contadores exatos, então
+ * um valor pode ser retirado (atualização ou exclusão de uma operação) e o
+ * resultado é o mesmo de ter montado o sketch sem ele. Como os valores vêm de
+ * DECIMAL(10, 2), cada sinal tem no máximo ~1.200 baldes, alocados só na faixa
+ * que aparecer.
+ *
+ * Não é thread-safe.
+ */
+public class SketchQuantis {
+
+  public static final double ERRO_RELATIVO = 0.01;
+
+  private static final double GAMA = (1 + ERRO_RELATIVO) / (1 - ERRO_RELATIVO);
+  private static final double LOG_GAMA = Math.log(GAMA);
+
+  private final Baldes positivos = new Baldes();
+  private final Baldes negativos = new Baldes();
+  private long zeros;
+  private long quantidade;
+
+  public void adicionar(long centavos) {
+    alterar(centavos, 1);
+  }
+
+  /**
+   * Retira um valor adicionado antes.
+   *
+   * @throws IllegalStateException se o valor não estiver no sketch
+   */
+  public void remover(long centavos) {
+    alterar(centavos, -1);
+  }
+
+  public long getQuantidade() {
+    return quantidade;
+  }
+
+  /**
+   * Estimativa do quantil q (0 = mínimo, 0,5 = mediana, 1 = máximo), em
+   * centavos, pelo posto mais próximo: o valor na posição ceil(q * n) da
+   * ordem crescente. Em distribuições pequenas os percentis altos não caem
+   * no mínimo (com {-3,00; 1,00}, o p90 é ~1,00).
+   *
+   * @throws IllegalStateException se o sketch estiver vazio
+   */
+  public long quantil(double q) {
+    if (q < 0 || q > 1) {
+      throw new IllegalArgumentException("Quantil fora de [0, 1]: " + q);
+    }
+    if (quantidade == 0) {
+      throw new IllegalStateException("Sketch vazio");
+    }
+    long posicao = Math.max(0, (long) Math.ceil(q * quantidade) - 1);
+
+    // Do mais negativo ao mais positivo: negativos pelo índice decrescente
+    long acumulado = 0;
+    for (int i = negativos.contagens.length - 1; i >= 0; i--) {
+      acumulado += negativos.contagens[i];
+      if (acumulado > posicao) {
+        return -valorDoBalde(i + negativos.deslocamento);
+      }
+    }
+    acumulado += zeros;
+    if (acumulado > posicao) {
+      return 0;
+    }
+    for (int i = 0; i < positivos.contagens.length; i++) {
+      acumulado += positivos.contagens[i];
+      if (acumulado > posicao) {
+        return valorDoBalde(i + positivos.deslocamento);
+      }
+    }
+    throw new IllegalStateException("Contagens inconsistentes");
+  }
+
+  private void alterar(long centavos, int sinal) {
+    if (centavos == 0) {
+      if (zeros + sinal < 0) {
+        throw new IllegalStateException("Valor não está no sketch: " + centavos);
+      }
+      zeros += sinal;
+    } else {
+      Baldes baldes = centavos > 0 ? positivos : negativos;
+      baldes.alterar(indice(Math.abs(centavos)), sinal, centavos);
+    }
+    quantidade += sinal;
+  }
+
+  // Balde i cobre (GAMA^(i-1), GAMA^i]
+  private static int indice(long valorAbsoluto) {
+    return (int) Math.ceil(Math.log(valorAbsoluto) / LOG_GAMA);
+  }
+
+  // Ponto do balde com erro relativo <= ERRO_RELATIVO para todo o intervalo
+  private static long valorDoBalde(int indice) {
+    return Math.round(2 * Math.pow(GAMA, indice) / (GAMA + 1));
+  }
+
+  // Contadores de uma faixa contínua de índices, crescendo conforme preciso
+  private static class Baldes {
+    long[] contagens = new long[0];
+    int deslocamento;
+
+    void alterar(int indice, int sinal, long centavos) {
+      if (contagens.length == 0) {
+        contagens = new long[8];
+        deslocamento = indice;
+      } else if (indice < deslocamento) {
+        int novoDeslocamento = Math.min(indice, deslocamento - contagens.length);
+        long[] maior = new long[contagens.length + (deslocamento - novoDeslocamento)];
+        System.arraycopy(contagens, 0, maior, deslocamento - novoDeslocamento, contagens.length);
+        contagens = maior;
+        deslocamento = novoDeslocamento;
+      } else if (indice - deslocamento >= contagens.length) {
+        contagens = Arrays.copyOf(contagens, Math.max(indice - deslocamento + 1, contagens.length * 2));
+      }
+      int posicao = indice - deslocamento;
+      if (contagens[posicao] + sinal < 0) {
+        throw new IllegalStateException("Valor não está no sketch: " + centavos);
+      }
+      contagens[posicao] += sinal;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.thomaskavi.lucrabet.util;
+
+import com.thomaskavi.lucrabet.dto.SumarioDTO;
+
+/**
+ * Acumulador mutável dos totais de um conjunto de operações (lucro e depósito
+ * em centavos, quantidade de operações e saques pendentes). Todas as somas são
+ * verificadas contra overflow.
+ *
+ * Não é thread-safe: cada thread acumula no seu e os parciais são juntados com
+ * combinar().
+ */
+public class TotaisCentavos {
+
+  private long lucro;
+  private long deposito;
+  private long quantidadeOperacoes;
+  private long saquesPendentes;
+
+  /**
+   * Soma uma operação. Com sinal = -1 a operação é retirada (usado para
+   * deltas de atualização e exclusão).
+   */
+  public void adicionar(long lucroCentavos, long depositoCentavos, boolean saqueCompletoFeito, int sinal) {
+    lucro = Math.addExact(lucro, lucroCentavos * sinal);
+    deposito = Math.addExact(deposito, depositoCentavos * sinal);
+    quantidadeOperacoes += sinal;
+    if (!saqueCompletoFeito) {
+      saquesPendentes += sinal;
+    }
+  }
+
+  // Soma totais já calculados (ex.: as somas de um bloco de linhas)
+  public void somar(long lucroCentavos, long depositoCentavos, long quantidade, long pendentes) {
+    lucro = Math.addExact(lucro, lucroCentavos);
+    deposito = Math.addExact(deposito, depositoCentavos);
+    quantidadeOperacoes += quantidade;
+    saquesPendentes += pendentes;
+  }
+
+  // Junta os totais de outro acumulador a este e devolve este
+  public TotaisCentavos combinar(TotaisCentavos outro) {
+    lucro = Math.addExact(lucro, outro.lucro);
+    deposito = Math.addExact(deposito, outro.deposito);
+    quantidadeOperacoes += outro.quantidadeOperacoes;
+    saquesPendentes += outro.saquesPendentes;
+    return this;
+  }
+
+  public long getLucro() {
+    return lucro;
+  }
+
+  public long getDeposito() {
+    return deposito;
+  }
+
+  public long getQuantidadeOperacoes() {
+    return quantidadeOperacoes;
+  }
+
+  public long getSaquesPendentes() {
+    return saquesPendentes;
+  }
+
+  public SumarioDTO paraSumario() {
+    return new SumarioDTO(lucro, deposito, quantidadeOperacoes, saquesPendentes);
+  }
+}
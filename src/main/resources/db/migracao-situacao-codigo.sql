@@ -0,0 +1,26 @@
+-- Migração de tb_registros_operacoes.situacao de VARCHAR(50) (texto da
+-- planilha) para SMALLINT com o código da enum Situacao.
+--
+-- O banco em memória é recriado pelo Hibernate a cada subida e não precisa
+-- dela; é para um banco persistente (ex.: spring.datasource.url apontando para
+-- um arquivo H2) criado antes da mudança. Rodar com a aplicação parada, em uma
+-- única transação. Textos fora da lista fazem o ALTER do NOT NULL falhar: é
+-- preciso corrigi-los antes (SELECT DISTINCT situacao FROM ...).
+
+ALTER TABLE tb_registros_operacoes ADD COLUMN situacao_codigo SMALLINT;
+
+UPDATE tb_registros_operacoes SET situacao_codigo = CASE LOWER(TRIM(situacao))
+  WHEN 'finalizado' THEN 1
+  WHEN 'aguardando' THEN 2
+  WHEN 'cancelado' THEN 3
+END;
+
+ALTER TABLE tb_registros_operacoes ALTER COLUMN situacao_codigo SET NOT NULL;
+
+-- O índice composto (situação, data) passa a usar a coluna codificada
+DROP INDEX IF EXISTS idx_registros_situacao_data;
+ALTER TABLE tb_registros_operacoes DROP COLUMN situacao;
+ALTER TABLE tb_registros_operacoes ALTER COLUMN situacao_codigo RENAME TO situacao;
+CREATE INDEX idx_registros_situacao_data ON tb_registros_operacoes (situacao, data_operacao);
+
+ANALYZE TABLE tb_registros_operacoes;
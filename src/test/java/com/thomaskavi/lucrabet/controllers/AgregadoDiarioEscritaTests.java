@@ -0,0 +1,134 @@
+package com.thomaskavi.lucrabet.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Garante que o agregado diário (e os totais lidos dele ou da cópia
+ * analítica) acompanha as escritas por registro: inclusão, atualização
+ * mantendo ou trocando a chave (dia, plataforma, conta), exclusão e
+ * importação, inclusive com valores de mais de 2 casas (arredondados antes de
+ * gravar). Depois de cada uma, os totais são conferidos contra somas feitas
+ * direto em tb_registros_operacoes.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:agregado-escrita")
+@AutoConfigureMockMvc
+class AgregadoDiarioEscritaTests {
+
+  private static final String BASE = "/api/registros-operacoes";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void escritasMantemOAgregadoIgualAosRegistros() throws Exception {
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+
+    long id = criar(registro("agregado-a.bet", "conta-agregado", "2025-09-01", "40.00", "12.30", false));
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+
+    // Mesma chave: só os valores mudam
+    mockMvc.perform(put(BASE + "/" + id).contentType(MediaType.APPLICATION_JSON)
+        .content(registro("agregado-a.bet", "conta-agregado", "2025-09-01", "55.00", "-7.10", true)))
+        .andExpect(status().isOk());
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+
+    // Troca de plataforma: a linha antiga do agregado fica vazia e sai
+    mockMvc.perform(put(BASE + "/" + id).contentType(MediaType.APPLICATION_JSON)
+        .content(registro("agregado-b.bet", "conta-agregado", "2025-09-02", "55.00", "-7.10", true)))
+        .andExpect(status().isOk());
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM tb_agregados_diarios WHERE data_operacao = DATE '2025-09-01'", Long.class))
+        .isZero();
+
+    mockMvc.perform(delete(BASE + "/" + id)).andExpect(status().isNoContent());
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+    mockMvc.perform(delete(BASE + "/" + id)).andExpect(status().isNotFound());
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+  }
+
+  @Test
+  void valoresComMaisDeDuasCasasSaoArredondados() throws Exception {
+    String corpo = registro("agregado-c.bet", "conta-agregado", "2025-09-03", "10.005", "25.555", false);
+    String resposta = mockMvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON).content(corpo))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.valorDeposito").value(10.01))
+        .andExpect(jsonPath("$.valorLucro").value(25.56))
+        .andReturn().getResponse().getContentAsString();
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+
+    long id = objectMapper.readTree(resposta).get("id").asLong();
+    mockMvc.perform(patch(BASE + "/" + id).contentType(MediaType.APPLICATION_JSON)
+        .content("{\"valorLucro\": -3.3349, \"versao\": 0}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.valorLucro").value(-3.33));
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+  }
+
+  @Test
+  void importacaoSomaOLoteNoAgregado() throws Exception {
+    String csv = """
+        Plataforma;Conta;Data;Valor Depós.;Slot/Giros;Situação;Lucro;Saque Completo
+        importada-a.bet;conta-importada;10/09/2025;R$ 20,00;Aviator 5x;Finalizado;R$ 3,50;Sim
+        importada-a.bet;conta-importada;10/09/2025;R$ 30,00;Aviator 5x;Aguardando;R$ -30,00;Não
+        importada-b.bet;conta-importada;11/09/2025;R$ 1.000,00;Fortune Tiger 10x;Finalizado;R$ 250,75;Sim
+        """;
+    mockMvc.perform(post(BASE + "/importacao").contentType("text/csv").content(csv))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.linhasImportadas").value(3));
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+  }
+
+  @Test
+  void importacaoRecusaSoALinhaComTextoLongoDemais() throws Exception {
+    String csv = """
+        Plataforma;Conta;Data;Valor Depós.;Slot/Giros;Situação;Lucro;Saque Completo
+        importada-c.bet;conta-importada;12/09/2025;R$ 15,00;Aviator 5x;Finalizado;R$ 2,00;Sim
+        importada-c.bet;conta-importada;12/09/2025;R$ 15,00;%s;Finalizado;R$ 9,00;Sim
+        importada-c.bet;conta-importada;12/09/2025;R$ 15,00;Aviator 5x;Finalizado;R$ -1,00;Não
+        """.formatted("x".repeat(256));
+    mockMvc.perform(post(BASE + "/importacao").contentType("text/csv").content(csv))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.linhasImportadas").value(2))
+        .andExpect(jsonPath("$.linhasComErro").value(1))
+        .andExpect(jsonPath("$.erros[0].linha").value(3));
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+  }
+
+  private long criar(String corpo) throws Exception {
+    String resposta = mockMvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON).content(corpo))
+        .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+    return objectMapper.readTree(resposta).get("id").asLong();
+  }
+
+  private static String registro(String plataforma, String conta, String data, String deposito, String lucro,
+      boolean saque) {
+    return """
+        {"plataforma": {"linkPlataforma": "%s"}, "conta": {"nomeConta": "%s"}, "dataOperacao": "%s",
+         "valorDeposito": %s, "nomeSlotGiros": "Aviator 10x", "situacao": "Finalizado", "valorLucro": %s,
+         "saqueCompletoFeito": %s}
+        """.formatted(plataforma, conta, data, deposito, lucro, saque);
+  }
+}
@@ -0,0 +1,87 @@
+package com.thomaskavi.lucrabet.controllers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * PATCH de um registro (UPDATE dentro de SELECT ... FROM OLD TABLE): 404 para
+ * id inexistente, 400 sem versão, 409 com versão antiga e, quando aplicado, os
+ * totais derivados continuam iguais às somas de tb_registros_operacoes,
+ * inclusive quando o PATCH troca o dia ou a plataforma do registro.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:atualizacao-parcial")
+@AutoConfigureMockMvc
+class AtualizacaoParcialTests {
+
+  private static final String BASE = "/api/registros-operacoes";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void patchConfereAVersaoEMantemOsTotais() throws Exception {
+    long id = criar();
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+
+    alterar(id, "{\"valorLucro\": 80.25, \"saqueCompletoFeito\": true, \"versao\": 0}")
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.versao").value(1))
+        .andExpect(jsonPath("$.valorLucro").value(80.25))
+        .andExpect(jsonPath("$.valorDeposito").value(60.00));
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+
+    // A versão 0 já foi usada: nada muda
+    alterar(id, "{\"valorLucro\": 1.00, \"versao\": 0}").andExpect(status().isConflict());
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+
+    // Troca a chave do agregado (dia e plataforma)
+    alterar(id, "{\"dataOperacao\": \"2025-10-06\", \"linkPlataforma\": \"patch-b.bet\", \"versao\": 1}")
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.linkPlataforma").value("patch-b.bet"))
+        .andExpect(jsonPath("$.versao").value(2));
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+  }
+
+  @Test
+  void patchRecusaIdInexistenteEVersaoAusente() throws Exception {
+    alterar(Long.MAX_VALUE, "{\"valorLucro\": 1.00, \"versao\": 0}").andExpect(status().isNotFound());
+
+    long id = criar();
+    alterar(id, "{\"valorLucro\": 1.00}").andExpect(status().isBadRequest());
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+  }
+
+  private long criar() throws Exception {
+    String corpo = """
+        {"plataforma": {"linkPlataforma": "patch-a.bet"}, "conta": {"nomeConta": "conta-patch"},
+         "dataOperacao": "2025-10-05", "valorDeposito": 60.00, "nomeSlotGiros": "Sweet Bonanza 20x",
+         "situacao": "Aguardando", "valorLucro": 0, "saqueCompletoFeito": false}
+        """;
+    String resposta = mockMvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON).content(corpo))
+        .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+    return objectMapper.readTree(resposta).get("id").asLong();
+  }
+
+  private ResultActions alterar(long id, String corpo) throws Exception {
+    return mockMvc.perform(patch(BASE + "/" + id).contentType(MediaType.APPLICATION_JSON).content(corpo));
+  }
+}
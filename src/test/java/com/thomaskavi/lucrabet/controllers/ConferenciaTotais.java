@@ -0,0 +1,83 @@
+package com.thomaskavi.lucrabet.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Confere os totais mantidos a cada escrita (cópia analítica, agregado diário
+ * e os caches sobre eles) contra somas feitas direto em
+ * tb_registros_operacoes. Os testes das escritas chamam conferir() depois de
+ * cada alteração.
+ */
+final class ConferenciaTotais {
+
+  private static final String SQL_TOTAIS = "SELECT COALESCE(SUM(valor_lucro), 0) lucro, "
+      + "COALESCE(SUM(valor_deposito), 0) deposito, COUNT(*) quantidade, "
+      + "COUNT(CASE WHEN saque_completo_feito = FALSE THEN 1 END) pendentes FROM tb_registros_operacoes";
+
+  private static final String SQL_LUCRO_POR_PLATAFORMA = "SELECT p.link_plataforma, SUM(r.valor_lucro) lucro "
+      + "FROM tb_registros_operacoes r JOIN tb_plataformas p ON p.id = r.plataforma_id GROUP BY p.link_plataforma";
+
+  // O agregado deve ter exatamente uma linha por (dia, plataforma, conta) com
+  // registros, sem linhas zeradas
+  private static final String SQL_AGREGADO_ESPERADO = "SELECT data_operacao, plataforma_id, conta_id, "
+      + "SUM(CAST(valor_lucro * 100 AS BIGINT)), SUM(CAST(valor_deposito * 100 AS BIGINT)), COUNT(*), "
+      + "COUNT(CASE WHEN saque_completo_feito = FALSE THEN 1 END) "
+      + "FROM tb_registros_operacoes GROUP BY data_operacao, plataforma_id, conta_id ORDER BY 1, 2, 3";
+
+  private static final String SQL_AGREGADO = "SELECT data_operacao, plataforma_id, conta_id, lucro_centavos, "
+      + "deposito_centavos, quantidade_operacoes, saques_pendentes FROM tb_agregados_diarios ORDER BY 1, 2, 3";
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  private ConferenciaTotais() {
+  }
+
+  static void conferir(MockMvc mockMvc, JdbcTemplate jdbcTemplate) throws Exception {
+    Map<String, Object> esperado = jdbcTemplate.queryForMap(SQL_TOTAIS);
+
+    conferirSumario(ler(mockMvc, "/api/registros-operacoes/sumario"), esperado);
+
+    JsonNode grupos = ler(mockMvc, "/api/analitico").get("grupos");
+    assertThat(grupos).hasSize(1);
+    conferirSumario(grupos.get(0), esperado);
+
+    for (Map<String, Object> plataforma : jdbcTemplate.queryForList(SQL_LUCRO_POR_PLATAFORMA)) {
+      JsonNode lucro = ler(mockMvc,
+          "/api/registros-operacoes/lucro-por-plataforma/" + plataforma.get("LINK_PLATAFORMA"));
+      assertThat(lucro.decimalValue()).as("lucro de %s", plataforma.get("LINK_PLATAFORMA"))
+          .isEqualByComparingTo((BigDecimal) plataforma.get("LUCRO"));
+    }
+
+    List<List<Object>> agregado = jdbcTemplate.query(SQL_AGREGADO, (rs, i) -> List.of(rs.getObject(1),
+        rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getLong(7)));
+    List<List<Object>> agregadoEsperado = jdbcTemplate.query(SQL_AGREGADO_ESPERADO, (rs, i) -> List.of(
+        rs.getObject(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getLong(7)));
+    assertThat(agregado).isEqualTo(agregadoEsperado);
+  }
+
+  private static void conferirSumario(JsonNode sumario, Map<String, Object> esperado) {
+    assertThat(sumario.get("lucroTotal").decimalValue()).isEqualByComparingTo((BigDecimal) esperado.get("LUCRO"));
+    assertThat(sumario.get("depositoTotal").decimalValue())
+        .isEqualByComparingTo((BigDecimal) esperado.get("DEPOSITO"));
+    assertThat(sumario.get("quantidadeOperacoes").asLong()).isEqualTo(((Number) esperado.get("QUANTIDADE")).longValue());
+    assertThat(sumario.get("saquesPendentes").asLong()).isEqualTo(((Number) esperado.get("PENDENTES")).longValue());
+  }
+
+  private static JsonNode ler(MockMvc mockMvc, String url) throws Exception {
+    String corpo = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse()
+        .getContentAsString();
+    return JSON.readTree(corpo);
+  }
+}
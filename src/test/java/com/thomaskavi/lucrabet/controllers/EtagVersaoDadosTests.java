@@ -0,0 +1,68 @@
+package com.thomaskavi.lucrabet.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * GET condicional pelo EtagVersaoDadosFilter: If-None-Match com o ETag atual
+ * recebe 304 sem corpo, uma escrita troca o ETag e respostas de erro saem sem
+ * ETag.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:etag-versao-dados")
+@AutoConfigureMockMvc
+class EtagVersaoDadosTests {
+
+  private static final String ANALITICO = "/api/analitico?agruparPor=plataforma";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  void etagIgualRecebe304ETrocaDepoisDeUmaEscrita() throws Exception {
+    String etag = mockMvc.perform(get(ANALITICO))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(etag).startsWith("W/\"");
+
+    mockMvc.perform(get(ANALITICO).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andExpect(content().string(""));
+
+    String corpo = """
+        {"plataforma": {"linkPlataforma": "etag.bet"}, "conta": {"nomeConta": "conta-etag"},
+         "dataOperacao": "2025-12-01", "valorDeposito": 10.00, "nomeSlotGiros": "Aviator 10x",
+         "situacao": "Finalizado", "valorLucro": 2.50, "saqueCompletoFeito": true}
+        """;
+    mockMvc.perform(post("/api/registros-operacoes").contentType(MediaType.APPLICATION_JSON).content(corpo))
+        .andExpect(status().isCreated());
+
+    String novoEtag = mockMvc.perform(get(ANALITICO).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(novoEtag).isNotNull().isNotEqualTo(etag);
+  }
+
+  @Test
+  void respostasDeErroSaemSemEtag() throws Exception {
+    mockMvc.perform(get("/api/analitico?agruparPor=invalida"))
+        .andExpect(status().isBadRequest())
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    mockMvc.perform(get("/api/registros-operacoes/" + Long.MAX_VALUE))
+        .andExpect(status().isNotFound())
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+  }
+}
@@ -0,0 +1,111 @@
+package com.thomaskavi.lucrabet.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.thomaskavi.lucrabet.dto.RegistroOperacaoDTO;
+import com.thomaskavi.lucrabet.entities.Conta;
+import com.thomaskavi.lucrabet.entities.Plataforma;
+import com.thomaskavi.lucrabet.entities.RegistroOperacao;
+import com.thomaskavi.lucrabet.entities.Situacao;
+import com.thomaskavi.lucrabet.services.RegistroOperacaoService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Garante que as listagens de registros não voltem a disparar consultas extras
+ * para plataforma e conta (N+1): cada requisição deve executar um único
+ * SELECT, medido pelas estatísticas do Hibernate.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:registros-controller",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn" })
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RegistroOperacaoControllerTests {
+
+  // Cada registro tem plataforma e conta próprias: com associações EAGER isso
+  // seria um SELECT extra por plataforma e por conta
+  private static final int REGISTROS = 30;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private RegistroOperacaoService registroOperacaoService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  private Long idExistente;
+
+  @BeforeAll
+  void popularBanco() {
+    for (int i = 0; i < REGISTROS; i++) {
+      RegistroOperacaoDTO salvo = registroOperacaoService.save(new RegistroOperacao(null,
+          new Plataforma(null, "plataforma-" + i + ".bet"), new Conta(null, "conta-" + i),
+          LocalDate.of(2025, 8, 1).plusDays(i % 5), new BigDecimal("10.00"), "Slot " + i, Situacao.FINALIZADO,
+          new BigDecimal("2.50"), i % 2 == 0));
+      idExistente = salvo.getId();
+    }
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @BeforeEach
+  void zerarEstatisticas() {
+    statistics.clear();
+  }
+
+  @Test
+  void listagemExecutaUmaConsulta() throws Exception {
+    executar("/api/registros-operacoes?tamanho=" + REGISTROS)
+        .andExpect(jsonPath("$.tamanho").value(REGISTROS))
+        .andExpect(jsonPath("$.conteudo[0].linkPlataforma").exists())
+        .andExpect(jsonPath("$.conteudo[0].nomeConta").exists());
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void listagensFiltradasExecutamUmaConsulta() throws Exception {
+    executar("/api/registros-operacoes/periodo?startDate=2025-08-01&endDate=2025-08-03");
+    executar("/api/registros-operacoes/data/2025-08-02");
+    executar("/api/registros-operacoes/situacao/Finalizado");
+    executar("/api/registros-operacoes/saque-completo/true");
+    executar("/api/registros-operacoes/plataforma/plataforma-7.bet")
+        .andExpect(jsonPath("$.conteudo[0].nomeConta").value("conta-7"));
+    executar("/api/registros-operacoes/conta/conta-7")
+        .andExpect(jsonPath("$.conteudo[0].linkPlataforma").value("plataforma-7.bet"));
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+  }
+
+  @Test
+  void buscaPorIdExecutaUmaConsulta() throws Exception {
+    executar("/api/registros-operacoes/" + idExistente)
+        .andExpect(jsonPath("$.id").value(idExistente));
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  private ResultActions executar(String url) throws Exception {
+    return mockMvc.perform(get(url)).andExpect(status().isOk());
+  }
+}
@@ -0,0 +1,92 @@
+package com.thomaskavi.lucrabet.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Transição em massa (POST /transicao): um UPDATE para todos os registros
+ * escolhidos, por ids ou filtro, com o agregado atualizado pelo
+ * substituirLote. Registros já no estado pedido não contam como alterados, e
+ * os totais derivados continuam iguais às somas de tb_registros_operacoes.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transicao-lote")
+@AutoConfigureMockMvc
+class TransicaoLoteTests {
+
+  private static final String BASE = "/api/registros-operacoes";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void transicaoAlteraOsEscolhidosEMantemOsTotais() throws Exception {
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      // Dois dias e duas plataformas: o lote afeta várias chaves do agregado
+      ids.add(criar("transicao-" + (i % 2) + ".bet", "2025-11-0" + (1 + i / 2)));
+    }
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+
+    transicionar("{\"ids\": " + ids.subList(0, 3) + ", \"saqueCompletoFeito\": true}")
+        .andExpect(jsonPath("$.alterados").value(3));
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+
+    // Os três já estão com o saque feito: só o quarto muda
+    transicionar("{\"ids\": " + ids + ", \"saqueCompletoFeito\": true}")
+        .andExpect(jsonPath("$.alterados").value(1));
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+
+    transicionar("{\"nomeConta\": \"conta-transicao\", \"situacaoAtual\": \"Aguardando\", "
+        + "\"situacao\": \"Finalizado\"}")
+        .andExpect(jsonPath("$.alterados").value(4));
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_registros_operacoes r "
+        + "JOIN tb_contas c ON c.id = r.conta_id WHERE c.nome_conta = 'conta-transicao' AND r.situacao = 1 "
+        + "AND r.versao = 2", Long.class)).isEqualTo(4);
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+  }
+
+  @Test
+  void transicaoSemCriterioERecusada() throws Exception {
+    mockMvc.perform(post(BASE + "/transicao").contentType(MediaType.APPLICATION_JSON)
+        .content("{\"saqueCompletoFeito\": true}")).andExpect(status().isBadRequest());
+    ConferenciaTotais.conferir(mockMvc, jdbcTemplate);
+  }
+
+  private long criar(String plataforma, String data) throws Exception {
+    String corpo = """
+        {"plataforma": {"linkPlataforma": "%s"}, "conta": {"nomeConta": "conta-transicao"},
+         "dataOperacao": "%s", "valorDeposito": 25.00, "nomeSlotGiros": "Aviator 10x",
+         "situacao": "Aguardando", "valorLucro": 4.75, "saqueCompletoFeito": false}
+        """.formatted(plataforma, data);
+    String resposta = mockMvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON).content(corpo))
+        .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+    return objectMapper.readTree(resposta).get("id").asLong();
+  }
+
+  private ResultActions transicionar(String corpo) throws Exception {
+    return mockMvc.perform(post(BASE + "/transicao").contentType(MediaType.APPLICATION_JSON).content(corpo))
+        .andExpect(status().isOk());
+  }
+}
@@ -0,0 +1,253 @@
+package com.thomaskavi.lucrabet.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.thomaskavi.lucrabet.entities.Situacao;
+
+/**
+ * Carrega uma massa sintética grande em tb_registros_operacoes e confere, com
+ * o EXPLAIN do H2, que cada consulta do RegistroOperacaoRepository usa um
+ * índice em vez de varrer a tabela inteira.
+ *
+ * O plano é obtido de dentro do próprio JDBC: o DataSource do teste repete
+ * cada SELECT sobre a tabela como "EXPLAIN ..." na mesma conexão e com os
+ * mesmos parâmetros, então o que é verificado é exatamente o SQL gerado pelo
+ * Hibernate para o método.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:registros-plano" })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RegistroOperacaoRepositoryPlanoTests {
+
+  private static final int REGISTROS = 200_000;
+  private static final int PLATAFORMAS = 40;
+  private static final int CONTAS = 25;
+
+  private static final String TABELA = "TB_REGISTROS_OPERACOES";
+
+  private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+  private static final Limit PAGINA = Limit.of(51);
+
+  @Autowired
+  private RegistroOperacaoRepository registroOperacaoRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @TestConfiguration
+  static class Configuracao {
+
+    @Bean
+    static BeanPostProcessor explainDataSource() {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+          return bean instanceof DataSource dataSource ? CapturaPlanos.envolver(dataSource) : bean;
+        }
+      };
+    }
+  }
+
+  @BeforeAll
+  void carregarMassa() {
+    jdbcTemplate.update("INSERT INTO tb_plataformas (id, link_plataforma) "
+        + "SELECT 1000000 + X, 'plataforma-' || X || '.bet' FROM SYSTEM_RANGE(1, CAST(? AS INT))", PLATAFORMAS);
+    jdbcTemplate.update("INSERT INTO tb_contas (id, nome_conta) "
+        + "SELECT 1000000 + X, 'conta-' || X FROM SYSTEM_RANGE(1, CAST(? AS INT))", CONTAS);
+    jdbcTemplate.update("INSERT INTO tb_registros_operacoes (id, plataforma_id, conta_id, data_operacao, "
+        + "valor_deposito, nome_slot_giros, situacao, valor_lucro, saque_completo_feito) "
+        + "SELECT 1000000 + X, 1000001 + MOD(X, ?), 1000001 + MOD(X, ?), DATEADD(DAY, MOD(X, 540), CAST(? AS DATE)), "
+        + "MOD(X, 200) + 10, 'Slot ' || MOD(X, 300), "
+        + "CASE MOD(X, 10) WHEN 0 THEN 2 WHEN 1 THEN 3 ELSE 1 END, "
+        + "MOD(X, 150) - 50, MOD(X, 4) <> 0 FROM SYSTEM_RANGE(1, CAST(? AS INT))",
+        PLATAFORMAS, CONTAS, INICIO, REGISTROS);
+    jdbcTemplate.execute("ANALYZE");
+  }
+
+  @BeforeEach
+  void limparPlanos() {
+    CapturaPlanos.PLANOS.clear();
+  }
+
+  @Test
+  void buscarPorId() {
+    registroOperacaoRepository.buscarPorId(1_000_500L);
+    assertUsaIndice("PRIMARY_KEY");
+  }
+
+  @Test
+  void buscarPagina() {
+    registroOperacaoRepository.buscarPagina(INICIO.plusDays(100), 1_000_000L, PAGINA);
+    assertUsaIndice("IDX_REGISTROS_DATA");
+  }
+
+  @Test
+  void buscarPaginaPorDataOperacao() {
+    registroOperacaoRepository.buscarPaginaPorDataOperacao(INICIO.plusDays(10), 0L, PAGINA);
+    assertUsaIndice("IDX_REGISTROS_DATA");
+  }
+
+  @Test
+  void buscarPaginaPorPeriodo() {
+    registroOperacaoRepository.buscarPaginaPorPeriodo(INICIO.plusDays(30), INICIO.plusDays(60), INICIO, 0L,
+        PAGINA);
+    assertUsaIndice("IDX_REGISTROS_DATA");
+  }
+
+  @Test
+  void buscarPaginaPorPlataforma() {
+    registroOperacaoRepository.buscarPaginaPorPlataforma(1_000_007L, INICIO, 0L, PAGINA);
+    assertUsaIndice("IDX_REGISTROS_PLATAFORMA_DATA");
+  }
+
+  @Test
+  void buscarPaginaPorConta() {
+    registroOperacaoRepository.buscarPaginaPorConta(1_000_007L, INICIO, 0L, PAGINA);
+    assertUsaIndice("IDX_REGISTROS_CONTA_DATA");
+  }
+
+  @Test
+  void buscarPaginaPorSituacao() {
+    registroOperacaoRepository.buscarPaginaPorSituacao(Situacao.AGUARDANDO, INICIO, 0L, PAGINA);
+    assertUsaIndice("IDX_REGISTROS_SITUACAO_DATA");
+  }
+
+  @Test
+  void buscarPaginaPorSaqueCompletoFeito() {
+    registroOperacaoRepository.buscarPaginaPorSaqueCompletoFeito(false, INICIO, 0L, PAGINA);
+    assertUsaIndice("IDX_REGISTROS_SAQUE_DATA");
+  }
+
+  @Test
+  void buscarPorPlataformaEPeriodo() {
+    registroOperacaoRepository.buscar(Specification.allOf(RegistroOperacaoSpecs.daPlataforma(1_000_007L),
+        RegistroOperacaoSpecs.aPartirDe(INICIO.plusDays(30)), RegistroOperacaoSpecs.ate(INICIO.plusDays(90)),
+        RegistroOperacaoSpecs.lucroMinimo(BigDecimal.ZERO)), Sort.by("dataOperacao", "id"), PAGINA);
+    assertUsaIndice("IDX_REGISTROS_PLATAFORMA_DATA");
+  }
+
+  @Test
+  void buscarPorContaESituacaoDepoisDoCursor() {
+    registroOperacaoRepository.buscar(Specification.allOf(RegistroOperacaoSpecs.daConta(1_000_007L),
+        RegistroOperacaoSpecs.comSituacao(Situacao.AGUARDANDO),
+        RegistroOperacaoSpecs.depoisDe("dataOperacao", INICIO.plusDays(200), 1_000_000L, true)),
+        Sort.by("dataOperacao", "id"), PAGINA);
+    assertUsaIndice("IDX_REGISTROS_CONTA_DATA");
+  }
+
+  @Test
+  void buscarPorLucroDecrescenteDepoisDoCursor() {
+    registroOperacaoRepository.buscar(
+        RegistroOperacaoSpecs.depoisDe("valorLucro", new BigDecimal("40.00"), 1_100_000L, false),
+        Sort.by(Sort.Direction.DESC, "valorLucro", "id"), PAGINA);
+    assertUsaIndice("IDX_REGISTROS_LUCRO");
+  }
+
+  @Test
+  void buscarPorDepositoDepoisDoCursor() {
+    registroOperacaoRepository.buscar(
+        RegistroOperacaoSpecs.depoisDe("valorDeposito", new BigDecimal("150.00"), 1_100_000L, true),
+        Sort.by("valorDeposito", "id"), PAGINA);
+    assertUsaIndice("IDX_REGISTROS_DEPOSITO");
+  }
+
+  // streamParaExportacao não entra aqui: a exportação lê o livro inteiro (com
+  // filtros opcionais) e a varredura é o plano esperado.
+
+  private void assertUsaIndice(String indice) {
+    assertThat(CapturaPlanos.PLANOS).as("consultas em " + TABELA).hasSize(1);
+    String plano = CapturaPlanos.PLANOS.get(0).toUpperCase();
+    assertThat(plano).as(plano).doesNotContain(TABELA + ".TABLESCAN");
+    assertThat(plano).as(plano).contains(indice);
+  }
+
+  /**
+   * Proxies JDBC que guardam o plano de cada SELECT em tb_registros_operacoes.
+   */
+  static class CapturaPlanos {
+
+    static final List<String> PLANOS = Collections.synchronizedList(new ArrayList<>());
+
+    static DataSource envolver(DataSource dataSource) {
+      return proxy(DataSource.class, dataSource, (metodo, args, resultado) -> metodo.getName()
+          .equals("getConnection") ? envolver((Connection) resultado) : resultado);
+    }
+
+    private static Connection envolver(Connection conexao) {
+      return proxy(Connection.class, conexao, (metodo, args, resultado) -> {
+        if (metodo.getName().equals("prepareStatement") && args[0] instanceof String sql
+            && sql.toUpperCase().startsWith("SELECT") && sql.toUpperCase().contains(TABELA)) {
+          return envolver(conexao, sql, (PreparedStatement) resultado);
+        }
+        return resultado;
+      });
+    }
+
+    private static PreparedStatement envolver(Connection conexao, String sql, PreparedStatement statement) {
+      // Índice do parâmetro → chamada setXxx feita pelo Hibernate
+      Map<Integer, Object[]> parametros = new TreeMap<>();
+      return proxy(PreparedStatement.class, statement, (metodo, args, resultado) -> {
+        if (metodo.getName().startsWith("set") && args != null && args.length >= 2
+            && args[0] instanceof Integer indice) {
+          parametros.put(indice, new Object[] { metodo, args });
+        } else if (metodo.getName().equals("executeQuery")) {
+          try (PreparedStatement explain = conexao.prepareStatement("EXPLAIN " + sql)) {
+            for (Object[] chamada : parametros.values()) {
+              ((Method) chamada[0]).invoke(explain, (Object[]) chamada[1]);
+            }
+            try (ResultSet plano = explain.executeQuery()) {
+              plano.next();
+              PLANOS.add(plano.getString(1));
+            }
+          }
+        }
+        return resultado;
+      });
+    }
+
+    private interface AposChamada {
+      Object aplicar(Method metodo, Object[] args, Object resultado) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, T alvo, AposChamada aposChamada) {
+      return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo }, (p, metodo, args) -> {
+        try {
+          return aposChamada.aplicar(metodo, args, metodo.invoke(alvo, args));
+        } catch (InvocationTargetException e) {
+          throw e.getCause();
+        }
+      });
+    }
+  }
+}
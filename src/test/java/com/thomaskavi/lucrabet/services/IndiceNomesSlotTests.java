@@ -0,0 +1,83 @@
+package com.thomaskavi.lucrabet.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Busca por prefixo de palavra e por trigrama no IndiceNomesSlot, inclusive
+ * depois de retirar nomes.
+ */
+class IndiceNomesSlotTests {
+
+  private IndiceNomesSlot indice;
+
+  @BeforeEach
+  void criar() {
+    indice = new IndiceNomesSlot();
+    indice.adicionar(0, "Fortune Tiger 10x");
+    indice.adicionar(1, "Fortune Ox 5x");
+    indice.adicionar(2, "Gates of Olympus");
+    indice.adicionar(3, "Coração  Selvagem");
+  }
+
+  @Test
+  void normalizaMaiusculasAcentosEEspacos() {
+    assertThat(IndiceNomesSlot.normalizar("  Coração  SELVAGEM ")).isEqualTo("coracao selvagem");
+  }
+
+  @Test
+  void encontraPeloInicioDeQualquerPalavra() {
+    assertThat(buscar("tig")).containsExactly(0);
+    assertThat(buscar("fortune")).containsExactlyInAnyOrder(0, 1);
+    assertThat(buscar("FORTUNE T")).containsExactly(0);
+    assertThat(buscar("ox 5")).containsExactly(1);
+    assertThat(buscar("coracao s")).containsExactly(3);
+    assertThat(buscar("selv")).containsExactly(3);
+    assertThat(buscar("o")).containsExactlyInAnyOrder(1, 2);
+  }
+
+  @Test
+  void encontraNoMeioDaPalavraComTresOuMaisCaracteres() {
+    assertThat(buscar("rtun")).containsExactlyInAnyOrder(0, 1);
+    assertThat(buscar("lymp")).containsExactly(2);
+    assertThat(buscar("ção")).containsExactly(3);
+    // Os trigramas existem, mas não nessa sequência
+    assertThat(buscar("tuneox")).isEmpty();
+    // Com menos de 3 caracteres, só o início de palavra
+    assertThat(buscar("un")).isEmpty();
+  }
+
+  @Test
+  void cadaSlotEEntregueUmaVez() {
+    // "fortune" casa pelo início de palavra e pelos trigramas
+    assertThat(buscar("fortune")).hasSize(2);
+    assertThat(buscar("")).containsExactlyInAnyOrder(0, 1, 2, 3);
+  }
+
+  @Test
+  void nomeRetiradoSaiDasDuasFormasDeBusca() {
+    indice.remover(0);
+
+    assertThat(buscar("tig")).isEmpty();
+    assertThat(buscar("iger")).isEmpty();
+    // Os trigramas e prefixos compartilhados continuam valendo para os outros
+    assertThat(buscar("fortune")).containsExactly(1);
+    assertThat(buscar("rtun")).containsExactly(1);
+
+    indice.remover(0);
+    indice.adicionar(0, "Tiger Rush");
+    assertThat(buscar("tig")).containsExactly(0);
+    assertThat(buscar("rush")).containsExactly(0);
+  }
+
+  private List<Integer> buscar(String texto) {
+    List<Integer> codigos = new ArrayList<>();
+    indice.buscar(texto, codigos::add);
+    return codigos;
+  }
+}
@@ -0,0 +1,120 @@
+package com.thomaskavi.lucrabet.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Quantis do SketchQuantis contra os exatos (posto mais próximo), com valores
+ * negativos, zero e positivos, e a retirada de valores.
+ */
+class SketchQuantisTests {
+
+  private static final double[] QUANTIS = { 0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1 };
+
+  @Test
+  void quantisFicamDentroDoErroRelativo() {
+    Random random = new Random(42);
+    long[] valores = new long[20_000];
+    SketchQuantis sketch = new SketchQuantis();
+    for (int i = 0; i < valores.length; i++) {
+      // Lucros de -R$ 500 a R$ 5.000, com ~5% de zeros
+      valores[i] = random.nextInt(20) == 0 ? 0 : random.nextLong(-50_000, 500_000);
+      sketch.adicionar(valores[i]);
+    }
+    Arrays.sort(valores);
+
+    assertThat(sketch.getQuantidade()).isEqualTo(valores.length);
+    for (double q : QUANTIS) {
+      assertProximo(sketch.quantil(q), exato(valores, q));
+    }
+  }
+
+  @Test
+  void percentisAltosDeUmaDistribuicaoPequenaNaoCaemNoMinimo() {
+    SketchQuantis sketch = new SketchQuantis();
+    sketch.adicionar(-300);
+    sketch.adicionar(100);
+
+    assertProximo(sketch.quantil(0), -300);
+    assertProximo(sketch.quantil(0.5), -300);
+    assertProximo(sketch.quantil(0.9), 100);
+    assertProximo(sketch.quantil(1), 100);
+  }
+
+  @Test
+  void zerosSaoExatos() {
+    SketchQuantis sketch = new SketchQuantis();
+    sketch.adicionar(-1);
+    sketch.adicionar(0);
+    sketch.adicionar(0);
+    sketch.adicionar(1);
+
+    assertThat(sketch.quantil(0.5)).isZero();
+    assertThat(sketch.quantil(0)).isEqualTo(-1);
+    assertThat(sketch.quantil(1)).isEqualTo(1);
+  }
+
+  @Test
+  void retirarValoresEIgualANuncaTerAdicionado() {
+    // O primeiro valor fixa o início dos baldes; os seguintes obrigam a
+    // estender a faixa para baixo e para cima, nos dois sinais
+    List<Long> mantidos = List.of(50_000L, 3L, 99_999_999_99L, -70_000L, -2L, -99_999_999_99L, 0L, 120L);
+    List<Long> retirados = List.of(1L, 7_000_000_000L, -1L, -5_000_000L, 0L, 120L);
+
+    SketchQuantis sketch = new SketchQuantis();
+    SketchQuantis esperado = new SketchQuantis();
+    List<Long> todos = new ArrayList<>(mantidos);
+    todos.addAll(retirados);
+    todos.forEach(sketch::adicionar);
+    mantidos.forEach(esperado::adicionar);
+    retirados.forEach(sketch::remover);
+
+    assertThat(sketch.getQuantidade()).isEqualTo(mantidos.size());
+    for (double q : QUANTIS) {
+      assertThat(sketch.quantil(q)).as("q = %s", q).isEqualTo(esperado.quantil(q));
+    }
+  }
+
+  @Test
+  void retirarValorAusenteFalhaSemAlterarOSketch() {
+    SketchQuantis sketch = new SketchQuantis();
+    sketch.adicionar(1_000);
+
+    assertThatThrownBy(() -> sketch.remover(5_000)).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> sketch.remover(-1_000)).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> sketch.remover(0)).isInstanceOf(IllegalStateException.class);
+    assertThat(sketch.getQuantidade()).isEqualTo(1);
+    assertProximo(sketch.quantil(0.5), 1_000);
+
+    sketch.remover(1_000);
+    assertThatThrownBy(() -> sketch.remover(1_000)).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> sketch.quantil(0.5)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void quantilForaDoIntervaloFalha() {
+    SketchQuantis sketch = new SketchQuantis();
+    sketch.adicionar(1);
+    assertThatThrownBy(() -> sketch.quantil(1.5)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> sketch.quantil(-0.1)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  // Posto mais próximo sobre os valores ordenados
+  private static long exato(long[] ordenados, double q) {
+    return ordenados[(int) Math.max(0, Math.ceil(q * ordenados.length) - 1)];
+  }
+
+  // Erro relativo do sketch, mais 1 centavo do arredondamento
+  private static void assertProximo(long estimado, long exato) {
+    assertThat((double) estimado).as("exato = %d", exato)
+        .isCloseTo(exato, within(Math.abs(exato) * SketchQuantis.ERRO_RELATIVO + 1));
+  }
+}